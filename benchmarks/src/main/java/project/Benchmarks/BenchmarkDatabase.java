@@ -0,0 +1,105 @@
+package project.Benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import project.Databases.Connect;
+import project.Databases.DatabaseConfig;
+import project.Tools.DatasetGenerator;
+
+/**
+ * Generated SQLite database for one benchmark trial.
+ *
+ * The database path is read once when the database classes load, so every
+ * trial creates its own file in its own JVM fork and deletes it afterwards.
+ * The data comes from DatasetGenerator with a fixed seed and end date, so
+ * every run of a given scale benchmarks exactly the same rows.
+ */
+class BenchmarkDatabase {
+    private static final LocalDate END_DATE = LocalDate.of(2025, 1, 1);
+    private static final int SAMPLE_SIZE = 1000;
+
+    private static Path file;
+
+    private BenchmarkDatabase() {}
+
+    static int memberCount(int scale) {
+        return Math.max(scale / 5, 10);
+    }
+
+    /**
+     * Create and fill a fresh database: scale books, scale/5 members and 2 x scale loans
+     */
+    static void create(int scale, long seed) throws IOException {
+        Path dir = Paths.get(System.getProperty("bench.dir", "target/bench-db"));
+        Files.createDirectories(dir);
+        file = dir.resolve("library-" + scale + "-" + ProcessHandle.current().pid() + ".db");
+        deleteFiles();
+
+        System.setProperty("library.db.path", file.toString());
+        if (!DatabaseConfig.DB_PATH.equals(file.toString())) {
+            throw new IllegalStateException("Database classes were already loaded by an earlier trial; run with at least one fork");
+        }
+
+        if (!new DatasetGenerator(seed, END_DATE, 5).generate(scale, memberCount(scale), scale * 2L)) {
+            throw new IllegalStateException("Could not generate the benchmark database");
+        }
+    }
+
+    /**
+     * Title and author of up to 1000 books spread evenly through the catalog
+     */
+    static List<String[]> sampleBooks(int scale) {
+        int step = Math.max(scale / SAMPLE_SIZE, 1);
+        return Connect.executeQuery("SELECT title, author FROM books WHERE id % ? = 0", rs -> {
+            List<String[]> books = new ArrayList<>();
+            try {
+                while (rs.next()) {
+                    books.add(new String[] { rs.getString("title"), rs.getString("author") });
+                }
+            } catch (SQLException e) {
+                System.err.println("Error sampling books: " + e.getMessage());
+            }
+            return books;
+        }, step);
+    }
+
+    /**
+     * Up to 1000 books with at least two copies on the shelf and no loan still out,
+     * so any generated member can borrow them
+     */
+    static List<Integer> lendableBooks() {
+        return Connect.executeQuery("SELECT id FROM books WHERE available_copies >= 2 " +
+            "AND id NOT IN (SELECT book_id FROM borrowed_books WHERE is_returned = 0) ORDER BY id LIMIT ?", rs -> {
+            List<Integer> ids = new ArrayList<>();
+            try {
+                while (rs.next()) {
+                    ids.add(rs.getInt("id"));
+                }
+            } catch (SQLException e) {
+                System.err.println("Error finding lendable books: " + e.getMessage());
+            }
+            return ids;
+        }, SAMPLE_SIZE);
+    }
+
+    /**
+     * Close the pools and delete the trial's database files
+     */
+    static void drop() throws IOException {
+        Connect.getInstance().closeConnection();
+        deleteFiles();
+    }
+
+    private static void deleteFiles() throws IOException {
+        for (String suffix : new String[] { "", "-wal", "-shm" }) {
+            Files.deleteIfExists(Paths.get(file + suffix));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package project.Benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import project.Databases.Book;
+import project.Databases.Connect;
+import project.Databases.LibraryMember;
+import project.Databases.Loan;
+import project.Tools.DatasetGenerator;
+
+/**
+ * Data access benchmarks. Subclasses choose how many threads run them.
+ *
+ * Each trial forks a JVM with its own generated database of {@code scale} books;
+ * change the size with e.g. {@code -p scale=1000,100000} and the data with {@code -p seed=7}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class LibraryBenchmarks {
+
+    @Param({ "10000" })
+    public int scale;
+
+    @Param({ "42" })
+    public long seed;
+
+    private int members;
+    private List<String[]> sampleBooks;
+    private List<Integer> lendableBooks;
+    private final AtomicLong nextLoan = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws IOException {
+        BenchmarkDatabase.create(scale, seed);
+        members = BenchmarkDatabase.memberCount(scale);
+        sampleBooks = BenchmarkDatabase.sampleBooks(scale);
+        lendableBooks = BenchmarkDatabase.lendableBooks();
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() throws IOException {
+        BenchmarkDatabase.drop();
+    }
+
+    /**
+     * Per-thread random choice of rows, seeded by thread index so runs are repeatable
+     */
+    @State(Scope.Thread)
+    public static class Picker {
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void seed(ThreadParams threads) {
+            random = new SplittableRandom(threads.getThreadIndex());
+        }
+
+        int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Benchmark
+    public List<Book> searchBooks(Picker picker) {
+        return Book.searchBooks(DatasetGenerator.titleWord(picker.next(1000)));
+    }
+
+    @Benchmark
+    public List<Book> getAllBooks() {
+        return Book.getAllBooks();
+    }
+
+    @Benchmark
+    public boolean bookExists(Picker picker) {
+        String[] book = sampleBooks.get(picker.next(sampleBooks.size()));
+        return Book.bookExists(book[0], book[1]);
+    }
+
+    @Benchmark
+    public LibraryMember authenticateMember(Picker picker) {
+        int member = picker.next(members);
+        return LibraryMember.AuthenticateMember(DatasetGenerator.memberEmail(member), DatasetGenerator.MEMBER_PASSWORD);
+    }
+
+    @Benchmark
+    public int executeCount(Picker picker) {
+        return Connect.executeCount("SELECT COUNT(*) FROM borrowed_books WHERE member_email = ?",
+            DatasetGenerator.memberEmail(picker.next(members)));
+    }
+
+    /**
+     * One borrow transaction followed by the matching return transaction, so
+     * available copies stay constant. Consecutive calls use different members and books.
+     */
+    @Benchmark
+    public Loan.Outcome borrowAndReturn() {
+        long loan = nextLoan.getAndIncrement();
+        int bookId = lendableBooks.get((int) (loan % lendableBooks.size()));
+        String email = DatasetGenerator.memberEmail((int) (loan % members));
+
+        Loan.Outcome borrowed = Loan.borrowBook(email, bookId);
+        if (borrowed != Loan.Outcome.SUCCESS) {
+            return borrowed;
+        }
+        String borrowId = Connect.executeScalar(
+            "SELECT id FROM borrowed_books WHERE member_email = ? AND book_id = ? AND is_returned = 0", email, bookId);
+        return Loan.returnBook(Integer.parseInt(borrowId), bookId);
+    }
+}
@@ -0,0 +1,10 @@
+package project.Benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Data access benchmarks on four threads: reader pool and single-writer contention
+ */
+@Threads(4)
+public class MultiThreadedBenchmarks extends LibraryBenchmarks {
+}
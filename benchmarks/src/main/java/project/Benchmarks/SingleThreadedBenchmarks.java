@@ -0,0 +1,10 @@
+package project.Benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Data access benchmarks on one thread: the latency of a single user
+ */
+@Threads(1)
+public class SingleThreadedBenchmarks extends LibraryBenchmarks {
+}
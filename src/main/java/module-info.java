@@ -2,6 +2,7 @@ module project {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql;
+    requires jdk.httpserver;
     requires de.jensd.fx.glyphs.fontawesome;
 
     opens project to javafx.fxml;
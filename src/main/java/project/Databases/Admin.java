@@ -1,12 +1,13 @@
 package project.Databases;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class Admin {
     private String email;
@@ -45,58 +46,154 @@ public class Admin {
     public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
 
     public static Admin authenticateAdmin(String email, String password) throws SQLException {
-        String query = "SELECT email, name, password, age, phone_number FROM admins WHERE email = ? AND password = ?";
-
-        try (Connection connection = Connect.getDBConnection();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
-            
-            stmt.setString(1, email);
-            stmt.setString(2, password);
-
-            ResultSet rs = stmt.executeQuery();
-
-            if(rs.next()) {
-                return new Admin(
-                    rs.getString("email"),
-                    rs.getString("name"),
-                    rs.getString("password"),
-                    rs.getInt("age"),
-                    rs.getString("phone_number")
-                );
-            }
-        } catch (SQLException e) {
-            System.err.println("Error authenticating admin " + e.getMessage());
-        }
-        
-        return null;
-        
+        UserDirectory.User user = UserDirectory.authenticate(email, password);
+        return user != null ? user.getAdmin() : null;
     }   
 
+    /**
+     * Map a row of the admins table
+     */
+    public static Admin fromResultSet(ResultSet rs) throws SQLException {
+        Admin admin = new Admin();
+        admin.setEmail(rs.getString("email"));
+        admin.setName(rs.getString("name"));
+        admin.setPassword(rs.getString("password"));
+        admin.setAge(rs.getInt("age"));
+        admin.setPhoneNumber(rs.getString("phone_number"));
+        admin.setCreatedAt(rs.getTimestamp("created_at"));
+        return admin;
+    }
+
+    /**
+     * Stream all members, newest first. Close the stream when done (try-with-resources).
+     */
+    public static Stream<LibraryMember> streamAllMembers() {
+        String query = "SELECT email, name, password, age, phone_number, created_at FROM members ORDER BY created_at DESC";
+        return Connect.stream(query, LibraryMember::fromResultSet);
+    }
+
+    /**
+     * Stream all admins, newest first. Close the stream when done (try-with-resources).
+     */
+    public static Stream<Admin> streamAllAdmins() {
+        String query = "SELECT email, name, password, age, phone_number, created_at FROM admins ORDER BY created_at DESC";
+        return Connect.stream(query, Admin::fromResultSet);
+    }
+
+    /**
+     * Columns the member directory can be sorted by. Each one is indexed together with
+     * email, which breaks ties, so every page is an index seek in either direction.
+     */
+    public enum MemberSortColumn {
+        JOINED("created_at"),
+        EMAIL("email"),
+        NAME("name"),
+        AGE("age");
+
+        private final String column;
+
+        MemberSortColumn(String column) {
+            this.column = column;
+        }
+    }
+
+    /**
+     * Conditions for the member directory; blank or null fields match everyone
+     */
+    public static class MemberFilter {
+        public static final MemberFilter NONE = new MemberFilter(null, null, null, null);
+
+        /** Part of the name, any case */
+        public final String name;
+        /** Part of the email, any case */
+        public final String email;
+        /** First and last day joined, inclusive */
+        public final LocalDate joinedFrom;
+        public final LocalDate joinedTo;
+
+        public MemberFilter(String name, String email, LocalDate joinedFrom, LocalDate joinedTo) {
+            this.name = name != null && !name.trim().isEmpty() ? name.trim() : null;
+            this.email = email != null && !email.trim().isEmpty() ? email.trim() : null;
+            this.joinedFrom = joinedFrom;
+            this.joinedTo = joinedTo;
+        }
+
+        public boolean isEmpty() {
+            return name == null && email == null && joinedFrom == null && joinedTo == null;
+        }
+    }
+
+    /**
+     * Get one page of members, newest first, using keyset pagination on (created_at, email)
+     * @param pageToken Token from the previous page, or null for the first page
+     * @param limit Maximum members on the page
+     */
+    public static Page<LibraryMember> getMembersPage(String pageToken, int limit) {
+        return getMembersPage(MemberFilter.NONE, MemberSortColumn.JOINED, false, pageToken, limit);
+    }
+
+    /**
+     * Get one page of the members matching a filter, in the given order, using keyset
+     * pagination on (sort column, email). The join date range uses the created_at index;
+     * name and email matches are checked on the rows read in sort order until the page is full.
+     * @param pageToken Token from the previous page of the same filter and order, or null for the first page
+     * @param limit Maximum members on the page
+     */
+    public static Page<LibraryMember> getMembersPage(MemberFilter filter, MemberSortColumn sort, boolean ascending,
+                                                     String pageToken, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (filter.name != null) {
+            conditions.add("name LIKE ? ESCAPE '\\'");
+            params.add(containsPattern(filter.name));
+        }
+        if (filter.email != null) {
+            conditions.add("email LIKE ? ESCAPE '\\'");
+            params.add(containsPattern(filter.email));
+        }
+        // created_at is stored as 'YYYY-MM-DD HH:MM:SS' text, so whole days compare as strings
+        if (filter.joinedFrom != null) {
+            conditions.add("created_at >= ?");
+            params.add(filter.joinedFrom.toString());
+        }
+        if (filter.joinedTo != null) {
+            conditions.add("created_at < ?");
+            params.add(filter.joinedTo.plusDays(1).toString());
+        }
+
+        String direction = ascending ? "ASC" : "DESC";
+        String[] keys = sort == MemberSortColumn.EMAIL ? new String[] { "email" } : new String[] { sort.column, "email" };
+        String order = sort == MemberSortColumn.EMAIL ? " ORDER BY email " + direction
+                                                      : " ORDER BY " + sort.column + " " + direction + ", email " + direction;
+
+        String[] after = Page.decodeToken(pageToken, keys.length);
+        if (after != null) {
+            // Keys are bound as text; INTEGER column affinity makes SQLite compare ages as numbers
+            conditions.add("(" + String.join(", ", keys) + ") " + (ascending ? ">" : "<") +
+                           " (" + (keys.length == 1 ? "?" : "?, ?") + ")");
+            params.addAll(List.of((Object[]) after));
+        }
+
+        String query = "SELECT email, name, password, age, phone_number, created_at FROM members" +
+                       (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) + order;
+        return Connect.executePage(query, LibraryMember::fromResultSet, keys, limit, params.toArray());
+    }
+
+    /**
+     * LIKE pattern matching the text anywhere, with its own % and _ taken literally
+     */
+    private static String containsPattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
     /**
      * View all members in the system
      * @return List of LibraryMember objects
      */
     public static List<LibraryMember> ViewAllMembers() {
-        String query = "SELECT email, name, password, age, phone_number, created_at FROM members ORDER BY created_at DESC";
-        
-        return Connect.executeQuery(query, rs -> {
-            List<LibraryMember> members = new ArrayList<>();
-            try {
-                while (rs.next()) {
-                    LibraryMember member = new LibraryMember();
-                    member.setEmail(rs.getString("email"));
-                    member.setName(rs.getString("name"));
-                    member.setPassword(rs.getString("password"));
-                    member.setAge(rs.getInt("age"));
-                    member.setPhoneNumber(rs.getString("phone_number"));
-                    member.setCreatedAt(rs.getTimestamp("created_at"));
-                    members.add(member);
-                }
-            } catch (SQLException e) {
-                System.err.println("Error processing members: " + e.getMessage());
-            }
-            return members;
-        });
+        try (Stream<LibraryMember> members = streamAllMembers()) {
+            return members.collect(Collectors.toList());
+        }
     }
 
     /**
@@ -104,26 +201,9 @@ public class Admin {
      * @return List of Admin objects
      */
     public static List<Admin> ViewAllAdmins() {
-        String query = "SELECT email, name, password, age, phone_number, created_at FROM admins ORDER BY created_at DESC";
-        
-        return Connect.executeQuery(query, rs -> {
-            List<Admin> admins = new ArrayList<>();
-            try {
-                while (rs.next()) {
-                    Admin admin = new Admin();
-                    admin.setEmail(rs.getString("email"));
-                    admin.setName(rs.getString("name"));
-                    admin.setPassword(rs.getString("password"));
-                    admin.setAge(rs.getInt("age"));
-                    admin.setPhoneNumber(rs.getString("phone_number"));
-                    admin.setCreatedAt(rs.getTimestamp("created_at"));
-                    admins.add(admin);
-                }
-            } catch (SQLException e) {
-                System.err.println("Error processing admins: " + e.getMessage());
-            }
-            return admins;
-        });
+        try (Stream<Admin> admins = streamAllAdmins()) {
+            return admins.collect(Collectors.toList());
+        }
     }
 
     /**
@@ -182,6 +262,8 @@ public class Admin {
         String query = "DELETE FROM members WHERE email = ?";
         try {
             boolean result = Connect.executeUpdate(query, email);
+            UserDirectory.invalidate(email);
+            LibraryCounters.invalidate();
             if (result) {
                 System.out.println("Member deleted successfully with email: " + email);
             } else {
@@ -199,7 +281,7 @@ public class Admin {
      * Get total number of members
      */
     public static int getTotalMemberCount() {
-        return Connect.executeCount("SELECT COUNT(*) FROM members");
+        return (int) LibraryCounters.get(LibraryCounters.Counter.MEMBERS);
     }
 
     /**
@@ -216,6 +298,7 @@ public class Admin {
         
         try {
             boolean result = Connect.executeUpdate(query, email, name, password, age, phoneNumber);
+            UserDirectory.invalidate(email);
             if (result) {
                 System.out.println("Admin added successfully: " + name + " (" + email + ")");
             } else {
@@ -0,0 +1,123 @@
+package project.Databases;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * CompletableFuture versions of the Connect helpers, run off the calling thread.
+ *
+ * Work runs on a dedicated executor: one virtual thread per task when the JVM
+ * supports them (Java 21+), otherwise a small pool of daemon threads sized to the
+ * connection pools. Futures complete on that executor, so UI code should hand
+ * results back to its own thread (see project.Utilities.FxAsync).
+ */
+public class AsyncDatabase {
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private AsyncDatabase() {}
+
+    private static ExecutorService createExecutor() {
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        if (virtualThreads != null) {
+            System.out.println("Database tasks will run on virtual threads");
+            return virtualThreads;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return Executors.newFixedThreadPool(DatabaseConfig.ASYNC_THREADS, r -> {
+            Thread thread = new Thread(r, "db-async-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * An executor starting one virtual thread per task, or null if they are disabled
+     * (library.async.virtualThreads) or this JVM has none (before Java 21)
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        if (!DatabaseConfig.ASYNC_VIRTUAL_THREADS) {
+            return null;
+        }
+        try {
+            // Looked up reflectively so the project still builds and runs on Java 17
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Run any database work on the database executor
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, EXECUTOR);
+    }
+
+    /**
+     * Run database work that has no result on the database executor
+     */
+    public static CompletableFuture<Void> run(Runnable work) {
+        return CompletableFuture.runAsync(work, EXECUTOR);
+    }
+
+    /**
+     * @see Connect#executeQuery(String, Function, Object...)
+     */
+    public static <T> CompletableFuture<T> executeQuery(String query, Function<ResultSet, T> processor, Object... params) {
+        return supply(() -> Connect.executeQuery(query, processor, params));
+    }
+
+    /**
+     * @see Connect#executeUpdate(String, Object...)
+     */
+    public static CompletableFuture<Boolean> executeUpdate(String query, Object... params) {
+        return supply(() -> Connect.executeUpdate(query, params));
+    }
+
+    /**
+     * @see Connect#executeCount(String, Object...)
+     */
+    public static CompletableFuture<Integer> executeCount(String query, Object... params) {
+        return supply(() -> Connect.executeCount(query, params));
+    }
+
+    /**
+     * @see Connect#executeBatch(String, List)
+     */
+    public static CompletableFuture<BatchResult> executeBatch(String query, List<Object[]> rows) {
+        return supply(() -> Connect.executeBatch(query, rows));
+    }
+
+    /**
+     * @see Connect#inTransaction(Function)
+     */
+    public static <T> CompletableFuture<T> inTransaction(Function<Connection, T> work) {
+        return supply(() -> Connect.inTransaction(work));
+    }
+
+    /**
+     * Stop accepting work and give running tasks a moment to finish
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+        try {
+            if (!EXECUTOR.awaitTermination(2, TimeUnit.SECONDS)) {
+                EXECUTOR.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            EXECUTOR.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package project.Databases;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a multi-row write: how many rows were written and which rows failed, and why.
+ */
+public class BatchResult {
+
+    /**
+     * A row that could not be written. Index is the row's position in the submitted list,
+     * or -1 when the whole batch failed before any row could be blamed.
+     */
+    public static class RowError {
+        private final int index;
+        private final String message;
+
+        public RowError(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public int getIndex() { return index; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return (index >= 0 ? "Row " + (index + 1) : "Batch") + ": " + message;
+        }
+    }
+
+    private final int submitted;
+    private int succeeded = 0;
+    private boolean rolledBack = false;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public BatchResult(int submitted) {
+        this.submitted = submitted;
+    }
+
+    void recordSuccesses(int count) {
+        succeeded += count;
+    }
+
+    /**
+     * Record a failed row. Also used by callers that reject rows before they reach the database.
+     */
+    public void recordFailure(int index, String message) {
+        errors.add(new RowError(index, message));
+    }
+
+    void markRolledBack() {
+        rolledBack = true;
+        succeeded = 0;
+    }
+
+    /**
+     * Copy the outcome of a batch that ran on a subset of rows, mapping its
+     * row indexes back to positions in the original list
+     */
+    public void merge(BatchResult other, int[] originalIndexes) {
+        succeeded += other.succeeded;
+        rolledBack |= other.rolledBack;
+        for (RowError error : other.errors) {
+            int index = error.index >= 0 ? originalIndexes[error.index] : -1;
+            errors.add(new RowError(index, error.message));
+        }
+        if (rolledBack) {
+            succeeded = 0;
+        }
+    }
+
+    public int getSubmitted() { return submitted; }
+    public int getSucceeded() { return succeeded; }
+    public int getFailed() { return submitted - succeeded; }
+    public boolean isRolledBack() { return rolledBack; }
+    public boolean hasFailures() { return !errors.isEmpty(); }
+    public boolean isSuccessful() { return errors.isEmpty() && succeeded == submitted; }
+    public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult[submitted=%d, succeeded=%d, failed=%d%s]",
+            submitted, succeeded, getFailed(), rolledBack ? ", rolled back" : "");
+    }
+}
@@ -1,10 +1,18 @@
 package project.Databases;
 
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 
@@ -60,6 +68,42 @@ public class Book {
     public Timestamp getCreatedAt() { return createdAt; }
     public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
 
+    /**
+     * Copy of this book, so callers can change what they got without touching the cache
+     */
+    private Book copy() {
+        Book book = new Book(title, author, totalCopies, addedByEmail, addedByType);
+        book.id = id;
+        book.availableCopies = availableCopies;
+        book.borrowCount = borrowCount;
+        book.createdAt = createdAt;
+        return book;
+    }
+
+    private static List<Book> copyAll(List<Book> books) {
+        if (books == null) {
+            return new ArrayList<>();
+        }
+        List<Book> copies = new ArrayList<>(books.size());
+        for (Book book : books) {
+            copies.add(book.copy());
+        }
+        return copies;
+    }
+
+    static final BookCache CACHE = new BookCache(DatabaseConfig.BOOK_CACHE_POLICY,
+        DatabaseConfig.BOOK_CACHE_SIZE, DatabaseConfig.SEARCH_CACHE_SIZE);
+
+    /**
+     * Hit, miss and eviction counts of the book cache
+     */
+    public static String getCacheStats() {
+        return CACHE.describeStats();
+    }
+
+    private static final String INSERT_BOOK =
+        "INSERT INTO books (title, author, total_copies, available_copies, added_by_email, added_by_type) VALUES (?, ?, ?, ?, ?, ?)";
+
     /**
      * Add a new book to the database - can be added by admin or member
      */
@@ -71,33 +115,20 @@ public class Book {
         }
         
         // Validate inputs
-        if (title == null || title.trim().isEmpty()) {
-            System.err.println("Book title cannot be empty");
-            return false;
-        }
-        if (author == null || author.trim().isEmpty()) {
-            System.err.println("Author name cannot be empty");
-            return false;
-        }
-        if (copies <= 0) {
-            System.err.println("Number of copies must be greater than 0");
+        String validationError = validateBook(title, author, copies, userEmail, userType);
+        if (validationError != null) {
+            System.err.println(validationError);
             return false;
         }
-        if (userEmail == null || userEmail.trim().isEmpty()) {
-            System.err.println("User email cannot be empty");
-            return false;
-        }
-        if (userType == null || (!userType.equals("admin") && !userType.equals("member"))) {
-            System.err.println("User type must be 'admin' or 'member'");
-            return false;
-        }
-        
-        String query = "INSERT INTO books (title, author, total_copies, available_copies, added_by_email, added_by_type) VALUES (?, ?, ?, ?, ?, ?)";
         
         try {
-            boolean result = Connect.executeUpdate(query, title, author, copies, copies, userEmail, userType);
+            boolean result = Connect.executeUpdate(INSERT_BOOK, title, author, copies, copies, userEmail, userType);
             if (result) {
                 System.out.println("Book added successfully: " + title + " by " + author);
+                CACHE.titles.invalidate(BookCache.titleKey(title, author));
+                CACHE.searches.invalidateAll();
+                LibraryCounters.invalidate();
+                updateFuzzyIndex();
             } else {
                 System.err.println("Failed to add book to database");
             }
@@ -110,146 +141,530 @@ public class Book {
     }
     
     /**
-     * Get all books as a list of Book objects
+     * Add many books in one transaction, e.g. a new shipment.
+     * Books are inserted in batches; if any book is invalid or already exists nothing is added.
+     * @param books Books to add, using their title, author and total copies
+     * @return Per-book outcome, with error indexes matching positions in the list
      */
-    public static List<Book> getAllBooks() {
-        String query = "SELECT * FROM books ORDER BY created_at DESC";
-        
-        return Connect.executeQuery(query, rs -> {
-            List<Book> books = new ArrayList<>();
+    public static BatchResult addBooks(List<Book> books, String userEmail, String userType) {
+        BatchResult result = new BatchResult(books.size());
+        List<Object[]> rows = new ArrayList<>();
+        int[] originalIndexes = new int[books.size()];
+
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            String validationError = validateBook(book.getTitle(), book.getAuthor(), book.getTotalCopies(), userEmail, userType);
+            if (validationError != null) {
+                result.recordFailure(i, validationError);
+                continue;
+            }
+            originalIndexes[rows.size()] = i;
+            rows.add(new Object[] { book.getTitle(), book.getAuthor(), book.getTotalCopies(),
+                book.getTotalCopies(), userEmail, userType });
+        }
+
+        if (result.hasFailures()) {
+            System.err.println("Bulk add cancelled, " + result.getErrors().size() + " invalid book(s)");
+            return result;
+        }
+
+        result.merge(Connect.executeBatch(INSERT_BOOK, rows), originalIndexes);
+        if (result.getSucceeded() > 0) {
+            for (Book book : books) {
+                CACHE.titles.invalidate(BookCache.titleKey(book.getTitle(), book.getAuthor()));
+            }
+            CACHE.searches.invalidateAll();
+            LibraryCounters.invalidate();
+        }
+        if (result.isSuccessful()) {
+            System.out.println("Added " + result.getSucceeded() + " books");
+            updateFuzzyIndex();
+        } else {
+            result.getErrors().forEach(error -> System.err.println("Failed to add book - " + error));
+        }
+        return result;
+    }
+
+    /** Inserts every [title, author, copies] row of a JSON array */
+    private static final String IMPORT_BOOKS =
+        "INSERT INTO books (title, author, total_copies, available_copies, added_by_email, added_by_type) " +
+        "SELECT json_extract(value, '$[0]'), json_extract(value, '$[1]'), json_extract(value, '$[2]'), " +
+        "json_extract(value, '$[2]'), ?2, ?3 FROM json_each(?1)";
+
+    /**
+     * Add one chunk of a bulk import in a single transaction, keeping the books that can be added.
+     * Unlike {@link #addBooks}, invalid and duplicate books are reported and skipped instead of
+     * cancelling the rest. Titles already in the library are found with one lookup for the whole
+     * chunk, and a title repeated within the chunk is only added once.
+     * @param books Books to add, using their title, author and total copies
+     * @return Per-book outcome, with error indexes matching positions in the list
+     */
+    public static BatchResult importBooks(List<Book> books, String userEmail, String userType) {
+        BatchResult result = new BatchResult(books.size());
+        // Titles are unique in the books table, so a title can only be added once whatever its author
+        Map<String, Integer> indexByTitle = new LinkedHashMap<>();
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            String validationError = validateBook(book.getTitle(), book.getAuthor(), book.getTotalCopies(), userEmail, userType);
+            if (validationError != null) {
+                result.recordFailure(i, validationError);
+            } else if (indexByTitle.putIfAbsent(book.getTitle(), i) != null) {
+                result.recordFailure(i, "Title appears more than once in the import");
+            }
+        }
+        if (indexByTitle.isEmpty()) {
+            return result;
+        }
+
+        int[] originalIndexes = new int[indexByTitle.size()];
+        BatchResult inserted = Connect.inTransaction(connection -> {
+            Map<String, String> existing = findAuthorsByTitle(indexByTitle.keySet());
+            if (existing == null) {
+                throw new Connect.RollbackException("Could not check the import for existing books");
+            }
+            List<Object[]> rows = new ArrayList<>(indexByTitle.size());
+            for (int i : indexByTitle.values()) {
+                Book book = books.get(i);
+                String existingAuthor = existing.get(book.getTitle());
+                if (existingAuthor == null) {
+                    originalIndexes[rows.size()] = i;
+                    rows.add(new Object[] { book.getTitle(), book.getAuthor(), book.getTotalCopies() });
+                } else if (existingAuthor.equals(book.getAuthor())) {
+                    result.recordFailure(i, "Book already exists");
+                } else {
+                    result.recordFailure(i, "Title already belongs to a book by " + existingAuthor);
+                }
+            }
+            // One statement for the whole chunk: a statement per row makes SQLite open a statement
+            // journal and flush the full-text index for every row, which is many times slower
+            if (rows.isEmpty() || Connect.executeUpdate(IMPORT_BOOKS, Json.rowArray(rows), userEmail, userType)) {
+                BatchResult batch = new BatchResult(rows.size());
+                batch.recordSuccesses(rows.size());
+                return batch;
+            }
+            // Something the checks above did not catch; insert row by row to find the culprits
+            List<Object[]> fullRows = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                fullRows.add(new Object[] { row[0], row[1], row[2], row[2], userEmail, userType });
+            }
+            return Connect.executeBatch(INSERT_BOOK, fullRows, DatabaseConfig.BATCH_CHUNK_SIZE, false);
+        });
+
+        if (inserted == null) {
+            result.recordFailure(-1, "Import of " + indexByTitle.size() + " book(s) was rolled back");
+            return result;
+        }
+        result.merge(inserted, originalIndexes);
+        if (result.getSucceeded() > 0) {
+            for (Book book : books) {
+                CACHE.titles.invalidate(BookCache.titleKey(book.getTitle(), book.getAuthor()));
+            }
+            CACHE.searches.invalidateAll();
+            LibraryCounters.invalidate();
+            updateFuzzyIndex();
+        }
+        return result;
+    }
+
+    /**
+     * Author of each of the given titles that is already in the library, in one query
+     * @return Title to author, or null if the lookup failed
+     */
+    private static Map<String, String> findAuthorsByTitle(Collection<String> titles) {
+        return Connect.executeQuery("SELECT title, author FROM books WHERE title IN (SELECT value FROM json_each(?))", rs -> {
+            Map<String, String> found = new HashMap<>();
             try {
                 while (rs.next()) {
-                    Book book = new Book();
-                    book.setId(rs.getInt("id"));
-                    book.setTitle(rs.getString("title"));
-                    book.setAuthor(rs.getString("author"));
-                    book.setTotalCopies(rs.getInt("total_copies"));
-                    book.setAvailableCopies(rs.getInt("available_copies"));
-                    book.setBorrowCount(rs.getInt("borrow_count"));
-                    book.setAddedByEmail(rs.getString("added_by_email"));
-                    book.setAddedByType(rs.getString("added_by_type"));
-                    book.setCreatedAt(rs.getTimestamp("created_at"));
-                    books.add(book);
+                    found.put(rs.getString(1), rs.getString(2));
                 }
+                return found;
             } catch (SQLException e) {
-                System.err.println("Error processing book results: " + e.getMessage());
+                System.err.println("Error checking for existing books: " + e.getMessage());
+                return null;
             }
-            return books;
-        });
+        }, Json.stringArray(titles));
+    }
+
+    /**
+     * Check a book's fields before inserting it
+     * @return Description of the first problem found, or null if the book is valid
+     */
+    public static String validateBook(String title, String author, int copies, String userEmail, String userType) {
+        if (title == null || title.trim().isEmpty()) {
+            return "Book title cannot be empty";
+        }
+        if (author == null || author.trim().isEmpty()) {
+            return "Author name cannot be empty";
+        }
+        if (copies <= 0) {
+            return "Number of copies must be greater than 0";
+        }
+        if (userEmail == null || userEmail.trim().isEmpty()) {
+            return "User email cannot be empty";
+        }
+        if (userType == null || (!userType.equals("admin") && !userType.equals("member"))) {
+            return "User type must be 'admin' or 'member'";
+        }
+        return null;
+    }
+    
+    /**
+     * Map a full row of the books table
+     */
+    public static Book fromResultSet(ResultSet rs) throws SQLException {
+        Book book = new Book();
+        book.setId(rs.getInt("id"));
+        book.setTitle(rs.getString("title"));
+        book.setAuthor(rs.getString("author"));
+        book.setTotalCopies(rs.getInt("total_copies"));
+        book.setAvailableCopies(rs.getInt("available_copies"));
+        book.setBorrowCount(rs.getInt("borrow_count"));
+        book.setAddedByEmail(rs.getString("added_by_email"));
+        book.setAddedByType(rs.getString("added_by_type"));
+        book.setCreatedAt(rs.getTimestamp("created_at"));
+        return book;
+    }
+
+    /**
+     * Stream all books, newest first, without loading the whole catalog into memory.
+     * The stream holds a database connection, so close it (try-with-resources).
+     */
+    public static Stream<Book> streamAllBooks() {
+        return Connect.stream("SELECT * FROM books ORDER BY created_at DESC", Book::fromResultSet);
+    }
+
+    /**
+     * Get all books as a list of Book objects
+     */
+    public static List<Book> getAllBooks() {
+        try (Stream<Book> books = streamAllBooks()) {
+            return books.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Columns a book listing can be sorted by. Each one is indexed, so every page is an
+     * index seek in either direction; ties are broken by id.
+     */
+    public enum SortColumn {
+        ADDED("created_at"),
+        ID("id"),
+        TITLE("title"),
+        AUTHOR("author"),
+        TOTAL_COPIES("total_copies"),
+        AVAILABLE_COPIES("available_copies");
+
+        private final String column;
+
+        SortColumn(String column) {
+            this.column = column;
+        }
+    }
+
+    /**
+     * Get one page of books, newest first, using keyset pagination on (created_at, id)
+     * @param pageToken Token from the previous page, or null for the first page
+     * @param limit Maximum books on the page
+     */
+    public static Page<Book> getBooksPage(String pageToken, int limit) {
+        return getBooksPage(SortColumn.ADDED, false, pageToken, limit);
+    }
+
+    /**
+     * Get one page of books in the given order, using keyset pagination on (sort column, id)
+     * @param pageToken Token from the previous page of the same order, or null for the first page
+     * @param limit Maximum books on the page
+     */
+    public static Page<Book> getBooksPage(SortColumn sort, boolean ascending, String pageToken, int limit) {
+        String direction = ascending ? "ASC" : "DESC";
+        String[] keys = sort == SortColumn.ID ? new String[] { "id" } : new String[] { sort.column, "id" };
+        String order = sort == SortColumn.ID ? " ORDER BY id " + direction
+                                             : " ORDER BY " + sort.column + " " + direction + ", id " + direction;
+
+        String[] after = Page.decodeToken(pageToken, keys.length);
+        if (after == null) {
+            return Connect.executePage("SELECT * FROM books" + order, Book::fromResultSet, keys, limit);
+        }
+        // Keys are bound as text; INTEGER column affinity makes SQLite compare numeric keys as numbers
+        String seek = " WHERE (" + String.join(", ", keys) + ") " + (ascending ? ">" : "<") +
+                      " (" + (keys.length == 1 ? "?" : "?, ?") + ")";
+        return Connect.executePage("SELECT * FROM books" + seek + order, Book::fromResultSet, keys, limit, (Object[]) after);
+    }
+
+    /**
+     * Copy and stock totals for the whole catalog
+     */
+    public static class CatalogSummary {
+        public int totalBooks;
+        public int totalCopies;
+        public int availableCopies;
+        public int outOfStockBooks;
+
+        public int getBorrowedCopies() { return totalCopies - availableCopies; }
+        public int getAvailableBooks() { return totalBooks - outOfStockBooks; }
+    }
+
+    /**
+     * Catalog totals from the maintained library counters, without scanning the books table
+     */
+    public static CatalogSummary getCatalogSummary() {
+        CatalogSummary summary = new CatalogSummary();
+        summary.totalBooks = (int) LibraryCounters.get(LibraryCounters.Counter.BOOKS);
+        summary.totalCopies = (int) LibraryCounters.get(LibraryCounters.Counter.TOTAL_COPIES);
+        summary.availableCopies = (int) LibraryCounters.get(LibraryCounters.Counter.AVAILABLE_COPIES);
+        summary.outOfStockBooks = (int) LibraryCounters.get(LibraryCounters.Counter.OUT_OF_STOCK_BOOKS);
+        return summary;
     }
     
     /**
      * Check if user exists and determine their type
      */
     public static String getUserType(String email) {
-        // Check if admin
-        int adminCount = Connect.executeCount("SELECT COUNT(*) FROM admins WHERE email = ?", email);
-        if (adminCount > 0) return "admin";
-        
-        // Check if member
-        int memberCount = Connect.executeCount("SELECT COUNT(*) FROM members WHERE email = ?", email);
-        if (memberCount > 0) return "member";
-        
-        return null; // User not found
+        return UserDirectory.getUserType(email);
     }
     
+    private static final String SEARCH_FROM =
+        "SELECT b.* FROM books_fts JOIN books b ON b.id = books_fts.rowid WHERE books_fts MATCH ? ";
+
+    // Title matches weigh twice as much as author matches; ties fall back to title order
+    private static final String SEARCH_ORDER = " ORDER BY bm25(books_fts, 2.0, 1.0), b.title LIMIT ?";
+
     /**
-     * Search books by title or author
+     * Turn what the user typed into an FTS5 query: every word must match,
+     * and each word also matches as a prefix ("harr pot" finds "Harry Potter").
+     * @return the MATCH expression, or null if the text has no searchable words
      */
-    public static List<Book> searchBooks(String searchTerm) {
-        String query = "SELECT * FROM books WHERE title LIKE ? OR author LIKE ? ORDER BY title";
-        String searchPattern = "%" + searchTerm + "%";
-        
-        return Connect.executeQuery(query, rs -> {
-            List<Book> books = new ArrayList<>();
+    public static String toMatchQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                // Words are letters and digits only, so quoting them can never break the query
+                query.append(query.length() == 0 ? "" : " ").append('"').append(word).append("\"*");
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    private static List<Book> searchIndex(String condition, String matchQuery) {
+        if (matchQuery == null) {
+            return new ArrayList<>();
+        }
+        List<Book> books = Connect.executeQuery(SEARCH_FROM + condition + SEARCH_ORDER, rs -> {
+            List<Book> found = new ArrayList<>();
             try {
                 while (rs.next()) {
-                    Book book = new Book();
-                    book.setId(rs.getInt("id"));
-                    book.setTitle(rs.getString("title"));
-                    book.setAuthor(rs.getString("author"));
-                    book.setTotalCopies(rs.getInt("total_copies"));
-                    book.setAvailableCopies(rs.getInt("available_copies"));
-                    books.add(book);
+                    found.add(fromResultSet(rs));
                 }
             } catch (SQLException e) {
                 System.err.println("Error processing search results: " + e.getMessage());
             }
-            return books;
-        }, searchPattern, searchPattern);
+            return found;
+        }, matchQuery, DatabaseConfig.SEARCH_LIMIT);
+        // A failed or cancelled search returns null, so it is not cached as "no matches"
+        return books;
     }
-    
+
     /**
-     * Search books for deletion (more detailed results)
+     * Search books by title or author using the full-text index, best matches first.
+     * If no book matches every word, fall back to a typo-tolerant search.
      */
-    public static List<Book> searchBooksForDeletion(String title, String author) {
-        StringBuilder queryBuilder = new StringBuilder("SELECT * FROM books WHERE ");
-        List<String> conditions = new ArrayList<>();
-        List<String> parameters = new ArrayList<>();
-        
-        if (title != null && !title.trim().isEmpty()) {
-            conditions.add("title LIKE ?");
-            parameters.add("%" + title.trim() + "%");
+    public static List<Book> searchBooks(String searchTerm) {
+        return copyAll(CACHE.searches.get("all\u0000" + searchTerm, () -> {
+            List<Book> books = searchIndex("", toMatchQuery(searchTerm));
+            return books != null && books.isEmpty() ? searchFuzzy(searchTerm, "") : books;
+        }));
+    }
+
+    /**
+     * Search books that still have copies to lend, best matches first,
+     * falling back to a typo-tolerant search like {@link #searchBooks}
+     */
+    public static List<Book> searchAvailableBooks(String searchTerm) {
+        String condition = "AND b.available_copies > 0";
+        return copyAll(CACHE.searches.get("available\u0000" + searchTerm, () -> {
+            List<Book> books = searchIndex(condition, toMatchQuery(searchTerm));
+            return books != null && books.isEmpty() ? searchFuzzy(searchTerm, condition) : books;
+        }));
+    }
+
+    // ==================== FUZZY SEARCH ====================
+
+    private static final TrigramIndex FUZZY_INDEX = new TrigramIndex();
+    private static volatile boolean fuzzyIndexLoaded = false;
+
+    /**
+     * Load every book into the in-memory typo-tolerant search index.
+     * Call once at startup, off the UI thread; until it finishes, fuzzy searches find nothing.
+     */
+    public static void loadFuzzyIndex() {
+        if (!DatabaseConfig.FUZZY_SEARCH_ENABLED || fuzzyIndexLoaded) {
+            return;
         }
-        
-        if (author != null && !author.trim().isEmpty()) {
-            conditions.add("author LIKE ?");
-            parameters.add("%" + author.trim() + "%");
+        long start = System.currentTimeMillis();
+        fuzzyIndexLoaded = indexNewBooks();
+        if (fuzzyIndexLoaded) {
+            // Pick up books added while the first pass was running
+            indexNewBooks();
+            // Searches cached before the index was ready may have missed fuzzy matches
+            CACHE.searches.invalidateAll();
+            System.out.println("Indexed " + FUZZY_INDEX.size() + " books for fuzzy search in " +
+                (System.currentTimeMillis() - start) + " ms");
         }
-        
-        // Join conditions with OR if both are provided, otherwise use the single condition
-        if (conditions.size() == 2) {
-            queryBuilder.append("(").append(conditions.get(0)).append(" OR ").append(conditions.get(1)).append(")");
-        } else {
-            queryBuilder.append(conditions.get(0));
+    }
+
+    /**
+     * Index books added since the last update, once the index has been loaded
+     */
+    private static void updateFuzzyIndex() {
+        if (fuzzyIndexLoaded) {
+            indexNewBooks();
         }
-        
-        queryBuilder.append(" ORDER BY title, author");
-        
-        String query = queryBuilder.toString();
-        
-        return Connect.executeQuery(query, rs -> {
-            List<Book> books = new ArrayList<>();
+    }
+
+    /**
+     * Add books inserted since the fuzzy index was last updated.
+     * New books always have larger ids, so this reads only the new rows.
+     */
+    private static synchronized boolean indexNewBooks() {
+        if (!DatabaseConfig.FUZZY_SEARCH_ENABLED) {
+            return false;
+        }
+        try (Stream<Book> books = Connect.stream("SELECT id, title, author FROM books WHERE id > ? ORDER BY id", rs -> {
+                Book book = new Book();
+                book.setId(rs.getInt(1));
+                book.setTitle(rs.getString(2));
+                book.setAuthor(rs.getString(3));
+                return book;
+            }, FUZZY_INDEX.getLastId())) {
+            books.forEach(book -> FUZZY_INDEX.add(book.getId(), book.getTitle() + " " + book.getAuthor()));
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Error updating fuzzy search index: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Typo-tolerant search: books whose title and author share enough trigrams with the
+     * search term ("Dostoyevsky" finds "Dostoevsky"), most similar first
+     * @param condition Extra SQL condition on books b, starting with AND (or empty)
+     */
+    private static List<Book> searchFuzzy(String searchTerm, String condition) {
+        if (!fuzzyIndexLoaded) {
+            return new ArrayList<>();
+        }
+        if (Connect.isCancelled()) {
+            return null;
+        }
+        int[] ids = FUZZY_INDEX.search(searchTerm, DatabaseConfig.SEARCH_LIMIT, DatabaseConfig.FUZZY_MIN_SIMILARITY);
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+
+        // One fixed statement for any number of ids, so it is prepared once and cached
+        StringBuilder idList = new StringBuilder("[");
+        for (int i = 0; i < ids.length; i++) {
+            idList.append(i == 0 ? "" : ",").append(ids[i]);
+        }
+        idList.append(']');
+        String query = "SELECT b.* FROM books b WHERE b.id IN (SELECT value FROM json_each(?)) " + condition;
+
+        Map<Integer, Book> byId = Connect.executeQuery(query, rs -> {
+            Map<Integer, Book> found = new HashMap<>();
             try {
                 while (rs.next()) {
-                    Book book = new Book();
-                    book.setId(rs.getInt("id"));
-                    book.setTitle(rs.getString("title"));
-                    book.setAuthor(rs.getString("author"));
-                    book.setTotalCopies(rs.getInt("total_copies"));
-                    book.setAvailableCopies(rs.getInt("available_copies"));
-                    book.setBorrowCount(rs.getInt("borrow_count"));
-                    book.setAddedByEmail(rs.getString("added_by_email"));
-                    book.setAddedByType(rs.getString("added_by_type"));
-                    book.setCreatedAt(rs.getTimestamp("created_at"));
-                    books.add(book);
+                    Book book = fromResultSet(rs);
+                    found.put(book.getId(), book);
                 }
             } catch (SQLException e) {
-                System.err.println("Error processing search results for deletion: " + e.getMessage());
+                System.err.println("Error processing fuzzy search results: " + e.getMessage());
+            }
+            return found;
+        }, idList.toString());
+        if (byId == null) {
+            return null;
+        }
+
+        // Keep the index's similarity order
+        List<Book> books = new ArrayList<>();
+        for (int id : ids) {
+            Book book = byId.get(id);
+            if (book != null) {
+                books.add(book);
             }
-            return books;
-        }, parameters.toArray());
+        }
+        return books;
     }
-    
+
+    /**
+     * Search books for deletion: books whose title matches the title words
+     * or whose author matches the author words
+     */
+    public static List<Book> searchBooksForDeletion(String title, String author) {
+        String titleQuery = toMatchQuery(title);
+        String authorQuery = toMatchQuery(author);
+
+        List<String> filters = new ArrayList<>();
+        if (titleQuery != null) {
+            filters.add("title : (" + titleQuery + ")");
+        }
+        if (authorQuery != null) {
+            filters.add("author : (" + authorQuery + ")");
+        }
+        String matchQuery = filters.isEmpty() ? null : String.join(" OR ", filters);
+        return copyAll(CACHE.searches.get("delete\u0000" + matchQuery, () -> searchIndex("", matchQuery)));
+    }
+
+    /**
+     * Rebuild the full-text search index from the books table and merge its segments.
+     * Only needed if the index was damaged or the books table was changed with triggers disabled.
+     */
+    public static boolean rebuildSearchIndex() {
+        Boolean rebuilt = Connect.inTransaction(connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("INSERT INTO books_fts(books_fts) VALUES('rebuild')");
+                stmt.execute("INSERT INTO books_fts(books_fts) VALUES('optimize')");
+                return Boolean.TRUE;
+            } catch (SQLException e) {
+                throw new Connect.RollbackException("Failed to rebuild the search index: " + e.getMessage(), e);
+            }
+        });
+        return rebuilt != null;
+    }
+
+    /**
+     * Check that the full-text search index matches the books table
+     */
+    public static boolean checkSearchIndex() {
+        Boolean consistent = Connect.inTransaction(connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("INSERT INTO books_fts(books_fts, rank) VALUES('integrity-check', 1)");
+                return Boolean.TRUE;
+            } catch (SQLException e) {
+                throw new Connect.RollbackException("Search index check failed: " + e.getMessage(), e);
+            }
+        });
+        return consistent != null;
+    }
+
     /**
      * Get book by ID
      */
     public static Book getBookById(int id) {
+        Book cached = CACHE.books.get(id, () -> loadBookById(id));
+        return cached != null ? cached.copy() : null;
+    }
+
+    private static Book loadBookById(int id) {
         String query = "SELECT * FROM books WHERE id = ?";
         
         return Connect.executeQuery(query, rs -> {
             try {
                 if (rs.next()) {
-                    Book book = new Book();
-                    book.setId(rs.getInt("id"));
-                    book.setTitle(rs.getString("title"));
-                    book.setAuthor(rs.getString("author"));
-                    book.setTotalCopies(rs.getInt("total_copies"));
-                    book.setAvailableCopies(rs.getInt("available_copies"));
-                    book.setBorrowCount(rs.getInt("borrow_count"));
-                    book.setAddedByEmail(rs.getString("added_by_email"));
-                    book.setAddedByType(rs.getString("added_by_type"));
-                    return book;
+                    return fromResultSet(rs);
                 }
             } catch (SQLException e) {
                 System.err.println("Error getting book by ID: " + e.getMessage());
@@ -257,13 +672,30 @@ public class Book {
             return null;
         }, id);
     }
+
+    /**
+     * Get the book with exactly this title (titles are unique), or null if there is none
+     */
+    public static Book getBookByTitle(String title) {
+        return Connect.executeQuery("SELECT * FROM books WHERE title = ?", rs -> {
+            try {
+                return rs.next() ? fromResultSet(rs) : null;
+            } catch (SQLException e) {
+                System.err.println("Error getting book by title: " + e.getMessage());
+                return null;
+            }
+        }, title);
+    }
     
     /**
      * Update book availability when borrowed/returned
      */
     public static boolean updateAvailableCopies(int bookId, int newAvailableCount) {
         String query = "UPDATE books SET available_copies = ? WHERE id = ?";
-        return Connect.executeUpdate(query, newAvailableCount, bookId);
+        boolean result = Connect.executeUpdate(query, newAvailableCount, bookId);
+        CACHE.invalidateBook(bookId);
+        LibraryCounters.invalidate();
+        return result;
     }
     
     /**
@@ -275,6 +707,10 @@ public class Book {
             boolean result = Connect.executeUpdate(query, bookId);
             if (result) {
                 System.out.println("Book deleted successfully with ID: " + bookId);
+                FUZZY_INDEX.remove(bookId);
+                CACHE.invalidateBook(bookId);
+                CACHE.titles.invalidateAll();
+                LibraryCounters.invalidate();
             } else {
                 System.err.println("Failed to delete book with ID: " + bookId);
             }
@@ -290,29 +726,29 @@ public class Book {
      * Check if a book exists by title and author
      */
     public static boolean bookExists(String title, String author) {
-        int count = Connect.executeCount("SELECT COUNT(*) FROM books WHERE title = ? AND author = ?", title, author);
-        return count > 0;
+        return CACHE.titles.get(BookCache.titleKey(title, author),
+            () -> Connect.executeCount("SELECT COUNT(*) FROM books WHERE title = ? AND author = ?", title, author) > 0);
     }
     
     /**
      * Get total number of books
      */
     public static int getTotalBookCount() {
-        return Connect.executeCount("SELECT COUNT(*) FROM books");
+        return (int) LibraryCounters.get(LibraryCounters.Counter.BOOKS);
     }
     
     /**
      * Get total number of currently borrowed books
      */
     public static int getCurrentlyBorrowedCount() {
-        return Connect.executeCount("SELECT COUNT(*) FROM borrowed_books WHERE is_returned = FALSE");
+        return (int) LibraryCounters.get(LibraryCounters.Counter.CURRENTLY_BORROWED);
     }
     
     /**
      * Get total number of available copies
      */
     public static int getTotalAvailableCopies() {
-        return Connect.executeCount("SELECT SUM(available_copies) FROM books");
+        return (int) LibraryCounters.get(LibraryCounters.Counter.AVAILABLE_COPIES);
     }
 }
 
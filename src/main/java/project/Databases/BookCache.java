@@ -0,0 +1,159 @@
+package project.Databases;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of the catalog queries in {@link Book}.
+ *
+ * Entries are grouped in regions (books by id, title/author existence checks and
+ * search results), each bounded and evicted by the configured policy:
+ * - lru  - drop the entry that was read least recently
+ * - fifo - drop the entry that was loaded first
+ *
+ * The write paths in Book and Loan invalidate what they change after it is committed.
+ * Every invalidation bumps a generation counter, and a load that started before an
+ * invalidation is not stored, so a slow read can never put an old row back in the cache.
+ */
+class BookCache {
+
+    /**
+     * One bounded map plus its counters
+     */
+    class Region<K, V> {
+        private final String name;
+        private final int maxSize;
+        private final LinkedHashMap<K, V> entries;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+
+        Region(String name, int maxSize) {
+            this.name = name;
+            this.maxSize = Math.max(maxSize, 0);
+            this.entries = new LinkedHashMap<>(16, 0.75f, accessOrder);
+        }
+
+        /**
+         * Cached value for the key, loading and caching it on a miss.
+         * A null result is returned but not cached.
+         */
+        V get(K key, Supplier<V> loader) {
+            if (maxSize == 0) {
+                misses.increment();
+                return loader.get();
+            }
+
+            long generation;
+            synchronized (BookCache.this) {
+                V cached = entries.get(key);
+                if (cached != null) {
+                    hits.increment();
+                    return cached;
+                }
+                generation = BookCache.this.generation;
+            }
+
+            misses.increment();
+            V loaded = loader.get();
+            if (loaded != null) {
+                synchronized (BookCache.this) {
+                    if (generation == BookCache.this.generation) {
+                        entries.put(key, loaded);
+                        evictOverflow();
+                    }
+                }
+            }
+            return loaded;
+        }
+
+        void invalidate(K key) {
+            synchronized (BookCache.this) {
+                BookCache.this.generation++;
+                if (entries.remove(key) != null) {
+                    invalidations.increment();
+                }
+            }
+        }
+
+        void invalidateAll() {
+            synchronized (BookCache.this) {
+                BookCache.this.generation++;
+                invalidations.add(entries.size());
+                entries.clear();
+            }
+        }
+
+        private void evictOverflow() {
+            Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+            while (entries.size() > maxSize && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        }
+
+        String describe() {
+            long hitCount = hits.sum();
+            long total = hitCount + misses.sum();
+            synchronized (BookCache.this) {
+                return String.format("  %-10s %6d/%-6d %9d hits %9d misses %8d evictions %8d invalidations (%.1f%% hit rate)",
+                    name, entries.size(), maxSize, hitCount, misses.sum(), evictions.sum(), invalidations.sum(),
+                    total > 0 ? hitCount * 100.0 / total : 0.0);
+            }
+        }
+    }
+
+    private final String policy;
+    private final boolean accessOrder;
+    private long generation = 0;
+
+    final Region<Integer, Book> books;
+    final Region<String, Boolean> titles;
+    final Region<String, List<Book>> searches;
+
+    BookCache(String policy, int maxBooks, int maxSearches) {
+        this.policy = "fifo".equalsIgnoreCase(policy) ? "fifo" : "lru";
+        if (!this.policy.equalsIgnoreCase(policy)) {
+            System.err.println("Unknown book cache policy '" + policy + "', using 'lru'");
+        }
+        this.accessOrder = this.policy.equals("lru");
+        this.books = new Region<>("books", maxBooks);
+        this.titles = new Region<>("titles", maxBooks);
+        this.searches = new Region<>("searches", maxSearches);
+    }
+
+    /**
+     * Cache key for a title/author pair. Matching in the books table is exact,
+     * so the key is too; the separator cannot appear in either field.
+     */
+    static String titleKey(String title, String author) {
+        return title + '\u0000' + author;
+    }
+
+    /**
+     * Forget one book and every search result, e.g. after its copies changed
+     */
+    void invalidateBook(int bookId) {
+        books.invalidate(bookId);
+        searches.invalidateAll();
+    }
+
+    /**
+     * Forget everything, e.g. after the database was changed by another process
+     */
+    void invalidateAll() {
+        books.invalidateAll();
+        titles.invalidateAll();
+        searches.invalidateAll();
+    }
+
+    String describeStats() {
+        return "Book cache (" + policy + "):\n" + books.describe() + "\n" + titles.describe() + "\n" + searches.describe();
+    }
+}
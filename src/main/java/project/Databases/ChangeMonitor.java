@@ -0,0 +1,125 @@
+package project.Databases;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notices committed changes to the database and tells listeners, e.g. the admin dashboard.
+ *
+ * Every {@link DatabaseConfig#CHANGE_POLL_MS} it compares two counters, neither of which
+ * reads a table:
+ * - Connect's commit count, for writes made by this process
+ * - {@code PRAGMA data_version} on the writer connection, which only changes when another
+ *   process (another terminal) commits. Every write of this process goes through that
+ *   connection, so its own commits never move it. The poll skips the check while the
+ *   writer is busy rather than wait for it.
+ * A change from another process also clears the in-memory caches, since the write paths
+ * that normally invalidate them did not run here. Local writes keep them, because those
+ * paths already invalidated what they changed. Listeners run on the monitor thread.
+ */
+public class ChangeMonitor {
+    private static final List<Runnable> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static ScheduledExecutorService scheduler;
+    private static long lastCommitCount;
+    private static long lastDataVersion = -1;
+
+    private ChangeMonitor() {}
+
+    /**
+     * Start polling, unless disabled or already running
+     */
+    public static synchronized void start() {
+        if (scheduler != null || DatabaseConfig.CHANGE_POLL_MS <= 0) {
+            return;
+        }
+        lastCommitCount = Connect.getCommitCount();
+        lastDataVersion = readDataVersion();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-change-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(ChangeMonitor::poll, DatabaseConfig.CHANGE_POLL_MS,
+            DatabaseConfig.CHANGE_POLL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop polling
+     */
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Run the listener after every poll that found a committed change
+     */
+    public static void addListener(Runnable listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Runnable listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static void poll() {
+        long commitCount = Connect.getCommitCount();
+        long dataVersion = readDataVersion();
+
+        boolean local = commitCount != lastCommitCount;
+        boolean external = dataVersion != lastDataVersion && dataVersion >= 0 && lastDataVersion >= 0;
+        lastCommitCount = commitCount;
+        if (dataVersion >= 0) {
+            lastDataVersion = dataVersion;
+        }
+
+        if (external) {
+            Book.CACHE.invalidateAll();
+            UserDirectory.invalidateAll();
+            LibraryCounters.invalidate();
+        }
+        if (external || local) {
+            for (Runnable listener : LISTENERS) {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Change listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * data_version of the writer connection, or -1 if the writer is busy or it could not be read
+     */
+    private static long readDataVersion() {
+        try (Connection connection = Connect.getInstance().tryGetConnection()) {
+            if (connection == null) {
+                return -1;
+            }
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking for database changes: " + e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -7,13 +7,29 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Connect {
-    private static final String DB_URL = "jdbc:sqlite:My.db";
-    private static Connection connection;
-    private static boolean schemaInitialized = false;
+    private static final String DB_URL = "jdbc:sqlite:" + DatabaseConfig.DB_PATH;
     private static Connect instance;
+    private final PragmaProfile pragmas = PragmaProfile.fromConfig();
+    private ConnectionPool writePool;
+    private ConnectionPool readPool;
+    private static final ThreadLocal<Connection> CURRENT_TRANSACTION = new ThreadLocal<>();
+    private static final ThreadLocal<QueryCancellation> CURRENT_CANCELLATION = new ThreadLocal<>();
+    private static final AtomicLong COMMITS = new AtomicLong();
     
     // Private constructor to prevent direct instantiation
     private Connect() {}
@@ -26,289 +42,205 @@ public class Connect {
         return instance;
     }
 
+    /**
+     * Open the connection pools and bring the schema up to date, so the first
+     * query does not pay for it. Safe to call more than once.
+     * @throws SQLException if the database cannot be opened or migrated
+     */
+    public static void initialize() throws SQLException {
+        getInstance().ensurePools();
+    }
+
+    /**
+     * Borrow the writer connection. There is exactly one, so keep it only for
+     * the duration of a write or transaction. Closing it returns it to the pool.
+     * @return pooled connection, or null if it stayed busy past the borrow timeout or the database cannot be reached
+     */
     public Connection getConnection() {
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL);
-                System.out.println("Connected to SQLite database: My.db");
-                
-                // Always initialize/update schema (for development)
-                if (!schemaInitialized) {
-                    initializeSchema();
-                    schemaInitialized = true;
-                }
-            }
+            ensurePools();
+            return writePool.borrow();
+        } catch (SQLException e) {
+            System.err.println("Error connecting to database: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Borrow a read-only connection. In WAL mode readers never block the writer
+     * and see the last committed state when their query starts.
+     * @return pooled connection, or null if none became free within the borrow timeout or the database cannot be reached
+     */
+    public Connection getReadConnection() {
+        try {
+            ensurePools();
+            return readPool.borrow();
         } catch (SQLException e) {
             System.err.println("Error connecting to database: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Create the pools on first use. The writer is opened first so that WAL mode
+     * and the schema exist before any reader connects.
+     */
+    private synchronized void ensurePools() throws SQLException {
+        if (writePool != null) {
+            return;
+        }
+
+        ConnectionPool writer = ConnectionPool.withDefaults("writer", 1, () -> openConnection(false))
+            .withStatementCache(DatabaseConfig.STATEMENT_CACHE_SIZE);
+        try (Connection connection = writer.borrow()) {
+            initializeSchema(connection);
+        } catch (SQLException e) {
+            writer.shutdown();
+            throw e;
+        }
+
+        readPool = ConnectionPool.withDefaults("reader", DatabaseConfig.POOL_MAX_SIZE, () -> openConnection(true))
+            .withStatementCache(DatabaseConfig.STATEMENT_CACHE_SIZE);
+        writePool = writer;
+        System.out.println("Connected to SQLite database: " + DatabaseConfig.DB_PATH + " (" + pragmas + ")");
+    }
+
+    /**
+     * Open a physical connection and apply the pragma profile to it
+     */
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(DB_URL);
+        try {
+            pragmas.apply(connection, readOnly);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
         }
         return connection;
     }
+
+    /**
+     * Borrow the writer connection only if it is free right now, for work that
+     * would rather skip a turn than queue behind a write (such as ChangeMonitor)
+     * @return pooled connection, or null if the writer is busy
+     */
+    Connection tryGetConnection() throws SQLException {
+        ensurePools();
+        return writePool.tryBorrow();
+    }
+
+    public PragmaProfile getPragmaProfile() { return pragmas; }
+
+    /**
+     * Number of transactions this process has committed through the writer connection,
+     * so callers can tell whether anything changed since they last looked
+     */
+    public static long getCommitCount() {
+        return COMMITS.get();
+    }
+
+    /**
+     * Prepared statement cache hit/miss/eviction counters across all pooled connections
+     */
+    public static String getStatementCacheStats() {
+        return StatementCache.describeStats();
+    }
+
+    /**
+     * Per-query call counts, row counts, errors and p50/p99/max latency as a text table
+     * @see QueryStats#snapshot()
+     */
+    public static String getQueryStats() {
+        return QueryStats.describe();
+    }
+
+    /**
+     * SQLite's EXPLAIN QUERY PLAN for a statement, one indented line per plan step.
+     * Uses its own short-lived connection so a slow-query report never waits on the pools.
+     */
+    static String explainQueryPlan(String sql) {
+        try (Connection connection = DriverManager.getConnection(DB_URL);
+             PreparedStatement stmt = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = stmt.executeQuery()) {
+            Map<Integer, Integer> depths = new HashMap<>();
+            List<String> steps = new ArrayList<>();
+            while (rs.next()) {
+                int depth = depths.getOrDefault(rs.getInt("parent"), -1) + 1;
+                depths.put(rs.getInt("id"), depth);
+                steps.add("    " + "  ".repeat(depth) + rs.getString("detail"));
+            }
+            // e.g. INSERT ... VALUES touches no table through a scan or index
+            return steps.isEmpty() ? "    (no table scans or index lookups)" : String.join("\n", steps);
+        } catch (SQLException e) {
+            return "    (plan unavailable: " + e.getMessage() + ")";
+        }
+    }
     
     /*** Check if the database file exists*/
     private boolean databaseExists() {
-        File dbFile = new File("My.db");
+        File dbFile = new File(DatabaseConfig.DB_PATH);
         return dbFile.exists() && dbFile.length() > 0;
     }
     
-    /*** Initialize the database schema and seed data*/
-    private void initializeSchema() {
-        try (Statement stmt = connection.createStatement()) {
-            // Create admins table
-            stmt.execute("CREATE TABLE IF NOT EXISTS admins (" +
-                "email TEXT PRIMARY KEY," +
-                "name TEXT NOT NULL," +
-                "password TEXT NOT NULL," +
-                "age INTEGER NOT NULL," +
-                "phone_number TEXT NOT NULL," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                ")");
-            
-            // Create members table
-            stmt.execute("CREATE TABLE IF NOT EXISTS members (" +
-                "email TEXT PRIMARY KEY," +
-                "name TEXT NOT NULL," +
-                "password TEXT NOT NULL," +
-                "age INTEGER NOT NULL," +
-                "phone_number TEXT NOT NULL," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                ")");
-            
-            // Create books table with flexible user tracking
-            stmt.execute("CREATE TABLE IF NOT EXISTS books (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "title TEXT NOT NULL UNIQUE," +
-                "author TEXT NOT NULL," +
-                "total_copies INTEGER NOT NULL," +
-                "available_copies INTEGER NOT NULL," +
-                "borrow_count INTEGER DEFAULT 0," +
-                "added_by_email TEXT NOT NULL," +
-                "added_by_type TEXT NOT NULL CHECK (added_by_type IN ('admin', 'member'))," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                "updated_by_email TEXT," +
-                "updated_by_type TEXT CHECK (updated_by_type IN ('admin', 'member'))" +
-                ")");
-            
-            // Create borrowed_books table
-            stmt.execute("CREATE TABLE IF NOT EXISTS borrowed_books (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "member_email TEXT NOT NULL," +
-                "book_id INTEGER NOT NULL," +
-                "borrow_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                "return_date TIMESTAMP NULL," +
-                "is_returned BOOLEAN DEFAULT FALSE," +
-                "FOREIGN KEY (member_email) REFERENCES members(email) ON DELETE CASCADE," +
-                "FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE," +
-                "UNIQUE(member_email, book_id, is_returned)" +
-                ")");
-            
-            // Create indexes for better performance
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_member ON borrowed_books(member_email)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_book ON borrowed_books(book_id)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_status ON borrowed_books(is_returned)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_title ON books(title)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_author ON books(author)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_added_by ON books(added_by_email)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_user_type ON books(added_by_type)");
-            
-            // Insert default admin accounts
-            stmt.execute("INSERT OR IGNORE INTO admins (email, name, password, age, phone_number) VALUES " +
-                "('admin', 'Admin', 'admin123', 30, '09000000000'), " +
-                "('system@library.com', 'System', 'sys123', 25, '09111111111')");
-            
-            // Insert default members
-            stmt.execute("INSERT OR IGNORE INTO members (email, name, password, age, phone_number) VALUES " +
-                "('kyle@gmail.com', 'Kyle', '1111', 20, '09123456789'), " +
-                "('allen@gmail.com', 'Allen', '1111', 21, '09234567890'), " +
-                "('rjay@gmail.com', 'Rjay', '1111', 22, '09345678901'), " +
-                "('jansean@gmail.com', 'Jansean', '1111', 23, '09456789012'), " +
-                "('kelly@gmail.com', 'Kelly', '1111', 21, '09234567890'), " +
-                "('colin@gmail.com', 'Colin', '1111', 22, '09345678901'), " +
-                "('kayezel@gmail.com', 'Kayezel', '1111', 23, '09456789012')");
-            
-            // Insert default books with system as the creator
-            stmt.execute("INSERT OR IGNORE INTO books (title, author, total_copies, available_copies, borrow_count, added_by_email, added_by_type) VALUES " +
-                "('To Kill a Mockingbird', 'Harper Lee', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('Pride and Prejudice', 'Jane Austen', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('Crime and Punishment', 'Fyodor Dostoevsky', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('1984', 'George Orwell', 5, 5, 15, 'system@library.com', 'admin'), " +
-                "('The Lord of the Rings', 'J.R.R. Tolkien', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('The Great Gatsby', 'F. Scott Fitzgerald', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('Noli Me Tangere', 'Jose Rizal', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('El Filibusterismo', 'Jose Rizal', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('One Piece', 'Eiichiro Oda', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('Bleach', 'Tite Kubo', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('Fairy Tail', 'Hiro Mashima', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('DanMachi', 'Fujino Omori', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('One Punch Man', 'ONE', 5, 5, 0, 'system@library.com', 'admin'), " +
-                "('Jujutsu Kaisen', 'Gege Akutami', 5, 5, 0, 'system@library.com', 'admin')");
-            
-            // Create views with flexible user tracking
-            stmt.execute("CREATE VIEW IF NOT EXISTS books_with_user_info AS " +
-                "SELECT " +
-                "b.id, " +
-                "b.title, " +
-                "b.author, " +
-                "b.total_copies, " +
-                "b.available_copies, " +
-                "b.borrow_count, " +
-                "b.created_at, " +
-                "b.added_by_email, " +
-                "b.added_by_type, " +
-                "CASE " +
-                "    WHEN b.added_by_type = 'admin' THEN " +
-                "        (SELECT name FROM admins WHERE email = b.added_by_email) " +
-                "    WHEN b.added_by_type = 'member' THEN " +
-                "        (SELECT name FROM members WHERE email = b.added_by_email) " +
-                "    ELSE 'Unknown' " +
-                "END AS added_by_name, " +
-                "b.updated_at, " +
-                "b.updated_by_email, " +
-                "b.updated_by_type, " +
-                "CASE " +
-                "    WHEN b.updated_by_type = 'admin' THEN " +
-                "        (SELECT name FROM admins WHERE email = b.updated_by_email) " +
-                "    WHEN b.updated_by_type = 'member' THEN " +
-                "        (SELECT name FROM members WHERE email = b.updated_by_email) " +
-                "    ELSE NULL " +
-                "END AS updated_by_name " +
-                "FROM books b");
-            
-            stmt.execute("CREATE VIEW IF NOT EXISTS member_borrowed_books AS " +
-                "SELECT " +
-                "m.name AS member_name, " +
-                "m.email AS member_email, " +
-                "b.title AS book_title, " +
-                "b.author AS book_author, " +
-                "bb.borrow_date, " +
-                "bb.return_date, " +
-                "bb.is_returned " +
-                "FROM borrowed_books bb " +
-                "JOIN members m ON bb.member_email = m.email " +
-                "JOIN books b ON bb.book_id = b.id");
-            
-            stmt.execute("CREATE VIEW IF NOT EXISTS library_statistics AS " +
-                "SELECT " +
-                "(SELECT COUNT(*) FROM members) AS total_members, " +
-                "(SELECT COUNT(*) FROM books) AS total_books, " +
-                "(SELECT SUM(total_copies) FROM books) AS total_book_copies, " +
-                "(SELECT SUM(available_copies) FROM books) AS available_copies, " +
-                "(SELECT COUNT(*) FROM borrowed_books WHERE is_returned = FALSE) AS currently_borrowed, " +
-                "(SELECT SUM(borrow_count) FROM books) AS total_borrows_ever, " +
-                "(SELECT COUNT(*) FROM books WHERE added_by_type = 'admin') AS books_added_by_admins, " +
-                "(SELECT COUNT(*) FROM books WHERE added_by_type = 'member') AS books_added_by_members");
-            
-            stmt.execute("CREATE VIEW IF NOT EXISTS user_book_contributions AS " +
-                "SELECT " +
-                "added_by_email, " +
-                "added_by_type, " +
-                "CASE " +
-                "    WHEN added_by_type = 'admin' THEN " +
-                "        (SELECT name FROM admins WHERE email = added_by_email) " +
-                "    WHEN added_by_type = 'member' THEN " +
-                "        (SELECT name FROM members WHERE email = added_by_email) " +
-                "END AS user_name, " +
-                "COUNT(*) AS books_contributed, " +
-                "MIN(created_at) AS first_contribution, " +
-                "MAX(created_at) AS last_contribution " +
-                "FROM books " +
-                "GROUP BY added_by_email, added_by_type " +
-                "ORDER BY books_contributed DESC");
-            
-           
-            stmt.execute("INSERT OR IGNORE INTO borrowed_books (member_email, book_id, borrow_date, return_date, is_returned) VALUES " +
-                "('kyle@gmail.com', 1, '2024-07-15 10:30:00', '2024-07-25 14:20:00', 1), " +
-                "('allen@gmail.com', 3, '2024-07-18 09:15:00', '2024-07-28 16:45:00', 1), " +
-                "('kelly@gmail.com', 5, '2024-07-20 11:00:00', '2024-07-30 13:30:00', 1), " +
-                "('colin@gmail.com', 7, '2024-07-22 14:30:00', '2024-08-01 10:15:00', 1), " +
-                "('rjay@gmail.com', 2, '2024-07-10 08:45:00', '2024-07-20 17:20:00', 1), " +
-                "('jansean@gmail.com', 9, '2024-07-12 16:20:00', '2024-07-22 12:10:00', 1), " +
-                "('kayezel@gmail.com', 11, '2024-07-14 13:45:00', '2024-07-24 15:30:00', 1), " +
-                
-                // Currently borrowed books (not returned yet)
-                "('kyle@gmail.com', 14, '2024-07-28 10:30:00', NULL, 0), " + 
-                "('allen@gmail.com', 12, '2024-07-30 14:15:00', NULL, 0), " +
-                "('kelly@gmail.com', 8, '2024-08-01 09:20:00', NULL, 0), " +  
-                "('rjay@gmail.com', 6, '2024-08-02 11:45:00', NULL, 0), " +  
-                "('colin@gmail.com', 13, '2024-07-25 16:30:00', NULL, 0), " +
-                
-                // Some members borrowed multiple books over time
-                "('kyle@gmail.com', 4, '2024-06-15 10:00:00', '2024-06-25 14:30:00', 1), " + 
-                "('kyle@gmail.com', 10, '2024-06-28 12:15:00', '2024-07-08 16:45:00', 1), " +
-                "('allen@gmail.com', 4, '2024-06-20 09:30:00', '2024-06-30 13:20:00', 1), " +
-                "('kelly@gmail.com', 1, '2024-06-10 14:20:00', '2024-06-20 11:10:00', 1), " + 
-                "('jansean@gmail.com', 4, '2024-07-05 15:45:00', '2024-07-15 10:30:00', 1)"); 
-
-            // Update borrow counts for popular books
-            stmt.execute("UPDATE books SET borrow_count = 3 WHERE id = 4"); // 1984 - very popular
-            stmt.execute("UPDATE books SET borrow_count = 2 WHERE id = 1"); // To Kill a Mockingbird
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 2"); // Pride and Prejudice  
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 3"); // Crime and Punishment
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 5"); // The Lord of the Rings
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 6"); // The Great Gatsby
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 7"); // Noli Me Tangere
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 8"); // El Filibusterismo
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 9"); // One Piece
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 10"); // Bleach
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 11"); // Fairy Tail
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 12"); // DanMachi
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 13"); // One Punch Man
-            stmt.execute("UPDATE books SET borrow_count = 1 WHERE id = 14"); // Jujutsu Kaisen
-
-            // Update available copies for currently borrowed books
-            stmt.execute("UPDATE books SET available_copies = 4 WHERE id IN (6, 8, 12, 13, 14)"); 
-
-            // Add some member-contributed books to make it more realistic
-            stmt.execute("INSERT OR IGNORE INTO books (title, author, total_copies, available_copies, borrow_count, added_by_email, added_by_type) VALUES " +
-                "('The Alchemist', 'Paulo Coelho', 3, 3, 0, 'kyle@gmail.com', 'member'), " +
-                "('Rich Dad Poor Dad', 'Robert Kiyosaki', 2, 2, 0, 'allen@gmail.com', 'member'), " +
-                "('Atomic Habits', 'James Clear', 3, 2, 1, 'kelly@gmail.com', 'member'), " +
-                "('Sapiens', 'Yuval Noah Harari', 2, 2, 0, 'rjay@gmail.com', 'member'), " +
-                "('The 7 Habits', 'Stephen Covey', 2, 1, 1, 'colin@gmail.com', 'member')");
-            
-            // Add some borrowing history for member-contributed books
-            stmt.execute("INSERT OR IGNORE INTO borrowed_books (member_email, book_id, borrow_date, return_date, is_returned) VALUES " +
-                "('jansean@gmail.com', 17, '2024-07-20 10:30:00', '2024-07-30 14:20:00', 1), " + 
-                "('kayezel@gmail.com', 19, '2024-07-25 11:15:00', NULL, 0)"); 
-
-            System.out.println("Database schema initialized successfully with audit trail support");
-            
-        } catch (SQLException e) {
-            System.err.println("Error initializing database schema: " + e.getMessage());
-        }
+    /**
+     * Apply any pending schema migrations, then the demo seed if it was requested
+     */
+    private void initializeSchema(Connection connection) throws SQLException {
+        int version = SchemaMigrations.migrate(connection);
+        DemoData.seedIfRequested(connection);
+        System.out.println("Database schema is at version " + version);
     }
     
     /**
-     * Close the database connection
+     * Close all pooled database connections
      */
-    public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                connection = null; // Allow garbage collection
-                System.out.println("Database connection closed");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+    public synchronized void closeConnection() {
+        if (writePool != null) {
+            readPool.shutdown();
+            writePool.shutdown();
+            readPool = null;
+            writePool = null;
+            System.out.println("Database connection pools closed");
         }
     }
     
     /**
-     * Static utility method to get database connection quickly
+     * Static utility method to borrow the writer connection quickly.
+     * Use it in try-with-resources so the connection goes back to the pool.
      */
     public static Connection getDBConnection() {
         return Connect.getInstance().getConnection();
     }
+
+    /**
+     * Static utility method to borrow a read-only connection for SELECT queries
+     */
+    public static Connection getDBReadConnection() {
+        return Connect.getInstance().getReadConnection();
+    }
     
     /**
-     * Execute an update/insert/delete query with parameters
+     * Execute an update/insert/delete query with parameters.
+     * The prepared statement is cached per connection, so repeated SQL is only compiled once.
+     * Inside {@link #inTransaction} the update joins the open transaction.
      * @param query SQL query with ? placeholders
      * @param params Parameters to bind to the query
      * @return true if operation was successful
      */
     public static boolean executeUpdate(String query, Object... params) {
-        try (Connection connection = getDBConnection();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
+        String name = QueryStats.nameFor(query);
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+
+        Connection transaction = CURRENT_TRANSACTION.get();
+        Connection connection = transaction != null ? transaction : getDBConnection();
+        if (connection == null) {
+            QueryStats.record(name, null, start, 0, true);
+            return false;
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
             
             // Set parameters
             for (int i = 0; i < params.length; i++) {
@@ -316,37 +248,484 @@ public class Connect {
             }
             
             int rowsAffected = stmt.executeUpdate();
+            rows = rowsAffected;
+            failed = false;
+            if (transaction == null && rowsAffected > 0) {
+                COMMITS.incrementAndGet();
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
             System.err.println("Database update error: " + e.getMessage());
             return false;
+        } finally {
+            releaseUnlessJoined(connection, transaction);
+            QueryStats.record(name, query, start, rows, failed);
         }
     }
     
     /**
-     * Execute a query and process results with a lambda function
+     * Execute a read-only query and process results with a lambda function.
+     * The prepared statement is cached per connection, so repeated SQL is only compiled once.
+     * Inside {@link #inTransaction} the query runs on the transaction's connection
+     * so it sees the transaction's own uncommitted writes.
      * @param query SQL query with ? placeholders
      * @param processor Function to process the ResultSet
      * @param params Parameters to bind to the query
-     * @return Result from the processor function
+     * @return Result from the processor function, or null if the query fails or no connection is free
      */
     public static <T> T executeQuery(String query, Function<ResultSet, T> processor, Object... params) {
-        try (Connection connection = getDBConnection();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
+        String name = QueryStats.nameFor(query);
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+
+        Connection transaction = CURRENT_TRANSACTION.get();
+        QueryCancellation cancellation = CURRENT_CANCELLATION.get();
+        if (cancellation != null && cancellation.isCancelled()) {
+            return null;
+        }
+        Connection connection = transaction != null ? transaction : getDBReadConnection();
+        if (connection == null) {
+            QueryStats.record(name, null, start, 0, true);
+            return null;
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
             
             // Set parameters
             for (int i = 0; i < params.length; i++) {
                 stmt.setObject(i + 1, params[i]);
             }
+            if (cancellation != null && !cancellation.begin(stmt)) {
+                return null;
+            }
             
             try (ResultSet rs = stmt.executeQuery()) {
-                return processor.apply(rs);
+                T result = processor.apply(rs);
+                rows = rowsRead(rs);
+                if (cancellation != null && cancellation.isCancelled()) {
+                    // The processor may have stopped reading part way through
+                    return null;
+                }
+                failed = false;
+                return result;
             }
             
+        } catch (SQLException e) {
+            // An interrupted query is expected once its work was cancelled
+            if (cancellation == null || !cancellation.isCancelled()) {
+                System.err.println("Database query error: " + e.getMessage());
+            }
+            return null;
+        } finally {
+            if (cancellation != null) {
+                cancellation.end();
+            }
+            releaseUnlessJoined(connection, transaction);
+            QueryStats.record(name, query, start, rows, failed);
+        }
+    }
+
+    /**
+     * Run work whose queries can be stopped from another thread with {@code cancellation.cancel()}.
+     * Covers the {@link #executeQuery} calls the work makes on this thread.
+     * @return the work's result
+     */
+    public static <T> T cancellable(QueryCancellation cancellation, Supplier<T> work) {
+        QueryCancellation outer = CURRENT_CANCELLATION.get();
+        CURRENT_CANCELLATION.set(cancellation);
+        try {
+            return work.get();
+        } finally {
+            if (outer != null) {
+                CURRENT_CANCELLATION.set(outer);
+            } else {
+                CURRENT_CANCELLATION.remove();
+            }
+        }
+    }
+
+    /**
+     * Whether the work running on this thread through {@link #cancellable} has been cancelled,
+     * so it can skip further work whose result would be thrown away
+     */
+    public static boolean isCancelled() {
+        QueryCancellation cancellation = CURRENT_CANCELLATION.get();
+        return cancellation != null && cancellation.isCancelled();
+    }
+
+    /**
+     * Run a read-only query and return its rows as a lazily fetched stream.
+     * Rows are read from SQLite as the stream is consumed, so large tables can be
+     * processed in constant memory. The stream holds a pooled connection until it
+     * is closed or fully consumed, so always use it in a try-with-resources block.
+     * Inside {@link #inTransaction} the stream reads through the transaction's connection.
+     * @param query SQL query with ? placeholders
+     * @param mapper Converts each row to an object
+     * @param params Parameters to bind to the query
+     * @return Stream of mapped rows, empty if the query fails
+     */
+    public static <T> Stream<T> stream(String query, RowMapper<T> mapper, Object... params) {
+        String name = QueryStats.nameFor(query);
+        long start = System.nanoTime();
+
+        Connection transaction = CURRENT_TRANSACTION.get();
+        Connection connection = transaction != null ? transaction : getDBReadConnection();
+        if (connection == null) {
+            QueryStats.record(name, null, start, 0, true);
+            return Stream.empty();
+        }
+
+        PreparedStatement stmt = null;
+        try {
+            stmt = connection.prepareStatement(query);
+            stmt.setFetchSize(DatabaseConfig.STREAM_FETCH_SIZE);
+            bindParameters(stmt, params);
+            ResultSet rs = stmt.executeQuery();
+
+            RowCursor<T> cursor = new RowCursor<>(rs, stmt, connection, transaction, mapper, name, query, start);
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
         } catch (SQLException e) {
             System.err.println("Database query error: " + e.getMessage());
+            closeStatement(stmt);
+            releaseUnlessJoined(connection, transaction);
+            QueryStats.record(name, query, start, 0, true);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Run a keyset-paginated query and return one page of rows.
+     * The query must already be ordered by the key columns, with any
+     * "after the last row" condition in its WHERE clause; the LIMIT is added here.
+     * @param query SQL query without a LIMIT clause
+     * @param mapper Converts each row to an object
+     * @param keyColumns Sort key columns whose values on the last row form the continuation token
+     * @param limit Maximum rows on the page
+     * @param params Parameters to bind to the query
+     * @return Page of mapped rows, empty if the query fails
+     */
+    public static <T> Page<T> executePage(String query, RowMapper<T> mapper, String[] keyColumns, int limit, Object... params) {
+        Object[] pagedParams = Arrays.copyOf(params, params.length + 1, Object[].class);
+        // Read one extra row to find out whether another page follows
+        pagedParams[params.length] = limit + 1;
+
+        Page<T> page = executeQuery(query + " LIMIT ?", rs -> {
+            List<T> items = new ArrayList<>();
+            String[] lastKeys = new String[keyColumns.length];
+            try {
+                while (rs.next()) {
+                    if (items.size() == limit) {
+                        return new Page<>(items, Page.encodeToken(lastKeys));
+                    }
+                    items.add(mapper.map(rs));
+                    for (int i = 0; i < keyColumns.length; i++) {
+                        String key = rs.getString(keyColumns[i]);
+                        lastKeys[i] = key != null ? key : "";
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error reading page: " + e.getMessage());
+            }
+            return new Page<>(items, null);
+        }, pagedParams);
+        return page != null ? page : Page.empty();
+    }
+
+    /**
+     * Spliterator over an open ResultSet. Releases the statement and connection
+     * once the last row has been read, or when the owning stream is closed.
+     * The query's statistics cover the whole time the stream was open.
+     */
+    private static class RowCursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final ResultSet rs;
+        private final PreparedStatement stmt;
+        private final Connection connection;
+        private final Connection transaction;
+        private final RowMapper<T> mapper;
+        private final String name;
+        private final String query;
+        private final long startNanos;
+        private long rows = 0;
+        private boolean failed = false;
+        private boolean closed = false;
+
+        RowCursor(ResultSet rs, PreparedStatement stmt, Connection connection, Connection transaction, RowMapper<T> mapper,
+                  String name, String query, long startNanos) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+            this.stmt = stmt;
+            this.connection = connection;
+            this.transaction = transaction;
+            this.mapper = mapper;
+            this.name = name;
+            this.query = query;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                rows++;
+                action.accept(mapper.map(rs));
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Error reading streamed rows: " + e.getMessage());
+                failed = true;
+                close();
+                return false;
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing result set: " + e.getMessage());
+            }
+            closeStatement(stmt);
+            releaseUnlessJoined(connection, transaction);
+            QueryStats.record(name, query, startNanos, rows, failed);
+        }
+    }
+
+    /**
+     * Rows the processor read from a result set, for the query statistics
+     */
+    private static long rowsRead(ResultSet rs) {
+        try {
+            return rs.isClosed() ? 0 : rs.getRow();
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    private static void closeStatement(Statement stmt) {
+        if (stmt == null) {
+            return;
+        }
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Return a borrowed connection to its pool, unless it belongs to an enclosing transaction
+     */
+    private static void releaseUnlessJoined(Connection connection, Connection transaction) {
+        if (connection == null || connection == transaction) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error returning connection to pool: " + e.getMessage());
+        }
+    }
+
+    // ==================== TRANSACTIONS & BATCHES ====================
+
+    /**
+     * Thrown from inside {@link #inTransaction} to roll the transaction back,
+     * typically wrapping a SQLException raised by the transaction's work.
+     */
+    public static class RollbackException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public RollbackException(String message) {
+            super(message);
+        }
+
+        public RollbackException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Run work in a single transaction on the writer connection.
+     * The transaction commits if the work returns normally and rolls back if it
+     * throws. Calls to executeUpdate, executeQuery, executeBatch and nested
+     * inTransaction on the same thread join this transaction.
+     * @param work Function that performs the transaction's statements
+     * @return Result of the work, or null if the transaction was rolled back
+     */
+    public static <T> T inTransaction(Function<Connection, T> work) {
+        Connection joined = CURRENT_TRANSACTION.get();
+        if (joined != null) {
+            return work.apply(joined);
+        }
+
+        String name = QueryStats.nameForCaller("(transaction)");
+        long start = System.nanoTime();
+        boolean failed = true;
+
+        Connection connection = getDBConnection();
+        if (connection == null) {
+            QueryStats.record(name, null, start, 0, true);
+            return null;
+        }
+
+        try {
+            connection.setAutoCommit(false);
+            CURRENT_TRANSACTION.set(connection);
+            T result = work.apply(connection);
+            connection.commit();
+            COMMITS.incrementAndGet();
+            failed = false;
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Transaction rolled back: " + e.getMessage());
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackError) {
+                System.err.println("Error rolling back transaction: " + rollbackError.getMessage());
+            }
             return null;
+        } finally {
+            CURRENT_TRANSACTION.remove();
+            releaseUnlessJoined(connection, null);
+            QueryStats.record(name, null, start, 0, failed);
+        }
+    }
+
+    /**
+     * Insert/update many rows with one prepared statement, all or nothing,
+     * using the configured chunk size
+     * @see #executeBatch(String, List, int, boolean)
+     */
+    public static BatchResult executeBatch(String query, List<Object[]> rows) {
+        return executeBatch(query, rows, DatabaseConfig.BATCH_CHUNK_SIZE, true);
+    }
+
+    /**
+     * Insert/update many rows with one prepared statement.
+     *
+     * Rows are sent in chunks of JDBC batches, each chunk guarded by a savepoint.
+     * When a chunk fails it is replayed row by row so every failing row is reported.
+     * @param query SQL statement with ? placeholders
+     * @param rows Parameters for each row
+     * @param chunkSize Rows per JDBC batch; outside a transaction each chunk also commits separately when not atomic
+     * @param atomic true to roll back every row if any row fails, false to keep the rows that succeeded
+     * @return Per-row outcome of the batch
+     */
+    public static BatchResult executeBatch(String query, List<Object[]> rows, int chunkSize, boolean atomic) {
+        BatchResult result = new BatchResult(rows.size());
+        if (rows.isEmpty()) {
+            return result;
+        }
+        int chunk = Math.max(chunkSize, 1);
+        String name = QueryStats.nameFor(query);
+        long startNanos = System.nanoTime();
+
+        Connection transaction = CURRENT_TRANSACTION.get();
+        Connection connection = transaction != null ? transaction : getDBConnection();
+        if (connection == null) {
+            result.recordFailure(0, "Database connection unavailable");
+            result.markRolledBack();
+            QueryStats.record(name, null, startNanos, 0, true);
+            return result;
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(query);
+             Statement control = connection.createStatement()) {
+            if (transaction == null) {
+                connection.setAutoCommit(false);
+            }
+            control.execute("SAVEPOINT batch_all");
+
+            for (int start = 0; start < rows.size(); start += chunk) {
+                int end = Math.min(start + chunk, rows.size());
+                control.execute("SAVEPOINT batch_chunk");
+                try {
+                    for (int i = start; i < end; i++) {
+                        bindParameters(stmt, rows.get(i));
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    result.recordSuccesses(end - start);
+                } catch (SQLException chunkError) {
+                    stmt.clearBatch();
+                    control.execute("ROLLBACK TO batch_chunk");
+                    replayRowByRow(stmt, rows, start, end, result);
+                }
+                control.execute("RELEASE batch_chunk");
+
+                if (atomic && result.hasFailures()) {
+                    break;
+                }
+                if (!atomic && transaction == null) {
+                    control.execute("RELEASE batch_all");
+                    connection.commit();
+                    COMMITS.incrementAndGet();
+                    control.execute("SAVEPOINT batch_all");
+                }
+            }
+
+            if (atomic && result.hasFailures()) {
+                control.execute("ROLLBACK TO batch_all");
+                result.markRolledBack();
+            }
+            control.execute("RELEASE batch_all");
+            if (transaction == null) {
+                connection.commit();
+                COMMITS.incrementAndGet();
+            }
+        } catch (SQLException e) {
+            System.err.println("Database batch error: " + e.getMessage());
+            rollbackUnlessJoined(connection, transaction);
+            result.recordFailure(-1, e.getMessage());
+            result.markRolledBack();
+        } finally {
+            releaseUnlessJoined(connection, transaction);
+            QueryStats.record(name, query, startNanos, result.getSucceeded(), result.hasFailures());
+        }
+        return result;
+    }
+
+    /**
+     * Run each row of a failed chunk on its own so the good rows are kept and bad ones reported
+     */
+    private static void replayRowByRow(PreparedStatement stmt, List<Object[]> rows, int start, int end,
+                                       BatchResult result) throws SQLException {
+        for (int i = start; i < end; i++) {
+            try {
+                bindParameters(stmt, rows.get(i));
+                stmt.executeUpdate();
+                result.recordSuccesses(1);
+            } catch (SQLException rowError) {
+                result.recordFailure(i, rowError.getMessage());
+            }
+        }
+    }
+
+    private static void rollbackUnlessJoined(Connection connection, Connection transaction) {
+        if (transaction != null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back batch: " + e.getMessage());
+        }
+    }
+
+    private static void bindParameters(PreparedStatement stmt, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            stmt.setObject(i + 1, params[i]);
         }
     }
     
@@ -373,12 +752,13 @@ public class Connect {
      * @return Count as integer, or 0 if error
      */
     public static int executeCount(String query, Object... params) {
-        return executeQuery(query, rs -> {
+        Integer count = executeQuery(query, rs -> {
             try {
                 return rs.next() ? rs.getInt(1) : 0;
             } catch (SQLException e) {
                 return 0;
             }
         }, params);
+        return count != null ? count : 0;
     }
 }
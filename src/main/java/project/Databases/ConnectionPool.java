@@ -0,0 +1,383 @@
+package project.Databases;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small bounded pool of JDBC connections.
+ *
+ * Callers borrow a connection and close it when done; closing hands the
+ * physical connection back to the pool instead of closing the database file.
+ * Idle connections above the minimum are evicted, stale ones are validated
+ * before reuse, and connections held for too long are reported as leaks.
+ */
+public class ConnectionPool {
+
+    /**
+     * Opens a new physical connection for the pool
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * Physical connection plus the bookkeeping the pool needs for it
+     */
+    private static class PooledEntry {
+        final Connection physical;
+        final StatementCache statements;
+        long lastReturnedAt;
+        long borrowedAt;
+        String borrowThread;
+        Throwable borrowSite;
+        boolean leakReported;
+
+        PooledEntry(Connection physical, int statementCacheSize) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0 ? new StatementCache(physical, statementCacheSize) : null;
+            this.lastReturnedAt = System.currentTimeMillis();
+        }
+    }
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long validationIntervalMs;
+    private final long leakThresholdMs;
+
+    private final Semaphore permits;
+    private final Deque<PooledEntry> idle = new ArrayDeque<>();
+    private final Set<PooledEntry> inUse = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile int statementCacheSize = 0;
+    private volatile boolean leakTrace = false;
+    private volatile boolean shutdown = false;
+
+    public ConnectionPool(String name, ConnectionFactory factory, int maxSize, int minIdle,
+                          long borrowTimeoutMs, long idleTimeoutMs, long validationIntervalMs,
+                          long leakThresholdMs, long housekeepingIntervalMs) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than 0");
+        }
+        this.name = name;
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(Math.max(minIdle, 0), maxSize);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-" + name + "-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeeping,
+            housekeepingIntervalMs, housekeepingIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create a pool using the sizes and timeouts from {@link DatabaseConfig}
+     */
+    public static ConnectionPool withDefaults(String name, int maxSize, ConnectionFactory factory) {
+        return new ConnectionPool(name, factory, maxSize, DatabaseConfig.POOL_MIN_IDLE,
+            DatabaseConfig.POOL_BORROW_TIMEOUT_MS, DatabaseConfig.POOL_IDLE_TIMEOUT_MS,
+            DatabaseConfig.POOL_VALIDATION_INTERVAL_MS, DatabaseConfig.POOL_LEAK_THRESHOLD_MS,
+            DatabaseConfig.POOL_HOUSEKEEPING_INTERVAL_MS)
+            .withLeakTrace(DatabaseConfig.POOL_LEAK_TRACE);
+    }
+
+    /**
+     * Cache up to this many prepared statements per connection (0 disables caching).
+     * Only applies to connections opened after the call, so set it before the first borrow.
+     */
+    public ConnectionPool withStatementCache(int size) {
+        this.statementCacheSize = Math.max(size, 0);
+        return this;
+    }
+
+    /**
+     * Capture the stack of every borrow and print it with leak reports.
+     * Off by default, since it costs a stack walk per borrow; without it a
+     * report names the borrowing thread and the time of the borrow.
+     */
+    public ConnectionPool withLeakTrace(boolean enabled) {
+        this.leakTrace = enabled;
+        return this;
+    }
+
+    /**
+     * Borrow a connection. Closing the returned connection gives it back to the pool.
+     * @throws SQLException if no connection becomes free within the borrow timeout
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool '" + name + "' has been shut down");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMs + " ms waiting for a connection from pool '" + name + "'");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        return checkOut();
+    }
+
+    /**
+     * Borrow a connection only if one is free right now
+     * @return the connection, or null if all of them are in use
+     * @throws SQLException if a connection had to be opened and could not be
+     */
+    public Connection tryBorrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool '" + name + "' has been shut down");
+        }
+        return permits.tryAcquire() ? checkOut() : null;
+    }
+
+    /**
+     * Hand out a connection once a permit is held, giving the permit back if that fails
+     */
+    private Connection checkOut() throws SQLException {
+        try {
+            PooledEntry entry = takeIdleOrCreate();
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.borrowThread = Thread.currentThread().getName();
+            entry.borrowSite = leakTrace && leakThresholdMs > 0 ? new Throwable("Connection borrowed here") : null;
+            entry.leakReported = false;
+            inUse.add(entry);
+            return wrap(entry);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry takeIdleOrCreate() throws SQLException {
+        while (true) {
+            PooledEntry entry;
+            synchronized (idle) {
+                entry = idle.pollFirst();
+            }
+            if (entry == null) {
+                return new PooledEntry(factory.create(), statementCacheSize);
+            }
+            if (isUsable(entry)) {
+                return entry;
+            }
+            closeQuietly(entry);
+        }
+    }
+
+    /**
+     * Validate connections that have been sitting idle for a while
+     */
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - entry.lastReturnedAt < validationIntervalMs) {
+                return true;
+            }
+            try (Statement stmt = entry.physical.createStatement()) {
+                stmt.execute("SELECT 1");
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Discarding invalid pooled connection: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Give a connection back to the pool, resetting any transaction state the caller left behind
+     */
+    private void release(PooledEntry entry) {
+        inUse.remove(entry);
+        boolean reusable = !shutdown;
+
+        if (entry.statements != null) {
+            entry.statements.releaseAll();
+        }
+
+        if (reusable) {
+            try {
+                if (!entry.physical.getAutoCommit()) {
+                    entry.physical.rollback();
+                    entry.physical.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                System.err.println("Error resetting pooled connection: " + e.getMessage());
+                reusable = false;
+            }
+        }
+
+        if (reusable) {
+            entry.lastReturnedAt = System.currentTimeMillis();
+            entry.borrowSite = null;
+            synchronized (idle) {
+                idle.offerFirst(entry);
+            }
+        } else {
+            closeQuietly(entry);
+        }
+        permits.release();
+    }
+
+    /**
+     * Evict idle connections above the minimum and report connections held too long
+     */
+    private void housekeeping() {
+        long now = System.currentTimeMillis();
+
+        List<PooledEntry> expired = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() - expired.size() > minIdle) {
+                PooledEntry entry = it.next();
+                if (now - entry.lastReturnedAt >= idleTimeoutMs) {
+                    expired.add(entry);
+                }
+            }
+            idle.removeAll(expired);
+        }
+        expired.forEach(this::closeQuietly);
+
+        if (leakThresholdMs > 0) {
+            for (PooledEntry entry : inUse) {
+                long heldFor = now - entry.borrowedAt;
+                if (heldFor >= leakThresholdMs && !entry.leakReported) {
+                    entry.leakReported = true;
+                    System.err.println("Possible connection leak in pool '" + name + "': connection borrowed by thread '" +
+                        entry.borrowThread + "' at " + Instant.ofEpochMilli(entry.borrowedAt) + " held for " + heldFor + " ms");
+                    if (entry.borrowSite != null) {
+                        entry.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Close every idle connection and stop handing out new ones.
+     * Connections still in use are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        synchronized (idle) {
+            idle.forEach(this::closeQuietly);
+            idle.clear();
+        }
+    }
+
+    public String getName() { return name; }
+    public int getMaxSize() { return maxSize; }
+    public int getActiveCount() { return inUse.size(); }
+
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[%s: active=%d, idle=%d, max=%d]",
+            name, getActiveCount(), getIdleCount(), maxSize);
+    }
+
+    private void closeQuietly(PooledEntry entry) {
+        if (entry.statements != null) {
+            entry.statements.clear();
+        }
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private Connection wrap(PooledEntry entry) {
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new PooledConnectionHandler(entry));
+    }
+
+    /**
+     * Logical connection handed to callers. Each borrow gets its own handle so a
+     * closed handle can never touch a connection that has since been lent to someone else.
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean closed = false;
+
+        PooledConnectionHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + name + (closed ? ", closed]" : "]");
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if (entry.statements != null && "prepareStatement".equals(method.getName()) && args.length == 1) {
+                return entry.statements.prepare((String) args[0]);
+            }
+
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
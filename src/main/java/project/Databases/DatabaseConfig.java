@@ -0,0 +1,140 @@
+package project.Databases;
+
+/**
+ * Tunable settings for the database layer.
+ * Every value can be overridden with a JVM system property, e.g.
+ * {@code -Dlibrary.pool.maxSize=8}.
+ */
+public class DatabaseConfig {
+
+    // ==================== DATABASE FILE ====================
+
+    /** SQLite database file, created on first run */
+    public static final String DB_PATH = System.getProperty("library.db.path", "My.db");
+
+    /** Set to "demo" to fill an empty database with sample members, books and loans */
+    public static final String SEED_PROFILE = System.getProperty("library.seed", "none");
+
+    // ==================== CONNECTION POOL ====================
+
+    /** Maximum number of read-only connections held by the reader pool */
+    public static final int POOL_MAX_SIZE = Integer.getInteger("library.pool.maxSize", 4);
+
+    /** Number of idle connections kept open even when unused */
+    public static final int POOL_MIN_IDLE = Integer.getInteger("library.pool.minIdle", 1);
+
+    /** How long a caller waits for a free connection before giving up */
+    public static final long POOL_BORROW_TIMEOUT_MS = Long.getLong("library.pool.borrowTimeoutMs", 10_000L);
+
+    /** Idle connections above the minimum are closed after this long */
+    public static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("library.pool.idleTimeoutMs", 300_000L);
+
+    /** Idle connections older than this are validated before being handed out */
+    public static final long POOL_VALIDATION_INTERVAL_MS = Long.getLong("library.pool.validationIntervalMs", 30_000L);
+
+    /** A connection held longer than this is reported as a possible leak (0 disables) */
+    public static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("library.pool.leakThresholdMs", 60_000L);
+
+    /** Record the stack of every borrow so a leak report shows where it came from (debugging only) */
+    public static final boolean POOL_LEAK_TRACE = Boolean.getBoolean("library.pool.leakTrace");
+
+    /** How often the pool evicts idle connections and checks for leaks */
+    public static final long POOL_HOUSEKEEPING_INTERVAL_MS = Long.getLong("library.pool.housekeepingMs", 30_000L);
+
+    /** Prepared statements cached per connection, keyed by SQL text (0 disables the cache) */
+    public static final int STATEMENT_CACHE_SIZE = Integer.getInteger("library.pool.statementCacheSize", 64);
+
+    // ==================== BATCHES & STREAMS ====================
+
+    /** Rows sent per JDBC batch by Connect.executeBatch */
+    public static final int BATCH_CHUNK_SIZE = Integer.getInteger("library.batch.chunkSize", 500);
+
+    /** Rows committed per transaction by the CSV imports */
+    public static final int IMPORT_CHUNK_SIZE = Integer.getInteger("library.import.chunkSize", 5000);
+
+    /** Rows fetched from SQLite at a time by Connect.stream */
+    public static final int STREAM_FETCH_SIZE = Integer.getInteger("library.stream.fetchSize", 256);
+
+    /** Rows per page in paged listings such as View All Books */
+    public static final int PAGE_SIZE = Integer.getInteger("library.page.size", 100);
+
+    /** Maximum books returned by one full-text search */
+    public static final int SEARCH_LIMIT = Integer.getInteger("library.search.limit", 200);
+
+    /** Pause in typing, in milliseconds, before a search box runs its search */
+    public static final int SEARCH_DEBOUNCE_MS = Integer.getInteger("library.search.debounceMs", 250);
+
+    /** Fall back to typo-tolerant trigram search when a book search finds nothing */
+    public static final boolean FUZZY_SEARCH_ENABLED =
+        Boolean.parseBoolean(System.getProperty("library.search.fuzzy", "true"));
+
+    /** Share of the search term's trigrams (0 to 1) a book must contain to count as a fuzzy match */
+    public static final double FUZZY_MIN_SIMILARITY =
+        Double.parseDouble(System.getProperty("library.search.fuzzyMinSimilarity", "0.5"));
+
+    // ==================== CACHES ====================
+
+    /** Books (and title/author lookups) kept in memory; 0 disables the book cache */
+    public static final int BOOK_CACHE_SIZE = Integer.getInteger("library.cache.books.maxSize", 10000);
+
+    /** Eviction policy of the book cache: lru or fifo */
+    public static final String BOOK_CACHE_POLICY = System.getProperty("library.cache.books.policy", "lru");
+
+    /** Search results kept in memory; 0 disables caching searches */
+    public static final int SEARCH_CACHE_SIZE = Integer.getInteger("library.cache.searchResults", 256);
+
+    /** How long an email's account type and profile are cached; 0 disables the user cache */
+    public static final int USER_CACHE_TTL_SECONDS = Integer.getInteger("library.cache.users.ttlSeconds", 300);
+
+    /** Email lookups kept in memory */
+    public static final int USER_CACHE_SIZE = Integer.getInteger("library.cache.users.maxSize", 1000);
+
+    /** How often ChangeMonitor checks for commits, including other processes' (0 disables it) */
+    public static final long CHANGE_POLL_MS = Long.getLong("library.monitor.pollMs", 1000L);
+
+    // ==================== ASYNC EXECUTOR ====================
+
+    /** Run background database work on virtual threads when the JVM supports them */
+    public static final boolean ASYNC_VIRTUAL_THREADS =
+        Boolean.parseBoolean(System.getProperty("library.async.virtualThreads", "true"));
+
+    /** Worker threads for background database work when virtual threads are unavailable */
+    public static final int ASYNC_THREADS = Integer.getInteger("library.async.threads", POOL_MAX_SIZE + 1);
+
+    // ==================== HTTP API SERVER ====================
+
+    /** Port the headless API server (Main --server) listens on */
+    public static final int SERVER_PORT = Integer.getInteger("library.server.port", 8080);
+
+    /** Connections waiting to be accepted before new ones are refused */
+    public static final int SERVER_BACKLOG = Integer.getInteger("library.server.backlog", 1024);
+
+    /** Request handler threads when virtual threads are unavailable */
+    public static final int SERVER_THREADS = Integer.getInteger("library.server.threads", 32);
+
+    /** Largest request body accepted, in bytes */
+    public static final int SERVER_MAX_BODY_BYTES = Integer.getInteger("library.server.maxBodyBytes", 64 * 1024);
+
+    // ==================== QUERY STATISTICS ====================
+
+    /** Time every query and keep per-query latency statistics (see QueryStats) */
+    public static final boolean QUERY_STATS_ENABLED =
+        Boolean.parseBoolean(System.getProperty("library.stats.enabled", "true"));
+
+    /** Queries slower than this are logged with their query plan (negative disables the log) */
+    public static final long SLOW_QUERY_MS = Long.getLong("library.stats.slowQueryMs", 200L);
+
+    /** File the slow-query log is appended to; empty writes it to standard error */
+    public static final String SLOW_QUERY_LOG = System.getProperty("library.stats.slowQueryLog", "");
+
+    /** Print the query statistics when the application exits */
+    public static final boolean QUERY_STATS_ON_EXIT =
+        Boolean.parseBoolean(System.getProperty("library.stats.printOnExit", "false"));
+
+    // ==================== PRAGMA PROFILE ====================
+
+    /** Named pragma preset: "balanced", "durable" or "fast" (see PragmaProfile) */
+    public static final String PRAGMA_PROFILE = System.getProperty("library.db.profile", "balanced");
+
+    private DatabaseConfig() {}
+}
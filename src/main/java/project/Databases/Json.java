@@ -0,0 +1,228 @@
+package project.Databases;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON text building, e.g. to pass a list of values to SQLite's json_each
+ * as a single statement parameter, and parsing of flat JSON objects such as API request bodies.
+ */
+public final class Json {
+
+    private Json() {}
+
+    /**
+     * A JSON array of strings, e.g. ["a","b"]
+     */
+    public static String stringArray(Collection<String> values) {
+        StringBuilder json = new StringBuilder(values.size() * 24 + 2).append('[');
+        boolean first = true;
+        for (String value : values) {
+            if (!first) {
+                json.append(',');
+            }
+            appendQuoted(json, value);
+            first = false;
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * A JSON array of rows, each an array of values, e.g. [["Dune",3],["Emma",1]].
+     * Numbers and booleans are written as they are, anything else as a string.
+     */
+    public static String rowArray(List<Object[]> rows) {
+        StringBuilder json = new StringBuilder(rows.size() * 64 + 2).append('[');
+        for (int r = 0; r < rows.size(); r++) {
+            json.append(r == 0 ? "[" : ",[");
+            Object[] row = rows.get(r);
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                Object value = row[i];
+                if (value instanceof Number || value instanceof Boolean) {
+                    json.append(value);
+                } else {
+                    appendQuoted(json, value == null ? null : value.toString());
+                }
+            }
+            json.append(']');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * A JSON string literal, or null for a null value
+     */
+    public static String quote(String value) {
+        StringBuilder json = new StringBuilder(value == null ? 4 : value.length() + 2);
+        appendQuoted(json, value);
+        return json.toString();
+    }
+
+    /**
+     * Append a JSON string literal, escaping quotes, backslashes and control characters
+     */
+    public static void appendQuoted(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Parse a flat JSON object, e.g. {"title":"Dune","copies":3}. Values may be strings,
+     * numbers (Long, or Double when they have a fraction or exponent), booleans or null;
+     * nested objects and arrays are not supported.
+     * @return Field names to values, in the order they appear
+     * @throws IllegalArgumentException if the text is not such an object
+     */
+    public static Map<String, Object> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String name = parser.string();
+                parser.expect(':');
+                fields.put(name, parser.value());
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.end();
+        return fields;
+    }
+
+    private static class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text != null ? text : "";
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String expected) {
+            return new IllegalArgumentException("Invalid JSON: expected " + expected + " at position " + pos);
+        }
+
+        boolean consume(char c) {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw error("'" + c + "'");
+            }
+        }
+
+        void end() {
+            skipWhitespace();
+            if (pos != text.length()) {
+                throw error("end of input");
+            }
+        }
+
+        Object value() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw error("a value");
+            }
+            char c = text.charAt(pos);
+            if (c == '"') {
+                return string();
+            }
+            for (String literal : new String[] { "true", "false", "null" }) {
+                if (text.startsWith(literal, pos)) {
+                    pos += literal.length();
+                    return literal.equals("null") ? null : Boolean.valueOf(literal);
+                }
+            }
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            String number = text.substring(start, pos);
+            try {
+                return number.matches("-?\\d+") ? (Object) Long.valueOf(number) : (Object) Double.valueOf(number);
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("a string, number, boolean or null");
+            }
+        }
+
+        String string() {
+            skipWhitespace();
+            if (pos >= text.length() || text.charAt(pos) != '"') {
+                throw error("a string");
+            }
+            StringBuilder value = new StringBuilder();
+            pos++;
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("four hex digits");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("four hex digits");
+                        }
+                        pos += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            }
+            throw error("closing quote");
+        }
+    }
+}
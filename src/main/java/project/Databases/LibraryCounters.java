@@ -0,0 +1,166 @@
+package project.Databases;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Library totals read from the {@code library_counters} table in constant time.
+ *
+ * Triggers on books, members and borrowed_books keep the table up to date in the
+ * same transaction as every insert, delete, borrow and return, so the dashboard never
+ * scans a whole table. The totals are also held in memory: write paths call
+ * {@link #invalidate()} once they commit, and the next read reloads the few counter rows.
+ */
+public class LibraryCounters {
+
+    /**
+     * One maintained total, named as in the library_counters table
+     */
+    public enum Counter {
+        MEMBERS("members"),
+        BOOKS("books"),
+        TOTAL_COPIES("total_copies"),
+        AVAILABLE_COPIES("available_copies"),
+        OUT_OF_STOCK_BOOKS("out_of_stock_books"),
+        CURRENTLY_BORROWED("currently_borrowed"),
+        TOTAL_BORROWS("total_borrows"),
+        BOOKS_ADDED_BY_ADMINS("books_added_by_admins"),
+        BOOKS_ADDED_BY_MEMBERS("books_added_by_members");
+
+        final String key;
+
+        Counter(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Every counter computed from scratch, as (name, value) rows
+     */
+    private static final String RECOMPUTE =
+        "SELECT 'members', COUNT(*) FROM members " +
+        "UNION ALL SELECT 'books', COUNT(*) FROM books " +
+        "UNION ALL SELECT 'total_copies', COALESCE(SUM(total_copies), 0) FROM books " +
+        "UNION ALL SELECT 'available_copies', COALESCE(SUM(available_copies), 0) FROM books " +
+        "UNION ALL SELECT 'out_of_stock_books', COUNT(*) FROM books WHERE available_copies = 0 " +
+        "UNION ALL SELECT 'currently_borrowed', COUNT(*) FROM borrowed_books WHERE is_returned = 0 " +
+        "UNION ALL SELECT 'total_borrows', COALESCE(SUM(borrow_count), 0) FROM books " +
+        "UNION ALL SELECT 'books_added_by_admins', COUNT(*) FROM books WHERE added_by_type = 'admin' " +
+        "UNION ALL SELECT 'books_added_by_members', COUNT(*) FROM books WHERE added_by_type = 'member'";
+
+    private static final Counter[] COUNTERS = Counter.values();
+
+    // Totals as last loaded; null until the first read or after an invalidation
+    private static volatile long[] snapshot;
+    private static long generation = 0;
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder RELOADS = new LongAdder();
+
+    private LibraryCounters() {}
+
+    /**
+     * Current value of a counter, or 0 if the counters cannot be read
+     */
+    public static long get(Counter counter) {
+        long[] values = snapshot;
+        if (values != null) {
+            HITS.increment();
+            return values[counter.ordinal()];
+        }
+        values = reload();
+        return values != null ? values[counter.ordinal()] : 0;
+    }
+
+    private static long[] reload() {
+        long loadedGeneration;
+        synchronized (LibraryCounters.class) {
+            loadedGeneration = generation;
+        }
+        RELOADS.increment();
+        long[] values = Connect.executeQuery("SELECT name, value FROM library_counters", rs -> {
+            try {
+                return readCounters(rs);
+            } catch (SQLException e) {
+                System.err.println("Error reading library counters: " + e.getMessage());
+                return null;
+            }
+        });
+        synchronized (LibraryCounters.class) {
+            // A write committed while we were reading may not be in these values
+            if (values != null && loadedGeneration == generation) {
+                snapshot = values;
+            }
+        }
+        return values;
+    }
+
+    private static long[] readCounters(ResultSet rs) throws SQLException {
+        long[] values = new long[COUNTERS.length];
+        while (rs.next()) {
+            Counter counter = find(rs.getString(1));
+            if (counter != null) {
+                values[counter.ordinal()] = rs.getLong(2);
+            }
+        }
+        return values;
+    }
+
+    private static Counter find(String key) {
+        for (Counter counter : COUNTERS) {
+            if (counter.key.equals(key)) {
+                return counter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drop the in-memory totals after a committed write; the next read reloads them
+     */
+    public static synchronized void invalidate() {
+        generation++;
+        snapshot = null;
+    }
+
+    /**
+     * Recompute every counter from the tables, e.g. after rows were changed with triggers disabled
+     * @return the number of counters that were wrong, or -1 if the recount failed
+     */
+    public static int reconcile() {
+        Integer corrected = Connect.inTransaction(connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                long[] stored;
+                try (ResultSet rs = stmt.executeQuery("SELECT name, value FROM library_counters")) {
+                    stored = readCounters(rs);
+                }
+                long[] actual;
+                try (ResultSet rs = stmt.executeQuery(RECOMPUTE)) {
+                    actual = readCounters(rs);
+                }
+
+                int wrong = 0;
+                for (Counter counter : COUNTERS) {
+                    if (stored[counter.ordinal()] != actual[counter.ordinal()]) {
+                        System.out.println(counter.key + ": " + stored[counter.ordinal()] + " -> " + actual[counter.ordinal()]);
+                        wrong++;
+                    }
+                }
+                stmt.execute("INSERT OR REPLACE INTO library_counters (name, value) " + RECOMPUTE);
+                return wrong;
+            } catch (SQLException e) {
+                throw new Connect.RollbackException("Failed to reconcile library counters: " + e.getMessage(), e);
+            }
+        });
+        invalidate();
+        return corrected != null ? corrected : -1;
+    }
+
+    /**
+     * Cache hits and reloads of the in-memory totals
+     */
+    public static String getStats() {
+        return "Library counters: " + HITS.sum() + " hits, " + RELOADS.sum() + " reloads";
+    }
+}
@@ -1,9 +1,14 @@
 package project.Databases;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class LibraryMember {
     private String email;
@@ -44,35 +49,13 @@ public class LibraryMember {
     
 
     public static LibraryMember AuthenticateMember(String email, String password) {
-        
-        String query = "SELECT email, name, password, age, phone_number FROM members WHERE email = ? AND password =?";
-
-        try (Connection connection = Connect.getDBConnection();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
-                
-                stmt.setString(1, email);
-                stmt.setString(2, password);
-
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                           return new LibraryMember(
-                            rs.getString("email"),
-                            rs.getString("name"),
-                            rs.getString("password"),
-                            rs.getInt("age"),
-                            rs.getString("phone_number"),
-                            null  // createdAt - since you're not selecting it from the query
-                );
-            }
-            
-        } catch (Exception e) {
-             System.err.println("Error authenticating admin " + e.getMessage());
-        }
-
-        return null;
+        UserDirectory.User user = UserDirectory.authenticate(email, password);
+        return user != null ? user.getMember() : null;
     }
 
+    private static final String INSERT_MEMBER =
+        "INSERT INTO members (email, name, password, age, phone_number) VALUES (?, ?, ?, ?, ?)";
+
     /**
      * Add a new member to the database
      */
@@ -83,10 +66,10 @@ public class LibraryMember {
             return false;
         }
 
-        String query = "INSERT INTO members (email, name, password, age, phone_number) VALUES (?, ?, ?, ?, ?)";
-        
         try {
-            boolean result = Connect.executeUpdate(query, email, name, password, age, phoneNumber);
+            boolean result = Connect.executeUpdate(INSERT_MEMBER, email, name, password, age, phoneNumber);
+            UserDirectory.invalidate(email);
+            LibraryCounters.invalidate();
             if (result) {
                 System.out.println("Member added successfully: " + name + " (" + email + ")");
             } else {
@@ -100,6 +83,168 @@ public class LibraryMember {
         }
     }
 
+    /**
+     * Map a row of the members table (email, name, password, age, phone_number, created_at)
+     */
+    public static LibraryMember fromResultSet(ResultSet rs) throws SQLException {
+        return new LibraryMember(
+            rs.getString("email"),
+            rs.getString("name"),
+            rs.getString("password"),
+            rs.getInt("age"),
+            rs.getString("phone_number"),
+            rs.getTimestamp("created_at"));
+    }
+
+    /**
+     * Register many members in one transaction, e.g. a whole class of students.
+     * Existing emails are reported per row; if any row fails nothing is added.
+     * @return Per-member outcome, with error indexes matching positions in the list
+     */
+    public static BatchResult addMembers(List<LibraryMember> members) {
+        List<Object[]> rows = new ArrayList<>(members.size());
+        for (LibraryMember member : members) {
+            rows.add(new Object[] { member.getEmail(), member.getName(), member.getPassword(),
+                member.getAge(), member.getPhoneNumber() });
+        }
+
+        BatchResult result = Connect.executeBatch(INSERT_MEMBER, rows);
+        for (LibraryMember member : members) {
+            UserDirectory.invalidate(member.getEmail());
+        }
+        LibraryCounters.invalidate();
+        if (result.isSuccessful()) {
+            System.out.println("Added " + result.getSucceeded() + " members");
+        } else {
+            result.getErrors().forEach(error -> System.err.println("Failed to add member - " + error));
+        }
+        return result;
+    }
+
+    /** Inserts every [email, name, password, age, phone_number] row of a JSON array */
+    private static final String IMPORT_MEMBERS =
+        "INSERT INTO members (email, name, password, age, phone_number) " +
+        "SELECT json_extract(value, '$[0]'), json_extract(value, '$[1]'), json_extract(value, '$[2]'), " +
+        "json_extract(value, '$[3]'), json_extract(value, '$[4]') FROM json_each(?)";
+
+    /**
+     * Register one chunk of a roster import in a single transaction, keeping the members that can be added.
+     * Unlike {@link #addMembers}, invalid rows and emails already used by a member or an admin are
+     * reported and skipped instead of cancelling the rest. Existing emails are found with one lookup
+     * over both account tables for the whole chunk, and an email repeated within the chunk is only added once.
+     * @return Per-member outcome, with error indexes matching positions in the list
+     */
+    public static BatchResult importMembers(List<LibraryMember> members) {
+        BatchResult result = new BatchResult(members.size());
+        Map<String, Integer> indexByEmail = new LinkedHashMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            LibraryMember member = members.get(i);
+            String validationError = validateMember(member.getEmail(), member.getName(), member.getPassword(),
+                member.getAge(), member.getPhoneNumber());
+            if (validationError != null) {
+                result.recordFailure(i, validationError);
+            } else if (indexByEmail.putIfAbsent(member.getEmail(), i) != null) {
+                result.recordFailure(i, "Email appears more than once in the import");
+            }
+        }
+        if (indexByEmail.isEmpty()) {
+            return result;
+        }
+
+        int[] originalIndexes = new int[indexByEmail.size()];
+        BatchResult inserted = Connect.inTransaction(connection -> {
+            Map<String, String> existing = findAccountTypes(indexByEmail.keySet());
+            if (existing == null) {
+                throw new Connect.RollbackException("Could not check the import for existing accounts");
+            }
+            List<Object[]> rows = new ArrayList<>(indexByEmail.size());
+            for (int i : indexByEmail.values()) {
+                LibraryMember member = members.get(i);
+                String accountType = existing.get(member.getEmail());
+                if (accountType == null) {
+                    originalIndexes[rows.size()] = i;
+                    rows.add(new Object[] { member.getEmail(), member.getName(), member.getPassword(),
+                        member.getAge(), member.getPhoneNumber() });
+                } else {
+                    result.recordFailure(i, (accountType.equals("admin") ? "An admin" : "A member") +
+                        " account with this email already exists");
+                }
+            }
+            // One statement for the whole chunk instead of a statement (and statement journal) per row
+            if (rows.isEmpty() || Connect.executeUpdate(IMPORT_MEMBERS, Json.rowArray(rows))) {
+                BatchResult batch = new BatchResult(rows.size());
+                batch.recordSuccesses(rows.size());
+                return batch;
+            }
+            // Something the checks above did not catch; insert row by row to find the culprits
+            return Connect.executeBatch(INSERT_MEMBER, rows, DatabaseConfig.BATCH_CHUNK_SIZE, false);
+        });
+
+        if (inserted == null) {
+            result.recordFailure(-1, "Import of " + indexByEmail.size() + " member(s) was rolled back");
+            return result;
+        }
+        result.merge(inserted, originalIndexes);
+        if (result.getSucceeded() > 0) {
+            for (String email : indexByEmail.keySet()) {
+                UserDirectory.invalidate(email);
+            }
+            LibraryCounters.invalidate();
+        }
+        return result;
+    }
+
+    /**
+     * Account type ("member" or "admin") of each of the given emails that is already registered, in one query
+     * @return Email to account type, or null if the lookup failed
+     */
+    private static Map<String, String> findAccountTypes(Collection<String> emails) {
+        return Connect.executeQuery(
+            "SELECT email, 'member' FROM members WHERE email IN (SELECT value FROM json_each(?1)) " +
+            "UNION ALL SELECT email, 'admin' FROM admins WHERE email IN (SELECT value FROM json_each(?1))", rs -> {
+                Map<String, String> found = new HashMap<>();
+                try {
+                    while (rs.next()) {
+                        found.putIfAbsent(rs.getString(1), rs.getString(2));
+                    }
+                    return found;
+                } catch (SQLException e) {
+                    System.err.println("Error checking for existing accounts: " + e.getMessage());
+                    return null;
+                }
+            }, Json.stringArray(emails));
+    }
+
+    /**
+     * Check a new account's fields with the same rules as the sign-up form
+     * @return Description of the first problem found, or null if the account is valid
+     */
+    public static String validateMember(String email, String name, String password, int age, String phoneNumber) {
+        if (isBlank(name) || isBlank(email) || isBlank(phoneNumber) || isBlank(password)) {
+            return "Please fill in all fields";
+        }
+        if (name.length() < 2) {
+            return "Please enter a valid name";
+        }
+        if (age <= 0 || age > 100) {
+            return "Please enter a valid age between 1 and 100";
+        }
+        if (password.length() < 4) {
+            return "Password must be at least 4 characters long";
+        }
+        if (!phoneNumber.matches("\\d{11}")) {
+            return "Please enter a valid 11-digit phone number";
+        }
+        if (!email.contains("@") || !email.contains(".")) {
+            return "Please enter a valid email address";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
     /**
      * Check if a member with the given email already exists
      */
@@ -115,33 +260,10 @@ public class LibraryMember {
     }
 
     /**
-     * Get member by email address
+     * Get member by email address, from the user directory's cache when possible
      */
     public static LibraryMember getMemberByEmail(String email) {
-        String query = "SELECT email, name, password, age, phone_number, created_at FROM members WHERE email = ?";
-        
-        try (Connection connection = Connect.getDBConnection();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
-                
-                stmt.setString(1, email);
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    return new LibraryMember(
-                        rs.getString("email"),
-                        rs.getString("name"),
-                        rs.getString("password"),
-                        rs.getInt("age"),
-                        rs.getString("phone_number"),
-                        rs.getTimestamp("created_at")
-                    );
-                }
-            
-        } catch (Exception e) {
-            System.err.println("Error getting member by email: " + e.getMessage());
-        }
-
-        return null;
+        return UserDirectory.getMember(email);
     }
 
     /**
@@ -0,0 +1,164 @@
+package project.Databases;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Borrowing and returning books. Each operation updates the loan record and the
+ * book's available copies in a single transaction.
+ */
+public class Loan {
+
+    /**
+     * Result of a borrow or return attempt
+     */
+    public enum Outcome {
+        SUCCESS,
+        ALREADY_BORROWED,
+        NOT_AVAILABLE,
+        FAILED
+    }
+
+    /**
+     * One loan of a member, with the borrowed book's title and author
+     */
+    public static class BorrowedBook {
+        public final int borrowId;
+        public final String bookTitle;
+        public final String bookAuthor;
+        public final int bookId;
+        public final String borrowDate;
+        public final String returnDate;
+        public final boolean isReturned;
+
+        public BorrowedBook(int borrowId, String bookTitle, String bookAuthor, int bookId,
+                            String borrowDate, String returnDate, boolean isReturned) {
+            this.borrowId = borrowId;
+            this.bookTitle = bookTitle;
+            this.bookAuthor = bookAuthor;
+            this.bookId = bookId;
+            this.borrowDate = borrowDate;
+            this.returnDate = returnDate;
+            this.isReturned = isReturned;
+        }
+    }
+
+    private Loan() {}
+
+    /**
+     * Borrow one copy of a book for a member
+     */
+    public static Outcome borrowBook(String memberEmail, int bookId) {
+        if (hasBorrowedBook(memberEmail, bookId)) {
+            return Outcome.ALREADY_BORROWED;
+        }
+
+        String insertQuery = "INSERT INTO borrowed_books (member_email, book_id, borrow_date, is_returned) VALUES (?, ?, datetime('now'), 0)";
+        String updateQuery = "UPDATE books SET available_copies = available_copies - 1, borrow_count = borrow_count + 1 WHERE id = ? AND available_copies > 0";
+
+        // Why the transaction was rolled back, since inTransaction only reports null
+        Outcome[] rollbackReason = { Outcome.FAILED };
+        Outcome outcome = Connect.inTransaction(conn -> {
+            try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery);
+                 PreparedStatement updateStmt = conn.prepareStatement(updateQuery)) {
+
+                insertStmt.setString(1, memberEmail);
+                insertStmt.setInt(2, bookId);
+                int insertResult = insertStmt.executeUpdate();
+
+                updateStmt.setInt(1, bookId);
+                int updateResult = updateStmt.executeUpdate();
+
+                if (insertResult > 0 && updateResult > 0) {
+                    return Outcome.SUCCESS;
+                }
+                rollbackReason[0] = Outcome.NOT_AVAILABLE;
+                throw new Connect.RollbackException("Book " + bookId + " is no longer available");
+            } catch (SQLException e) {
+                throw new Connect.RollbackException("Error borrowing book: " + e.getMessage(), e);
+            }
+        });
+        if (outcome == Outcome.SUCCESS) {
+            Book.CACHE.invalidateBook(bookId);
+            LibraryCounters.invalidate();
+        }
+        return outcome != null ? outcome : rollbackReason[0];
+    }
+
+    /**
+     * Return a borrowed book and put the copy back on the shelf
+     * @param borrowId ID of the borrowed_books record
+     */
+    public static Outcome returnBook(int borrowId, int bookId) {
+        String updateBorrowQuery = "UPDATE borrowed_books SET is_returned = 1, return_date = datetime('now') WHERE id = ? AND is_returned = 0";
+        String updateBookQuery = "UPDATE books SET available_copies = available_copies + 1 WHERE id = ?";
+
+        Outcome outcome = Connect.inTransaction(conn -> {
+            try (PreparedStatement updateBorrowStmt = conn.prepareStatement(updateBorrowQuery);
+                 PreparedStatement updateBookStmt = conn.prepareStatement(updateBookQuery)) {
+
+                updateBorrowStmt.setInt(1, borrowId);
+                int borrowResult = updateBorrowStmt.executeUpdate();
+
+                updateBookStmt.setInt(1, bookId);
+                int bookResult = updateBookStmt.executeUpdate();
+
+                if (borrowResult > 0 && bookResult > 0) {
+                    return Outcome.SUCCESS;
+                }
+                throw new Connect.RollbackException("Loan " + borrowId + " could not be returned");
+            } catch (SQLException e) {
+                throw new Connect.RollbackException("Error returning book: " + e.getMessage(), e);
+            }
+        });
+        if (outcome == Outcome.SUCCESS) {
+            Book.CACHE.invalidateBook(bookId);
+            LibraryCounters.invalidate();
+        }
+        return outcome != null ? outcome : Outcome.FAILED;
+    }
+
+    /**
+     * Check if member has already borrowed a specific book and not returned it
+     */
+    public static boolean hasBorrowedBook(String memberEmail, int bookId) {
+        String query = "SELECT COUNT(*) FROM borrowed_books WHERE member_email = ? AND book_id = ? AND is_returned = 0";
+        return Connect.executeCount(query, memberEmail, bookId) > 0;
+    }
+
+    /**
+     * A member's loans, most recent first
+     * @param includeReturned Also list books already given back
+     * @return The loans, or null if the query failed
+     */
+    public static List<BorrowedBook> getMemberLoans(String memberEmail, boolean includeReturned) {
+        String query = "SELECT bb.id, b.title, b.author, b.id as book_id, bb.borrow_date, bb.return_date, bb.is_returned " +
+                       "FROM borrowed_books bb " +
+                       "JOIN books b ON bb.book_id = b.id " +
+                       "WHERE bb.member_email = ?" +
+                       (includeReturned ? "" : " AND bb.is_returned = 0") +
+                       " ORDER BY bb.borrow_date DESC";
+
+        return Connect.executeQuery(query, rs -> {
+            List<BorrowedBook> loans = new ArrayList<>();
+            try {
+                while (rs.next()) {
+                    loans.add(new BorrowedBook(
+                        rs.getInt("id"),
+                        rs.getString("title"),
+                        rs.getString("author"),
+                        rs.getInt("book_id"),
+                        rs.getString("borrow_date"),
+                        rs.getString("return_date"),
+                        rs.getBoolean("is_returned")));
+                }
+                return loans;
+            } catch (SQLException e) {
+                System.err.println("Error processing borrowed books: " + e.getMessage());
+                return null;
+            }
+        }, memberEmail);
+    }
+}
@@ -0,0 +1,65 @@
+package project.Databases;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * The continuation token holds the sort keys of the last row on this page, so the
+ * next page starts with a seek on an index instead of skipping rows with OFFSET.
+ * Tokens are opaque to callers; pass them back unchanged to get the next page.
+ */
+public class Page<T> {
+    private static final String KEY_SEPARATOR = "\u001F";
+
+    private final List<T> items;
+    private final String nextToken;
+
+    public Page(List<T> items, String nextToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextToken = nextToken;
+    }
+
+    public static <T> Page<T> empty() {
+        return new Page<>(Collections.emptyList(), null);
+    }
+
+    public List<T> getItems() { return items; }
+
+    /** Token for the following page, or null if this is the last page */
+    public String getNextToken() { return nextToken; }
+
+    public boolean hasMore() { return nextToken != null; }
+
+    /**
+     * Encode the sort keys of a page's last row into a continuation token
+     */
+    public static String encodeToken(String... keys) {
+        String joined = String.join(KEY_SEPARATOR, keys);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token back into its sort keys
+     * @return the keys, or null for a null token or one that was not produced by this listing
+     */
+    public static String[] decodeToken(String token, int keyCount) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] keys = joined.split(KEY_SEPARATOR, -1);
+            if (keys.length == keyCount) {
+                return keys;
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the error below
+        }
+        System.err.println("Ignoring invalid page token: " + token);
+        return null;
+    }
+}
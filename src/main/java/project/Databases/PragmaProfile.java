@@ -0,0 +1,103 @@
+package project.Databases;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * SQLite pragma settings applied to every connection the database layer opens.
+ *
+ * A profile starts from a named preset and each value can then be overridden
+ * with a system property, e.g. {@code -Dlibrary.db.synchronous=FULL}.
+ */
+public class PragmaProfile {
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSizeKb;
+    private final String tempStore;
+    private final long mmapSize;
+    private final int busyTimeoutMs;
+
+    public PragmaProfile(String journalMode, String synchronous, int cacheSizeKb,
+                         String tempStore, long mmapSize, int busyTimeoutMs) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSizeKb = cacheSizeKb;
+        this.tempStore = tempStore;
+        this.mmapSize = mmapSize;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    /**
+     * Built-in presets.
+     * balanced - WAL with synchronous=NORMAL, safe against application crashes
+     * durable  - WAL with synchronous=FULL, also safe against power loss
+     * fast     - WAL with synchronous=OFF, for benchmarks and bulk loading only
+     *
+     * fast keeps temporary files on disk: a large batch holds a savepoint open, and with an
+     * in-memory temp store SQLite's savepoint journal slows to a crawl once the FTS triggers
+     * rewrite index pages (1M generated books took over ten minutes instead of under three).
+     */
+    public static PragmaProfile preset(String name) {
+        switch (name == null ? "balanced" : name.toLowerCase()) {
+            case "durable":
+                return new PragmaProfile("WAL", "FULL", 16_000, "MEMORY", 268_435_456L, 5_000);
+            case "fast":
+                return new PragmaProfile("WAL", "OFF", 64_000, "FILE", 1_073_741_824L, 5_000);
+            case "balanced":
+                return new PragmaProfile("WAL", "NORMAL", 16_000, "MEMORY", 268_435_456L, 5_000);
+            default:
+                System.err.println("Unknown pragma profile '" + name + "', using 'balanced'");
+                return preset("balanced");
+        }
+    }
+
+    /**
+     * Preset selected by {@link DatabaseConfig#PRAGMA_PROFILE} with any individual system property overrides
+     */
+    public static PragmaProfile fromConfig() {
+        PragmaProfile base = preset(DatabaseConfig.PRAGMA_PROFILE);
+        return new PragmaProfile(
+            System.getProperty("library.db.journalMode", base.journalMode),
+            System.getProperty("library.db.synchronous", base.synchronous),
+            Integer.getInteger("library.db.cacheSizeKb", base.cacheSizeKb),
+            System.getProperty("library.db.tempStore", base.tempStore),
+            Long.getLong("library.db.mmapSize", base.mmapSize),
+            Integer.getInteger("library.db.busyTimeoutMs", base.busyTimeoutMs));
+    }
+
+    /**
+     * Apply the per-connection pragmas. journal_mode is only set by the writer
+     * because it is stored in the database file and needs a write lock to change.
+     * @param readOnly true to also forbid writes on this connection
+     */
+    public void apply(Connection connection, boolean readOnly) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            if (!readOnly) {
+                stmt.execute("PRAGMA journal_mode = " + journalMode);
+            }
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            // Negative cache_size is in KiB rather than pages
+            stmt.execute("PRAGMA cache_size = -" + cacheSizeKb);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        }
+    }
+
+    public String getJournalMode() { return journalMode; }
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSizeKb() { return cacheSizeKb; }
+    public String getTempStore() { return tempStore; }
+    public long getMmapSize() { return mmapSize; }
+    public int getBusyTimeoutMs() { return busyTimeoutMs; }
+
+    @Override
+    public String toString() {
+        return String.format("journal_mode=%s, synchronous=%s, cache_size=%dKiB, temp_store=%s, mmap_size=%d, busy_timeout=%dms",
+            journalMode, synchronous, cacheSizeKb, tempStore, mmapSize, busyTimeoutMs);
+    }
+}
@@ -0,0 +1,53 @@
+package project.Databases;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Lets another thread stop the queries of one piece of work, e.g. a search that a newer
+ * keystroke has made obsolete.
+ *
+ * Run the work through {@link Connect#cancellable}. While it runs, every query it makes
+ * with {@link Connect#executeQuery} registers its statement here; {@link #cancel()} then
+ * calls Statement.cancel, which interrupts SQLite mid-query. Queries started after the
+ * cancel do not run at all. Either way the query returns null like any failed query,
+ * without logging an error.
+ */
+public class QueryCancellation {
+    private volatile boolean cancelled = false;
+    private Statement running;
+
+    /**
+     * Stop the running query, if any, and every query the work starts after this
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        if (running != null) {
+            try {
+                running.cancel();
+            } catch (SQLException e) {
+                System.err.println("Error cancelling query: " + e.getMessage());
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Register a statement that is about to run
+     * @return false if the work was already cancelled, so the statement should not run
+     */
+    synchronized boolean begin(Statement stmt) {
+        if (cancelled) {
+            return false;
+        }
+        running = stmt;
+        return true;
+    }
+
+    synchronized void end() {
+        running = null;
+    }
+}
@@ -0,0 +1,351 @@
+package project.Databases;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory latency statistics for every query that goes through Connect.
+ *
+ * Each query is tagged with a stable name: the class and method that first ran
+ * its SQL text (e.g. "Book.getAllBooks"), or the statement type and table when
+ * no caller outside the database layer is on the stack. Per name we keep call,
+ * row and error counts plus a latency histogram for p50/p99/max. Calls slower
+ * than {@link DatabaseConfig#SLOW_QUERY_MS} are written to the slow-query log
+ * together with SQLite's EXPLAIN QUERY PLAN output.
+ */
+public class QueryStats {
+    private static final Map<String, String> NAMES = new ConcurrentHashMap<>();
+    private static final Map<String, Metric> METRICS = new ConcurrentHashMap<>();
+    private static final Map<String, String> PLANS = new ConcurrentHashMap<>();
+    private static final Deque<SlowQuery> SLOW_QUERIES = new ArrayDeque<>();
+    private static final int MAX_SLOW_QUERIES = 50;
+    private static final Pattern TABLE = Pattern.compile("(?i)\\b(?:FROM|INTO|UPDATE)\\s+([A-Za-z_]\\w*)");
+    private static final StackWalker STACK = StackWalker.getInstance();
+
+    private QueryStats() {}
+
+    /**
+     * Statistics for one query name at the time of the snapshot. Times are in milliseconds.
+     */
+    public static class Snapshot {
+        public final String name;
+        public final long calls;
+        public final long errors;
+        public final long rows;
+        public final double totalMs;
+        public final double p50Ms;
+        public final double p99Ms;
+        public final double maxMs;
+
+        Snapshot(String name, long calls, long errors, long rows,
+                 double totalMs, double p50Ms, double p99Ms, double maxMs) {
+            this.name = name;
+            this.calls = calls;
+            this.errors = errors;
+            this.rows = rows;
+            this.totalMs = totalMs;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+        }
+
+        public double getMeanMs() {
+            return calls > 0 ? totalMs / calls : 0.0;
+        }
+    }
+
+    /**
+     * One entry of the slow-query log
+     */
+    public static class SlowQuery {
+        public final LocalDateTime at;
+        public final String name;
+        public final String sql;
+        public final double elapsedMs;
+        public final String plan;
+
+        SlowQuery(LocalDateTime at, String name, String sql, double elapsedMs, String plan) {
+            this.at = at;
+            this.name = name;
+            this.sql = sql;
+            this.elapsedMs = elapsedMs;
+            this.plan = plan;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("[%s] Slow query %s took %.1f ms", at, name, elapsedMs));
+            if (sql != null) {
+                sb.append("\n  SQL: ").append(sql.replaceAll("\\s+", " ").trim());
+            }
+            if (plan != null) {
+                sb.append("\n  Plan:\n").append(plan);
+            }
+            return sb.toString();
+        }
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Stable name for a SQL statement, resolved from the calling code the first time it runs
+     */
+    static String nameFor(String sql) {
+        if (!DatabaseConfig.QUERY_STATS_ENABLED) {
+            return null;
+        }
+        return NAMES.computeIfAbsent(sql, QueryStats::resolveName);
+    }
+
+    /**
+     * Name for work that has no single SQL text, such as a transaction
+     */
+    static String nameForCaller(String suffix) {
+        if (!DatabaseConfig.QUERY_STATS_ENABLED) {
+            return null;
+        }
+        String caller = findCaller();
+        return (caller != null ? caller : "Connect") + " " + suffix;
+    }
+
+    /**
+     * Record one finished call.
+     * @param name Name from {@link #nameFor}, or null when statistics are disabled
+     * @param sql SQL text to explain if the call was slow, or null if there is none
+     * @param startNanos System.nanoTime() when the call started
+     * @param rows Rows read or written
+     * @param failed true if the call ended in an error
+     */
+    static void record(String name, String sql, long startNanos, long rows, boolean failed) {
+        if (name == null) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        METRICS.computeIfAbsent(name, n -> new Metric()).record(elapsedNanos / 1_000L, rows, failed);
+
+        if (DatabaseConfig.SLOW_QUERY_MS >= 0 && elapsedNanos >= DatabaseConfig.SLOW_QUERY_MS * 1_000_000L) {
+            String plan = sql != null ? PLANS.computeIfAbsent(sql, Connect::explainQueryPlan) : null;
+            logSlowQuery(new SlowQuery(LocalDateTime.now(), name, sql, elapsedNanos / 1_000_000.0, plan));
+        }
+    }
+
+    private static String resolveName(String sql) {
+        String caller = findCaller();
+        if (caller != null) {
+            return caller;
+        }
+        // Not called from application code (e.g. AsyncDatabase.executeQuery), so describe the SQL itself
+        String trimmed = sql.trim();
+        int space = trimmed.indexOf(' ');
+        String verb = (space > 0 ? trimmed.substring(0, space) : trimmed).toUpperCase();
+        Matcher table = TABLE.matcher(trimmed);
+        return table.find() ? verb + " " + table.group(1) : verb;
+    }
+
+    /**
+     * First frame on the stack outside the database plumbing, as "Class.method"
+     */
+    private static String findCaller() {
+        return STACK.walk(frames -> frames
+            .filter(frame -> isApplicationFrame(frame.getClassName()))
+            .findFirst()
+            .map(frame -> simpleClassName(frame.getClassName()) + "." + methodName(frame.getMethodName()))
+            .orElse(null));
+    }
+
+    private static boolean isApplicationFrame(String className) {
+        return className.startsWith("project.")
+            && !className.startsWith("project.Databases.Connect")
+            && !className.startsWith("project.Databases.QueryStats")
+            && !className.startsWith("project.Databases.AsyncDatabase");
+    }
+
+    private static String simpleClassName(String className) {
+        String simple = className.substring(className.lastIndexOf('.') + 1);
+        int nested = simple.indexOf('$');
+        return nested > 0 ? simple.substring(0, nested) : simple;
+    }
+
+    private static String methodName(String method) {
+        // Lambdas are compiled to methods named lambda$enclosingMethod$N
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', 7);
+            return end > 7 ? method.substring(7, end) : method;
+        }
+        return method;
+    }
+
+    private static void logSlowQuery(SlowQuery slow) {
+        synchronized (SLOW_QUERIES) {
+            if (SLOW_QUERIES.size() == MAX_SLOW_QUERIES) {
+                SLOW_QUERIES.pollFirst();
+            }
+            SLOW_QUERIES.offerLast(slow);
+        }
+
+        if (DatabaseConfig.SLOW_QUERY_LOG.isEmpty()) {
+            System.err.println(slow);
+            return;
+        }
+        try {
+            Files.writeString(Paths.get(DatabaseConfig.SLOW_QUERY_LOG), slow + System.lineSeparator(),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Error writing slow query log: " + e.getMessage());
+            System.err.println(slow);
+        }
+    }
+
+    // ==================== REPORTING ====================
+
+    /**
+     * Current statistics for every query name, the most total time first
+     */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        METRICS.forEach((name, metric) -> snapshots.add(metric.snapshot(name)));
+        snapshots.sort(Comparator.comparingDouble((Snapshot s) -> s.totalMs).reversed());
+        return snapshots;
+    }
+
+    /**
+     * The most recent slow queries, oldest first
+     */
+    public static List<SlowQuery> getSlowQueries() {
+        synchronized (SLOW_QUERIES) {
+            return new ArrayList<>(SLOW_QUERIES);
+        }
+    }
+
+    /**
+     * Statistics as a plain-text table, e.g. for the console or a log file
+     */
+    public static String describe() {
+        List<Snapshot> snapshots = snapshot();
+        if (snapshots.isEmpty()) {
+            return "Query stats: no queries recorded";
+        }
+
+        StringBuilder sb = new StringBuilder("Query stats (times in ms):\n");
+        sb.append(String.format("%-40s %8s %6s %10s %10s %8s %8s %8s%n",
+            "QUERY", "CALLS", "ERRORS", "ROWS", "TOTAL", "P50", "P99", "MAX"));
+        for (Snapshot s : snapshots) {
+            sb.append(String.format("%-40s %8d %6d %10d %10.1f %8.2f %8.2f %8.2f%n",
+                s.name.length() > 40 ? s.name.substring(0, 37) + "..." : s.name,
+                s.calls, s.errors, s.rows, s.totalMs, s.p50Ms, s.p99Ms, s.maxMs));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Forget all statistics and slow queries, e.g. before a benchmark run
+     */
+    public static void reset() {
+        METRICS.clear();
+        PLANS.clear();
+        synchronized (SLOW_QUERIES) {
+            SLOW_QUERIES.clear();
+        }
+    }
+
+    /**
+     * Counters and latency histogram for one query name.
+     *
+     * Latencies are kept in microseconds in log-linear buckets: four buckets per
+     * power of two, so a reported percentile is within 25% of the true value
+     * while recording stays lock-free and the memory per name is fixed.
+     */
+    private static class Metric {
+        private static final int SUB_BUCKETS = 4;
+        private static final int BUCKETS = SUB_BUCKETS * 62;
+
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+        void record(long micros, long rowCount, boolean failed) {
+            histogram.incrementAndGet(bucketOf(micros));
+            calls.increment();
+            rows.add(rowCount);
+            totalMicros.add(micros);
+            maxMicros.accumulate(micros);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        Snapshot snapshot(String name) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                total += counts[i];
+            }
+            long max = maxMicros.get();
+            return new Snapshot(name, calls.sum(), errors.sum(), rows.sum(),
+                totalMicros.sum() / 1000.0,
+                Math.min(percentile(counts, total, 0.50), max) / 1000.0,
+                Math.min(percentile(counts, total, 0.99), max) / 1000.0,
+                max / 1000.0);
+        }
+
+        /**
+         * Upper bound of the bucket holding the given fraction of calls
+         */
+        private static long percentile(long[] counts, long total, double fraction) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return lowerBound(i + 1) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        private static int bucketOf(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) Math.max(micros, 0);
+            }
+            int msb = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) (micros >>> (msb - 2)) & (SUB_BUCKETS - 1);
+            return Math.min(SUB_BUCKETS * (msb - 1) + sub, BUCKETS - 1);
+        }
+
+        private static long lowerBound(int bucket) {
+            if (bucket >= BUCKETS) {
+                return Long.MAX_VALUE;
+            }
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int msb = bucket / SUB_BUCKETS + 1;
+            int sub = bucket % SUB_BUCKETS;
+            return (long) (SUB_BUCKETS + sub) << (msb - 2);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package project.Databases;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Turns the current row of a ResultSet into an object. Implementations must not
+ * move the cursor; {@link Connect#stream} advances it between calls.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,488 @@
+package project.Databases;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Versioned schema migrations.
+ *
+ * The schema version is stored in SQLite's {@code PRAGMA user_version}. On startup
+ * only the migrations newer than that version run, each in its own transaction,
+ * so opening an up-to-date database costs a single pragma read.
+ *
+ * To change the schema, append a new migration with the next version number.
+ * Never edit a migration that has already shipped.
+ */
+public class SchemaMigrations {
+
+    /**
+     * Statements run by one migration
+     */
+    @FunctionalInterface
+    interface MigrationStep {
+        void apply(Statement stmt) throws SQLException;
+    }
+
+    /**
+     * One numbered schema change
+     */
+    static class Migration {
+        final int version;
+        final String description;
+        final MigrationStep step;
+
+        Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Base schema with tables, indexes, views and default admin accounts", SchemaMigrations::baseSchema),
+        new Migration(2, "Indexes for keyset pagination of books, members and loans", SchemaMigrations::pagingIndexes),
+        new Migration(3, "Full-text search index on book titles and authors", SchemaMigrations::booksSearchIndex),
+        new Migration(4, "Trigger-maintained library counters for the dashboard statistics", SchemaMigrations::libraryCounters),
+        new Migration(5, "Indexes for sorting the books table by copy counts", SchemaMigrations::bookSortIndexes),
+        new Migration(6, "Indexes for sorting the member directory by name and age", SchemaMigrations::memberSortIndexes),
+        new Migration(7, "Composite indexes for the filtered borrower report", SchemaMigrations::borrowerReportIndexes),
+        new Migration(8, "Allow borrowing a book again after returning it", SchemaMigrations::oneActiveLoanPerBook)
+    );
+
+    private SchemaMigrations() {}
+
+    /**
+     * Bring the database up to the latest schema version
+     * @return the schema version after migrating
+     */
+    public static int migrate(Connection connection) throws SQLException {
+        int current = getSchemaVersion(connection);
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= current) {
+                continue;
+            }
+            apply(connection, migration);
+            current = migration.version;
+        }
+        return current;
+    }
+
+    /**
+     * Run one migration and record its version in the same transaction
+     */
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (Statement stmt = connection.createStatement()) {
+            migration.step.apply(stmt);
+            stmt.execute("PRAGMA user_version = " + migration.version);
+            connection.commit();
+            System.out.println("Applied schema migration " + migration.version + ": " + migration.description);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Schema migration " + migration.version + " failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Current schema version stored in the database file (0 for a new or pre-migration database)
+     */
+    public static int getSchemaVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Highest schema version this build knows about
+     */
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    // ==================== MIGRATIONS ====================
+
+    /**
+     * Version 1: the schema that used to be re-created on every launch.
+     * Everything is IF NOT EXISTS / OR IGNORE so databases created before
+     * migrations existed are adopted without changes.
+     */
+    private static void baseSchema(Statement stmt) throws SQLException {
+        // Create admins table
+        stmt.execute("CREATE TABLE IF NOT EXISTS admins (" +
+            "email TEXT PRIMARY KEY," +
+            "name TEXT NOT NULL," +
+            "password TEXT NOT NULL," +
+            "age INTEGER NOT NULL," +
+            "phone_number TEXT NOT NULL," +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")");
+
+        // Create members table
+        stmt.execute("CREATE TABLE IF NOT EXISTS members (" +
+            "email TEXT PRIMARY KEY," +
+            "name TEXT NOT NULL," +
+            "password TEXT NOT NULL," +
+            "age INTEGER NOT NULL," +
+            "phone_number TEXT NOT NULL," +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")");
+
+        // Create books table with flexible user tracking
+        stmt.execute("CREATE TABLE IF NOT EXISTS books (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "title TEXT NOT NULL UNIQUE," +
+            "author TEXT NOT NULL," +
+            "total_copies INTEGER NOT NULL," +
+            "available_copies INTEGER NOT NULL," +
+            "borrow_count INTEGER DEFAULT 0," +
+            "added_by_email TEXT NOT NULL," +
+            "added_by_type TEXT NOT NULL CHECK (added_by_type IN ('admin', 'member'))," +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+            "updated_by_email TEXT," +
+            "updated_by_type TEXT CHECK (updated_by_type IN ('admin', 'member'))" +
+            ")");
+
+        // Create borrowed_books table
+        stmt.execute("CREATE TABLE IF NOT EXISTS borrowed_books (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "member_email TEXT NOT NULL," +
+            "book_id INTEGER NOT NULL," +
+            "borrow_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+            "return_date TIMESTAMP NULL," +
+            "is_returned BOOLEAN DEFAULT FALSE," +
+            "FOREIGN KEY (member_email) REFERENCES members(email) ON DELETE CASCADE," +
+            "FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE," +
+            "UNIQUE(member_email, book_id, is_returned)" +
+            ")");
+
+        // Create indexes for better performance
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_member ON borrowed_books(member_email)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_book ON borrowed_books(book_id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_status ON borrowed_books(is_returned)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_title ON books(title)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_author ON books(author)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_added_by ON books(added_by_email)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_user_type ON books(added_by_type)");
+
+        // Insert default admin accounts
+        stmt.execute("INSERT OR IGNORE INTO admins (email, name, password, age, phone_number) VALUES " +
+            "('admin', 'Admin', 'admin123', 30, '09000000000'), " +
+            "('system@library.com', 'System', 'sys123', 25, '09111111111')");
+
+        // Create views with flexible user tracking
+        stmt.execute("CREATE VIEW IF NOT EXISTS books_with_user_info AS " +
+            "SELECT " +
+            "b.id, " +
+            "b.title, " +
+            "b.author, " +
+            "b.total_copies, " +
+            "b.available_copies, " +
+            "b.borrow_count, " +
+            "b.created_at, " +
+            "b.added_by_email, " +
+            "b.added_by_type, " +
+            "CASE " +
+            "    WHEN b.added_by_type = 'admin' THEN " +
+            "        (SELECT name FROM admins WHERE email = b.added_by_email) " +
+            "    WHEN b.added_by_type = 'member' THEN " +
+            "        (SELECT name FROM members WHERE email = b.added_by_email) " +
+            "    ELSE 'Unknown' " +
+            "END AS added_by_name, " +
+            "b.updated_at, " +
+            "b.updated_by_email, " +
+            "b.updated_by_type, " +
+            "CASE " +
+            "    WHEN b.updated_by_type = 'admin' THEN " +
+            "        (SELECT name FROM admins WHERE email = b.updated_by_email) " +
+            "    WHEN b.updated_by_type = 'member' THEN " +
+            "        (SELECT name FROM members WHERE email = b.updated_by_email) " +
+            "    ELSE NULL " +
+            "END AS updated_by_name " +
+            "FROM books b");
+        stmt.execute("CREATE VIEW IF NOT EXISTS member_borrowed_books AS " +
+            "SELECT " +
+            "m.name AS member_name, " +
+            "m.email AS member_email, " +
+            "b.title AS book_title, " +
+            "b.author AS book_author, " +
+            "bb.borrow_date, " +
+            "bb.return_date, " +
+            "bb.is_returned " +
+            "FROM borrowed_books bb " +
+            "JOIN members m ON bb.member_email = m.email " +
+            "JOIN books b ON bb.book_id = b.id");
+        stmt.execute("CREATE VIEW IF NOT EXISTS library_statistics AS " +
+            "SELECT " +
+            "(SELECT COUNT(*) FROM members) AS total_members, " +
+            "(SELECT COUNT(*) FROM books) AS total_books, " +
+            "(SELECT SUM(total_copies) FROM books) AS total_book_copies, " +
+            "(SELECT SUM(available_copies) FROM books) AS available_copies, " +
+            "(SELECT COUNT(*) FROM borrowed_books WHERE is_returned = FALSE) AS currently_borrowed, " +
+            "(SELECT SUM(borrow_count) FROM books) AS total_borrows_ever, " +
+            "(SELECT COUNT(*) FROM books WHERE added_by_type = 'admin') AS books_added_by_admins, " +
+            "(SELECT COUNT(*) FROM books WHERE added_by_type = 'member') AS books_added_by_members");
+        stmt.execute("CREATE VIEW IF NOT EXISTS user_book_contributions AS " +
+            "SELECT " +
+            "added_by_email, " +
+            "added_by_type, " +
+            "CASE " +
+            "    WHEN added_by_type = 'admin' THEN " +
+            "        (SELECT name FROM admins WHERE email = added_by_email) " +
+            "    WHEN added_by_type = 'member' THEN " +
+            "        (SELECT name FROM members WHERE email = added_by_email) " +
+            "END AS user_name, " +
+            "COUNT(*) AS books_contributed, " +
+            "MIN(created_at) AS first_contribution, " +
+            "MAX(created_at) AS last_contribution " +
+            "FROM books " +
+            "GROUP BY added_by_email, added_by_type " +
+            "ORDER BY books_contributed DESC");
+    }
+
+    /**
+     * Version 2: composite indexes matching the ORDER BY of each paged listing,
+     * so every page is an index seek no matter how deep the user scrolls.
+     */
+    private static void pagingIndexes(Statement stmt) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_created_id ON books(created_at, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_members_created_email ON members(created_at, email)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_date_id ON borrowed_books(borrow_date, id)");
+    }
+
+    /**
+     * Version 3: an FTS5 index over book titles and authors for ranked word and prefix search.
+     * It is an external-content table, so it stores only the index and reads the text from
+     * books; the triggers keep it in step with every insert, delete and rename.
+     */
+    private static void booksSearchIndex(Statement stmt) throws SQLException {
+        stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS books_fts USING fts5(" +
+            "title, author, " +
+            "content='books', content_rowid='id', " +
+            "tokenize='unicode61 remove_diacritics 2', " +
+            "prefix='2 3'" +
+            ")");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS books_fts_insert AFTER INSERT ON books BEGIN " +
+            "INSERT INTO books_fts(rowid, title, author) VALUES (new.id, new.title, new.author); " +
+            "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS books_fts_delete AFTER DELETE ON books BEGIN " +
+            "INSERT INTO books_fts(books_fts, rowid, title, author) VALUES ('delete', old.id, old.title, old.author); " +
+            "END");
+        // Only title and author are indexed, so copy-count updates leave the index alone
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS books_fts_update AFTER UPDATE OF title, author ON books BEGIN " +
+            "INSERT INTO books_fts(books_fts, rowid, title, author) VALUES ('delete', old.id, old.title, old.author); " +
+            "INSERT INTO books_fts(rowid, title, author) VALUES (new.id, new.title, new.author); " +
+            "END");
+
+        // Index the books that already exist
+        stmt.execute("INSERT INTO books_fts(books_fts) VALUES('rebuild')");
+    }
+
+    /**
+     * Version 4: running totals in library_counters, kept exact by triggers in the
+     * same transaction as each write, so statistics are read without scanning tables.
+     * library_statistics is redefined to read them.
+     */
+    private static void libraryCounters(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS library_counters (" +
+            "name TEXT PRIMARY KEY," +
+            "value INTEGER NOT NULL" +
+            ") WITHOUT ROWID");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS members_count_insert AFTER INSERT ON members BEGIN " +
+            "UPDATE library_counters SET value = value + 1 WHERE name = 'members'; " +
+            "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS members_count_delete AFTER DELETE ON members BEGIN " +
+            "UPDATE library_counters SET value = value - 1 WHERE name = 'members'; " +
+            "END");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS books_count_insert AFTER INSERT ON books BEGIN " +
+            "UPDATE library_counters SET value = value + CASE name " +
+            "    WHEN 'books' THEN 1 " +
+            "    WHEN 'total_copies' THEN new.total_copies " +
+            "    WHEN 'available_copies' THEN new.available_copies " +
+            "    WHEN 'out_of_stock_books' THEN new.available_copies = 0 " +
+            "    WHEN 'total_borrows' THEN COALESCE(new.borrow_count, 0) " +
+            "    WHEN 'books_added_by_admins' THEN new.added_by_type = 'admin' " +
+            "    WHEN 'books_added_by_members' THEN new.added_by_type = 'member' " +
+            "END WHERE name IN ('books', 'total_copies', 'available_copies', 'out_of_stock_books', " +
+            "'total_borrows', 'books_added_by_admins', 'books_added_by_members'); " +
+            "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS books_count_delete AFTER DELETE ON books BEGIN " +
+            "UPDATE library_counters SET value = value - CASE name " +
+            "    WHEN 'books' THEN 1 " +
+            "    WHEN 'total_copies' THEN old.total_copies " +
+            "    WHEN 'available_copies' THEN old.available_copies " +
+            "    WHEN 'out_of_stock_books' THEN old.available_copies = 0 " +
+            "    WHEN 'total_borrows' THEN COALESCE(old.borrow_count, 0) " +
+            "    WHEN 'books_added_by_admins' THEN old.added_by_type = 'admin' " +
+            "    WHEN 'books_added_by_members' THEN old.added_by_type = 'member' " +
+            "END WHERE name IN ('books', 'total_copies', 'available_copies', 'out_of_stock_books', " +
+            "'total_borrows', 'books_added_by_admins', 'books_added_by_members'); " +
+            "END");
+        // Borrowing and returning only change available_copies, so only that row is written
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS books_count_update " +
+            "AFTER UPDATE OF total_copies, available_copies, borrow_count, added_by_type ON books BEGIN " +
+            "UPDATE library_counters SET value = value + CASE name " +
+            "    WHEN 'total_copies' THEN new.total_copies - old.total_copies " +
+            "    WHEN 'available_copies' THEN new.available_copies - old.available_copies " +
+            "    WHEN 'out_of_stock_books' THEN (new.available_copies = 0) - (old.available_copies = 0) " +
+            "    WHEN 'total_borrows' THEN COALESCE(new.borrow_count, 0) - COALESCE(old.borrow_count, 0) " +
+            "    WHEN 'books_added_by_admins' THEN (new.added_by_type = 'admin') - (old.added_by_type = 'admin') " +
+            "    WHEN 'books_added_by_members' THEN (new.added_by_type = 'member') - (old.added_by_type = 'member') " +
+            "END WHERE name IN (" +
+            "    CASE WHEN new.total_copies <> old.total_copies THEN 'total_copies' END, " +
+            "    CASE WHEN new.available_copies <> old.available_copies THEN 'available_copies' END, " +
+            "    CASE WHEN (new.available_copies = 0) <> (old.available_copies = 0) THEN 'out_of_stock_books' END, " +
+            "    CASE WHEN new.borrow_count IS NOT old.borrow_count THEN 'total_borrows' END, " +
+            "    CASE WHEN new.added_by_type <> old.added_by_type THEN 'books_added_by_admins' END, " +
+            "    CASE WHEN new.added_by_type <> old.added_by_type THEN 'books_added_by_members' END); " +
+            "END");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS loans_count_insert AFTER INSERT ON borrowed_books " +
+            "WHEN new.is_returned = 0 BEGIN " +
+            "UPDATE library_counters SET value = value + 1 WHERE name = 'currently_borrowed'; " +
+            "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS loans_count_delete AFTER DELETE ON borrowed_books " +
+            "WHEN old.is_returned = 0 BEGIN " +
+            "UPDATE library_counters SET value = value - 1 WHERE name = 'currently_borrowed'; " +
+            "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS loans_count_update AFTER UPDATE OF is_returned ON borrowed_books " +
+            "WHEN (new.is_returned = 0) <> (old.is_returned = 0) BEGIN " +
+            "UPDATE library_counters SET value = value + (new.is_returned = 0) - (old.is_returned = 0) " +
+            "WHERE name = 'currently_borrowed'; " +
+            "END");
+
+        // Count the rows that already exist. A copy of LibraryCounters.RECOMPUTE as it was
+        // when this migration shipped, so later changes to that query do not change this one
+        stmt.execute("INSERT OR REPLACE INTO library_counters (name, value) " +
+            "SELECT 'members', COUNT(*) FROM members " +
+            "UNION ALL SELECT 'books', COUNT(*) FROM books " +
+            "UNION ALL SELECT 'total_copies', COALESCE(SUM(total_copies), 0) FROM books " +
+            "UNION ALL SELECT 'available_copies', COALESCE(SUM(available_copies), 0) FROM books " +
+            "UNION ALL SELECT 'out_of_stock_books', COUNT(*) FROM books WHERE available_copies = 0 " +
+            "UNION ALL SELECT 'currently_borrowed', COUNT(*) FROM borrowed_books WHERE is_returned = 0 " +
+            "UNION ALL SELECT 'total_borrows', COALESCE(SUM(borrow_count), 0) FROM books " +
+            "UNION ALL SELECT 'books_added_by_admins', COUNT(*) FROM books WHERE added_by_type = 'admin' " +
+            "UNION ALL SELECT 'books_added_by_members', COUNT(*) FROM books WHERE added_by_type = 'member'");
+
+        stmt.execute("DROP VIEW IF EXISTS library_statistics");
+        stmt.execute("CREATE VIEW library_statistics AS " +
+            "SELECT " +
+            "(SELECT value FROM library_counters WHERE name = 'members') AS total_members, " +
+            "(SELECT value FROM library_counters WHERE name = 'books') AS total_books, " +
+            "(SELECT value FROM library_counters WHERE name = 'total_copies') AS total_book_copies, " +
+            "(SELECT value FROM library_counters WHERE name = 'available_copies') AS available_copies, " +
+            "(SELECT value FROM library_counters WHERE name = 'currently_borrowed') AS currently_borrowed, " +
+            "(SELECT value FROM library_counters WHERE name = 'total_borrows') AS total_borrows_ever, " +
+            "(SELECT value FROM library_counters WHERE name = 'books_added_by_admins') AS books_added_by_admins, " +
+            "(SELECT value FROM library_counters WHERE name = 'books_added_by_members') AS books_added_by_members");
+    }
+
+    /**
+     * Version 5: indexes for the sortable columns of the All Books table that had none.
+     * SQLite index entries end with the rowid, so each one also serves the id tie-break.
+     */
+    private static void bookSortIndexes(Statement stmt) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_total_copies ON books(total_copies)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_available_copies ON books(available_copies)");
+    }
+
+    /**
+     * Version 6: indexes for the sortable columns of the member directory that had none.
+     * Members are keyed by email, so it is part of each index to break ties.
+     */
+    private static void memberSortIndexes(Statement stmt) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_members_name_email ON members(name, email)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_members_age_email ON members(age, email)");
+    }
+
+    /**
+     * Version 7: indexes for each filter of the borrower report, all ending in (borrow_date, id)
+     * so a filtered report still pages newest first without sorting. The member and book
+     * indexes replace the single-column ones, which are now their prefixes. Active loans get
+     * a partial index, since they are a small part of the history; it replaces the is_returned
+     * index, which the planner would otherwise pick and then sort every active loan.
+     */
+    private static void borrowerReportIndexes(Statement stmt) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_member_date ON borrowed_books(member_email, borrow_date, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_book_date ON borrowed_books(book_id, borrow_date, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrowed_books_active_date ON borrowed_books(borrow_date, id) WHERE is_returned = 0");
+        stmt.execute("DROP INDEX IF EXISTS idx_borrowed_books_member");
+        stmt.execute("DROP INDEX IF EXISTS idx_borrowed_books_book");
+        stmt.execute("DROP INDEX IF EXISTS idx_borrowed_books_status");
+    }
+
+    /**
+     * Version 8: UNIQUE(member_email, book_id, is_returned) allowed only one returned loan
+     * per member and book, so a second return of the same book failed and left the copy
+     * checked out. SQLite cannot drop a table constraint, so borrowed_books is rebuilt
+     * without it, and a partial unique index keeps the rule that was meant: one open loan
+     * per member and book. Dropping the old table drops its indexes and triggers, so they
+     * are created again here, and so is the view that reads it.
+     */
+    private static void oneActiveLoanPerBook(Statement stmt) throws SQLException {
+        stmt.execute("DROP VIEW IF EXISTS member_borrowed_books");
+
+        stmt.execute("CREATE TABLE borrowed_books_new (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "member_email TEXT NOT NULL," +
+            "book_id INTEGER NOT NULL," +
+            "borrow_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+            "return_date TIMESTAMP NULL," +
+            "is_returned BOOLEAN DEFAULT FALSE," +
+            "FOREIGN KEY (member_email) REFERENCES members(email) ON DELETE CASCADE," +
+            "FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE" +
+            ")");
+        stmt.execute("INSERT INTO borrowed_books_new (id, member_email, book_id, borrow_date, return_date, is_returned) " +
+            "SELECT id, member_email, book_id, borrow_date, return_date, is_returned FROM borrowed_books");
+        // Keep AUTOINCREMENT from handing out ids of loans that were deleted before the rebuild
+        stmt.execute("DELETE FROM sqlite_sequence WHERE name = 'borrowed_books_new'");
+        stmt.execute("INSERT INTO sqlite_sequence (name, seq) SELECT 'borrowed_books_new', seq FROM sqlite_sequence WHERE name = 'borrowed_books'");
+        stmt.execute("DROP TABLE borrowed_books");
+        stmt.execute("ALTER TABLE borrowed_books_new RENAME TO borrowed_books");
+
+        stmt.execute("CREATE UNIQUE INDEX idx_borrowed_books_one_active ON borrowed_books(member_email, book_id) WHERE is_returned = 0");
+        stmt.execute("CREATE INDEX idx_borrowed_books_date_id ON borrowed_books(borrow_date, id)");
+        stmt.execute("CREATE INDEX idx_borrowed_books_member_date ON borrowed_books(member_email, borrow_date, id)");
+        stmt.execute("CREATE INDEX idx_borrowed_books_book_date ON borrowed_books(book_id, borrow_date, id)");
+        stmt.execute("CREATE INDEX idx_borrowed_books_active_date ON borrowed_books(borrow_date, id) WHERE is_returned = 0");
+
+        stmt.execute("CREATE TRIGGER loans_count_insert AFTER INSERT ON borrowed_books " +
+            "WHEN new.is_returned = 0 BEGIN " +
+            "UPDATE library_counters SET value = value + 1 WHERE name = 'currently_borrowed'; " +
+            "END");
+        stmt.execute("CREATE TRIGGER loans_count_delete AFTER DELETE ON borrowed_books " +
+            "WHEN old.is_returned = 0 BEGIN " +
+            "UPDATE library_counters SET value = value - 1 WHERE name = 'currently_borrowed'; " +
+            "END");
+        stmt.execute("CREATE TRIGGER loans_count_update AFTER UPDATE OF is_returned ON borrowed_books " +
+            "WHEN (new.is_returned = 0) <> (old.is_returned = 0) BEGIN " +
+            "UPDATE library_counters SET value = value + (new.is_returned = 0) - (old.is_returned = 0) " +
+            "WHERE name = 'currently_borrowed'; " +
+            "END");
+
+        stmt.execute("CREATE VIEW member_borrowed_books AS " +
+            "SELECT " +
+            "m.name AS member_name, " +
+            "m.email AS member_email, " +
+            "b.title AS book_title, " +
+            "b.author AS book_author, " +
+            "bb.borrow_date, " +
+            "bb.return_date, " +
+            "bb.is_returned " +
+            "FROM borrowed_books bb " +
+            "JOIN members m ON bb.member_email = m.email " +
+            "JOIN books b ON bb.book_id = b.id");
+    }
+}
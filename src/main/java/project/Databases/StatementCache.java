@@ -0,0 +1,241 @@
+package project.Databases;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ *
+ * Closing a cached statement only clears its parameters and open result set, so
+ * the next caller with the same SQL skips SQLite's parse and plan step. A pooled
+ * connection is used by one borrower at a time, so the cache is not thread-safe.
+ */
+class StatementCache {
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+
+    /**
+     * Physical statement plus whether a caller currently holds it
+     */
+    private static class CachedStatement {
+        final String sql;
+        final PreparedStatement physical;
+        boolean inUse;
+        boolean evicted;
+        StatementHandle handle;
+
+        CachedStatement(String sql, PreparedStatement physical) {
+            this.sql = sql;
+            this.physical = physical;
+        }
+    }
+
+    private final Connection connection;
+    private final int maxSize;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Return the cached statement for this SQL, preparing it on a miss.
+     * If the cached statement is already checked out (e.g. the same query nested
+     * inside a loop over its own results) a plain uncached statement is returned.
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+
+        if (cached != null && !cached.inUse) {
+            HITS.increment();
+            return checkOut(cached);
+        }
+
+        MISSES.increment();
+        PreparedStatement physical = connection.prepareStatement(sql);
+        if (cached != null) {
+            return physical;
+        }
+
+        cached = new CachedStatement(sql, physical);
+        statements.put(sql, cached);
+        evictOverflow();
+        return checkOut(cached);
+    }
+
+    private PreparedStatement checkOut(CachedStatement cached) {
+        cached.inUse = true;
+        cached.handle = new StatementHandle(this, cached);
+        return (PreparedStatement) Proxy.newProxyInstance(
+            StatementCache.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            cached.handle);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, CachedStatement>> it = statements.entrySet().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next().getValue();
+            it.remove();
+            EVICTIONS.increment();
+            eldest.evicted = true;
+            if (!eldest.inUse) {
+                closeQuietly(eldest.physical);
+            }
+        }
+    }
+
+    /**
+     * Reclaim statements a borrower forgot to close before returning the connection
+     */
+    void releaseAll() {
+        List<CachedStatement> leftOpen = new ArrayList<>();
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                leftOpen.add(cached);
+            }
+        }
+        for (CachedStatement cached : leftOpen) {
+            cached.handle.close();
+        }
+    }
+
+    /**
+     * Close every cached statement, e.g. before the physical connection is closed
+     */
+    void clear() {
+        for (CachedStatement cached : statements.values()) {
+            closeQuietly(cached.physical);
+        }
+        statements.clear();
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    // ==================== STATISTICS ====================
+
+    static long getHits() { return HITS.sum(); }
+    static long getMisses() { return MISSES.sum(); }
+    static long getEvictions() { return EVICTIONS.sum(); }
+
+    static String describeStats() {
+        long hits = HITS.sum();
+        long misses = MISSES.sum();
+        long total = hits + misses;
+        return String.format("Statement cache: %d hits, %d misses, %d evictions (%.1f%% hit rate)",
+            hits, misses, EVICTIONS.sum(), total > 0 ? hits * 100.0 / total : 0.0);
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drop a statement that cannot be reused, so the next caller prepares a fresh one
+     */
+    private void discard(CachedStatement cached) {
+        if (statements.get(cached.sql) == cached) {
+            statements.remove(cached.sql);
+        }
+        cached.evicted = true;
+    }
+
+    /**
+     * Statement handed to a caller. close() returns it to the cache instead of closing it.
+     */
+    private static class StatementHandle implements InvocationHandler {
+        private final StatementCache owner;
+        private final CachedStatement cached;
+        private ResultSet openResultSet;
+        private boolean closed = false;
+        // sqlite-jdbc cannot step an interrupted statement again
+        private boolean cancelled = false;
+
+        StatementHandle(StatementCache owner, CachedStatement cached) {
+            this.owner = owner;
+            this.cached = cached;
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (openResultSet != null) {
+                    openResultSet.close();
+                }
+                cached.physical.clearParameters();
+                cached.physical.clearBatch();
+            } catch (SQLException e) {
+                // A statement we cannot reset is not worth keeping
+                cancelled = true;
+            }
+            if (cancelled) {
+                owner.discard(cached);
+            }
+            openResultSet = null;
+            cached.inUse = false;
+            if (cached.evicted) {
+                closeQuietly(cached.physical);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.physical + "]";
+                case "cancel":
+                    cancelled = true;
+                    break;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+
+            try {
+                Object result = method.invoke(cached.physical, args);
+                if (result instanceof ResultSet) {
+                    openResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
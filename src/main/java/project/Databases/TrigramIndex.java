@@ -0,0 +1,489 @@
+package project.Databases;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index for typo-tolerant search.
+ *
+ * Text is lowercased, stripped of accents and split into words; each word padded as
+ * "  word " is cut into overlapping three-letter trigrams. A misspelt query still
+ * shares most of its trigrams with the right text ("tolkein" and "tolkien" share 4 of 8).
+ *
+ * Storage is primitive throughout: an open-addressing table maps each packed trigram
+ * to a sorted int[] posting list of document ids, so a million titles cost a few
+ * ints per trigram and no boxed objects. Ids must be added in increasing order,
+ * which database AUTOINCREMENT keys already are.
+ *
+ * Searches take a read lock and can run in parallel; add and remove take the write lock.
+ */
+public class TrigramIndex {
+
+    private static final int INITIAL_TABLE_SIZE = 1 << 12;
+    private static final int INITIAL_POSTING_SIZE = 4;
+    private static final int MAX_QUERY_TRIGRAMS = Byte.MAX_VALUE;
+
+    // Packed trigram -> slot in postings; key 0 marks an empty bucket (no trigram packs to 0)
+    private long[] keys = new long[INITIAL_TABLE_SIZE];
+    private int[] slots = new int[INITIAL_TABLE_SIZE];
+    private int[][] postings = new int[INITIAL_TABLE_SIZE / 2][];
+    private int[] postingSizes = new int[INITIAL_TABLE_SIZE / 2];
+    private int trigramCount = 0;
+
+    // Distinct trigrams per document id; 0 means the id is not in the index
+    private int[] documentTrigrams = new int[1024];
+    private int documentCount = 0;
+    private int lastId = 0;
+    private int removedSinceCompaction = 0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ConcurrentLinkedQueue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Per-search working memory, pooled so a search allocates nothing proportional to the catalog
+     */
+    private static class Scratch {
+        byte[] counts = new byte[0];
+        int[] touched = new int[256];
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Index a document. Ids must be larger than any id added before.
+     * @return false if the id was not larger than the last one added
+     */
+    public boolean add(int id, String text) {
+        long[] trigrams = trigrams(text);
+
+        lock.writeLock().lock();
+        try {
+            if (id <= lastId) {
+                return false;
+            }
+            lastId = id;
+            if (trigrams.length == 0) {
+                return true;
+            }
+
+            for (long trigram : trigrams) {
+                int slot = slotFor(trigram, true);
+                int size = postingSizes[slot];
+                if (size == postings[slot].length) {
+                    postings[slot] = Arrays.copyOf(postings[slot], size + (size >> 1) + 1);
+                }
+                postings[slot][size] = id;
+                postingSizes[slot] = size + 1;
+            }
+
+            if (id >= documentTrigrams.length) {
+                documentTrigrams = Arrays.copyOf(documentTrigrams, Math.max(id + 1, documentTrigrams.length * 2));
+            }
+            documentTrigrams[id] = trigrams.length;
+            documentCount++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a document. Its ids are purged from the posting lists in bulk
+     * once enough documents have been removed.
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (id <= 0 || id >= documentTrigrams.length || documentTrigrams[id] == 0) {
+                return;
+            }
+            documentTrigrams[id] = 0;
+            documentCount--;
+            if (++removedSinceCompaction > Math.max(documentCount / 4, 1024)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop removed documents from every posting list
+     */
+    private void compact() {
+        for (int slot = 0; slot < trigramCount; slot++) {
+            int[] list = postings[slot];
+            int kept = 0;
+            for (int i = 0; i < postingSizes[slot]; i++) {
+                if (documentTrigrams[list[i]] != 0) {
+                    list[kept++] = list[i];
+                }
+            }
+            postingSizes[slot] = kept;
+        }
+        removedSinceCompaction = 0;
+    }
+
+    // ==================== SEARCH ====================
+
+    /**
+     * Find the documents most similar to the query.
+     * Documents are ranked by the share of the query's trigrams they contain, then by
+     * how few other trigrams they have, so a close match in a short title beats a
+     * scattered match in a long one.
+     * @param minSimilarity Share of the query's trigrams (0 to 1) a document must contain
+     * @return ids of at most limit documents, best first
+     */
+    public int[] search(String query, int limit, double minSimilarity) {
+        long[] trigrams = trigrams(query);
+        if (trigrams.length == 0 || limit <= 0) {
+            return new int[0];
+        }
+
+        Scratch scratch = scratchPool.poll();
+        if (scratch == null) {
+            scratch = new Scratch();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (scratch.counts.length < documentTrigrams.length) {
+                scratch.counts = new byte[documentTrigrams.length];
+            }
+
+            // Rarest trigrams first; counts are bytes, so very long queries keep their rarest trigrams
+            int[] order = new int[trigrams.length];
+            int[] sizes = new int[trigrams.length];
+            for (int i = 0; i < trigrams.length; i++) {
+                int slot = slotFor(trigrams[i], false);
+                order[i] = slot;
+                sizes[i] = slot < 0 ? 0 : postingSizes[slot];
+            }
+            sortBySize(order, sizes);
+            int queryTrigrams = Math.min(trigrams.length, MAX_QUERY_TRIGRAMS);
+            int minShared = Math.max(1, (int) Math.ceil(minSimilarity * queryTrigrams - 1e-9));
+            if (minShared > queryTrigrams) {
+                return new int[0];
+            }
+
+            // A document with minShared of the query's trigrams must have at least one of the
+            // (queryTrigrams - minShared + 1) rarest, so only those lists can produce candidates
+            int candidateLists = queryTrigrams - minShared + 1;
+            byte[] counts = scratch.counts;
+            int touchedCount = 0;
+            for (int i = 0; i < candidateLists; i++) {
+                int[] list = sizes[i] == 0 ? null : postings[order[i]];
+                for (int j = 0; j < sizes[i]; j++) {
+                    int id = list[j];
+                    if (counts[id]++ == 0) {
+                        if (touchedCount == scratch.touched.length) {
+                            scratch.touched = Arrays.copyOf(scratch.touched, touchedCount * 2);
+                        }
+                        scratch.touched[touchedCount++] = id;
+                    }
+                }
+            }
+
+            // The common trigrams only add to existing candidates. Before each list, drop the
+            // candidates that can no longer reach minShared or the current top-limit cut-off
+            int[] touched = scratch.touched;
+            for (int i = candidateLists; i < queryTrigrams && touchedCount > 0; i++) {
+                int remaining = queryTrigrams - i;
+                int required = Math.max(minShared, cutOff(scratch, touchedCount, queryTrigrams, limit));
+                int kept = 0;
+                for (int t = 0; t < touchedCount; t++) {
+                    int id = touched[t];
+                    if (counts[id] + remaining >= required) {
+                        touched[kept++] = id;
+                    } else {
+                        counts[id] = 0;
+                    }
+                }
+                touchedCount = kept;
+
+                int[] list = postings[order[i]];
+                int size = sizes[i];
+                if ((long) touchedCount * (32 - Integer.numberOfLeadingZeros(size)) < size) {
+                    for (int t = 0; t < touchedCount; t++) {
+                        if (Arrays.binarySearch(list, 0, size, touched[t]) >= 0) {
+                            counts[touched[t]]++;
+                        }
+                    }
+                } else {
+                    for (int j = 0; j < size; j++) {
+                        if (counts[list[j]] != 0) {
+                            counts[list[j]]++;
+                        }
+                    }
+                }
+            }
+
+            return topMatches(scratch, touchedCount, minShared, limit);
+        } finally {
+            lock.readLock().unlock();
+            scratchPool.offer(scratch);
+        }
+    }
+
+    /**
+     * Shared-trigram count of the limit-th best candidate so far; any candidate that
+     * cannot reach it will not make the results
+     */
+    private int cutOff(Scratch scratch, int touchedCount, int queryTrigrams, int limit) {
+        if (touchedCount <= limit) {
+            return 0;
+        }
+        int[] histogram = new int[queryTrigrams + 1];
+        for (int t = 0; t < touchedCount; t++) {
+            int id = scratch.touched[t];
+            // Removed documents linger in the posting lists until the next compaction
+            if (documentTrigrams[id] != 0) {
+                histogram[scratch.counts[id]]++;
+            }
+        }
+        int atLeast = 0;
+        for (int count = queryTrigrams; count > 0; count--) {
+            atLeast += histogram[count];
+            if (atLeast >= limit) {
+                return count;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Pick the best candidates with a bounded min-heap and reset the counts for the next search.
+     * Each candidate is packed into one long so larger means better:
+     * shared trigrams, then fewer trigrams in the document, then the lower id.
+     */
+    private int[] topMatches(Scratch scratch, int touchedCount, int minShared, int limit) {
+        long[] heap = new long[Math.min(limit, touchedCount)];
+        int heapSize = 0;
+
+        for (int t = 0; t < touchedCount; t++) {
+            int id = scratch.touched[t];
+            int shared = scratch.counts[id];
+            scratch.counts[id] = 0;
+            int documentSize = documentTrigrams[id];
+            if (shared < minShared || documentSize == 0) {
+                continue;
+            }
+
+            long rank = ((long) Math.min(shared, 0xFFFF) << 47)
+                      | ((long) (0xFFFF - Math.min(documentSize, 0xFFFF)) << 31)
+                      | (Integer.MAX_VALUE - id);
+            if (heapSize < heap.length) {
+                heap[heapSize] = rank;
+                siftUp(heap, heapSize++);
+            } else if (rank > heap[0]) {
+                heap[0] = rank;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        Arrays.sort(heap, 0, heapSize);
+        int[] ids = new int[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            ids[i] = Integer.MAX_VALUE - (int) (heap[heapSize - 1 - i] & Integer.MAX_VALUE);
+        }
+        return ids;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long value = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (value <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    /**
+     * Insertion sort of the query's posting lists by length; queries have only a handful
+     */
+    private static void sortBySize(int[] order, int[] sizes) {
+        for (int i = 1; i < sizes.length; i++) {
+            int slot = order[i];
+            int size = sizes[i];
+            int j = i - 1;
+            while (j >= 0 && sizes[j] > size) {
+                order[j + 1] = order[j];
+                sizes[j + 1] = sizes[j];
+                j--;
+            }
+            order[j + 1] = slot;
+            sizes[j + 1] = size;
+        }
+    }
+
+    // ==================== TRIGRAMS ====================
+
+    /**
+     * Distinct trigrams of the text, each packed as three 16-bit chars in a long
+     */
+    static long[] trigrams(String text) {
+        if (text == null || text.isEmpty()) {
+            return new long[0];
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        long[] trigrams = new long[decomposed.length() * 2 + 2];
+        int count = 0;
+
+        // Each word is padded as "  word " so word starts weigh more than word ends
+        char first = ' ';
+        char second = ' ';
+        boolean inWord = false;
+        for (int i = 0; i <= decomposed.length(); i++) {
+            char c = i < decomposed.length() ? decomposed.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                c = Character.toLowerCase(c);
+                trigrams[count++] = pack(first, second, c);
+                first = second;
+                second = c;
+                inWord = true;
+            } else if (inWord) {
+                trigrams[count++] = pack(first, second, ' ');
+                first = ' ';
+                second = ' ';
+                inWord = false;
+            }
+        }
+
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[i] != trigrams[distinct - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static long pack(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    // ==================== HASH TABLE ====================
+
+    /**
+     * Find the posting slot of a trigram, optionally creating it
+     * @return the slot, or -1 if the trigram is absent and create is false
+     */
+    private int slotFor(long trigram, boolean create) {
+        int mask = keys.length - 1;
+        int bucket = hash(trigram) & mask;
+        while (keys[bucket] != 0) {
+            if (keys[bucket] == trigram) {
+                return slots[bucket];
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        if (!create) {
+            return -1;
+        }
+
+        if (trigramCount == postings.length) {
+            postings = Arrays.copyOf(postings, trigramCount * 2);
+            postingSizes = Arrays.copyOf(postingSizes, trigramCount * 2);
+        }
+        int slot = trigramCount++;
+        postings[slot] = new int[INITIAL_POSTING_SIZE];
+        keys[bucket] = trigram;
+        slots[bucket] = slot;
+
+        // Keep the table at most half full
+        if (trigramCount * 2 > keys.length) {
+            resizeTable();
+        }
+        return slot;
+    }
+
+    private void resizeTable() {
+        long[] oldKeys = keys;
+        int[] oldSlots = slots;
+        keys = new long[oldKeys.length * 2];
+        slots = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int bucket = hash(oldKeys[i]) & mask;
+                while (keys[bucket] != 0) {
+                    bucket = (bucket + 1) & mask;
+                }
+                keys[bucket] = oldKeys[i];
+                slots[bucket] = oldSlots[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // ==================== STATS ====================
+
+    /** Documents currently in the index */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Largest id added so far (0 when empty) */
+    public int getLastId() {
+        lock.readLock().lock();
+        try {
+            return lastId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.readLock().lock();
+        try {
+            long postingCount = 0;
+            for (int slot = 0; slot < trigramCount; slot++) {
+                postingCount += postingSizes[slot];
+            }
+            return String.format("TrigramIndex[documents=%d, trigrams=%d, postings=%d]",
+                documentCount, trigramCount, postingCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
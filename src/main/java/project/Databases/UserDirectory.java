@@ -0,0 +1,212 @@
+package project.Databases;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves an email to its account type and profile, admin or member, in one query.
+ *
+ * Both tables are searched by primary key in a single statement, so login, the welcome
+ * label and the borrow dialog no longer each query the admins and members tables.
+ * Lookups are cached for {@link DatabaseConfig#USER_CACHE_TTL_SECONDS}; unknown emails
+ * are cached too. addAdmin, addMember(s) and deleteMemberByEmail invalidate the email
+ * they change, and a lookup that raced an invalidation is not stored.
+ */
+public class UserDirectory {
+
+    /**
+     * Account found for an email
+     */
+    public static class User {
+        private final String type;
+        private final Admin admin;
+        private final LibraryMember member;
+
+        private User(String type, Admin admin, LibraryMember member) {
+            this.type = type;
+            this.admin = admin;
+            this.member = member;
+        }
+
+        /** "admin" or "member" */
+        public String getType() { return type; }
+        public boolean isAdmin() { return admin != null; }
+        public boolean isMember() { return member != null; }
+
+        /** Copy of the admin profile, or null if this is a member */
+        public Admin getAdmin() { return admin != null ? copyOf(admin) : null; }
+
+        /** Copy of the member profile, or null if this is an admin */
+        public LibraryMember getMember() { return member != null ? copyOf(member) : null; }
+
+        public String getName() { return admin != null ? admin.getName() : member.getName(); }
+
+        private boolean passwordMatches(String password) {
+            String stored = admin != null ? admin.getPassword() : member.getPassword();
+            return stored != null && stored.equals(password);
+        }
+    }
+
+    /**
+     * Cached lookup; user is null when no account has the email
+     */
+    private static class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Admins sort before members, so an email in both tables resolves to the admin like before
+    private static final String LOOKUP =
+        "SELECT 'admin' AS user_type, email, name, password, age, phone_number, created_at FROM admins WHERE email = ? " +
+        "UNION ALL " +
+        "SELECT 'member' AS user_type, email, name, password, age, phone_number, created_at FROM members WHERE email = ? " +
+        "ORDER BY user_type LIMIT 1";
+
+    private static final Map<String, Entry> CACHE = new ConcurrentHashMap<>();
+    private static final AtomicLong GENERATION = new AtomicLong();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private UserDirectory() {}
+
+    /**
+     * Find the account with this email
+     * @return the account, or null if there is none or the lookup failed
+     */
+    public static User lookup(String email) {
+        if (email == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Entry cached = CACHE.get(email);
+        if (cached != null && cached.expiresAt > now) {
+            HITS.increment();
+            return cached.user;
+        }
+
+        MISSES.increment();
+        long generation = GENERATION.get();
+        Entry loaded = Connect.executeQuery(LOOKUP, rs -> {
+            try {
+                User user = null;
+                if (rs.next()) {
+                    user = "admin".equals(rs.getString("user_type"))
+                        ? new User("admin", Admin.fromResultSet(rs), null)
+                        : new User("member", null, LibraryMember.fromResultSet(rs));
+                }
+                return new Entry(user, now + DatabaseConfig.USER_CACHE_TTL_SECONDS * 1000L);
+            } catch (SQLException e) {
+                System.err.println("Error looking up user: " + e.getMessage());
+                return null;
+            }
+        }, email, email);
+
+        if (loaded == null) {
+            return null;
+        }
+        if (DatabaseConfig.USER_CACHE_TTL_SECONDS > 0) {
+            store(email, loaded, generation, now);
+        }
+        return loaded.user;
+    }
+
+    private static synchronized void store(String email, Entry entry, long generation, long now) {
+        if (generation != GENERATION.get()) {
+            return;
+        }
+        if (CACHE.size() >= DatabaseConfig.USER_CACHE_SIZE) {
+            // Drop expired lookups first, and everything if the cache is still full
+            Iterator<Entry> it = CACHE.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().expiresAt <= now) {
+                    it.remove();
+                }
+            }
+            if (CACHE.size() >= DatabaseConfig.USER_CACHE_SIZE) {
+                CACHE.clear();
+            }
+        }
+        CACHE.put(email, entry);
+    }
+
+    /**
+     * Check an email and password against both account types with one lookup
+     * @return the account, or null if the email is unknown or the password is wrong
+     */
+    public static User authenticate(String email, String password) {
+        User user = lookup(email);
+        return user != null && user.passwordMatches(password) ? user : null;
+    }
+
+    /**
+     * "admin", "member", or null if no account has the email
+     */
+    public static String getUserType(String email) {
+        User user = lookup(email);
+        return user != null ? user.getType() : null;
+    }
+
+    /**
+     * Member profile for the email, or null if it is not a member
+     */
+    public static LibraryMember getMember(String email) {
+        User user = lookup(email);
+        return user != null ? user.getMember() : null;
+    }
+
+    /**
+     * Admin profile for the email, or null if it is not an admin
+     */
+    public static Admin getAdmin(String email) {
+        User user = lookup(email);
+        return user != null ? user.getAdmin() : null;
+    }
+
+    /**
+     * Forget the cached lookup for an email after its account changed
+     */
+    public static synchronized void invalidate(String email) {
+        GENERATION.incrementAndGet();
+        if (email != null) {
+            CACHE.remove(email);
+        }
+    }
+
+    /**
+     * Forget every cached lookup, e.g. after the database was changed by another process
+     */
+    public static synchronized void invalidateAll() {
+        GENERATION.incrementAndGet();
+        CACHE.clear();
+    }
+
+    /**
+     * Hit and miss counts of the lookup cache
+     */
+    public static String getCacheStats() {
+        long hits = HITS.sum();
+        long total = hits + MISSES.sum();
+        return String.format("User directory: %d cached, %d hits, %d misses (%.1f%% hit rate)",
+            CACHE.size(), hits, total - hits, total > 0 ? hits * 100.0 / total : 0.0);
+    }
+
+    private static Admin copyOf(Admin admin) {
+        Admin copy = new Admin(admin.getEmail(), admin.getName(), admin.getPassword(), admin.getAge(), admin.getPhoneNumber());
+        copy.setCreatedAt(admin.getCreatedAt());
+        return copy;
+    }
+
+    private static LibraryMember copyOf(LibraryMember member) {
+        return new LibraryMember(member.getEmail(), member.getName(), member.getPassword(), member.getAge(),
+            member.getPhoneNumber(), member.getCreatedAt());
+    }
+}
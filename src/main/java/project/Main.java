@@ -1,14 +1,18 @@
 package project;
 
-import java.sql.Connection;
-
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import project.Databases.AsyncDatabase;
+import project.Databases.Book;
+import project.Databases.ChangeMonitor;
 import project.Databases.Connect;
+import project.Databases.DatabaseConfig;
+import project.Databases.LibraryCounters;
+import project.Databases.UserDirectory;
 import project.Utilities.AlertMsg;
 
 public class Main extends Application {
@@ -17,8 +21,14 @@ public class Main extends Application {
     public void start(Stage primaryStage) {
  
         try {
-            // Initialize database
-           Connection connection = Connect.getDBConnection(); 
+            // Initialize database (opens the connection pool and prepares the schema)
+            Connect.initialize();
+
+            // Build the typo-tolerant search index in the background
+            AsyncDatabase.run(Book::loadFuzzyIndex);
+
+            // Watch for changes made here and at other terminals
+            ChangeMonitor.start();
             
             // Load FXML and CSS
             Parent root = FXMLLoader.load(getClass().getResource("/project/FXML/LogIn.fxml"));
@@ -43,6 +53,15 @@ public class Main extends Application {
     @Override
     public void stop() {
         // Close database connection when application stops
+        ChangeMonitor.stop();
+        AsyncDatabase.shutdown();
+        if (DatabaseConfig.QUERY_STATS_ON_EXIT) {
+            System.out.println(Connect.getQueryStats());
+            System.out.println(Connect.getStatementCacheStats());
+            System.out.println(Book.getCacheStats());
+            System.out.println(UserDirectory.getCacheStats());
+            System.out.println(LibraryCounters.getStats());
+        }
         Connect dbConnection = Connect.getInstance();
         dbConnection.closeConnection();
     }
@@ -0,0 +1,145 @@
+package project.Server;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import project.Databases.UserDirectory;
+
+/**
+ * One API call: its path parameters, query string, JSON body and the account that made it.
+ * Accessors throw IllegalArgumentException for missing or malformed values, which the
+ * server answers with 400 Bad Request and the exception's message.
+ */
+public class ApiRequest {
+    private final Map<String, String> pathParams;
+    private final Map<String, String> queryParams;
+    private final Map<String, Object> body;
+    private final String email;
+    private final UserDirectory.User user;
+
+    ApiRequest(Map<String, String> pathParams, Map<String, String> queryParams, Map<String, Object> body,
+               String email, UserDirectory.User user) {
+        this.pathParams = pathParams;
+        this.queryParams = queryParams;
+        this.body = body != null ? body : Collections.emptyMap();
+        this.email = email;
+        this.user = user;
+    }
+
+    /** Email of the signed-in account, or null for an anonymous call */
+    public String getEmail() { return email; }
+
+    /** The signed-in account, or null for an anonymous call */
+    public UserDirectory.User getUser() { return user; }
+
+    public boolean isAdmin() { return user != null && user.isAdmin(); }
+
+    /**
+     * A {name} segment of the route, e.g. the id in /books/{id}
+     */
+    public String path(String name) {
+        return pathParams.get(name);
+    }
+
+    public int pathInt(String name) {
+        String value = path(name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + value + "' is not a valid " + name);
+        }
+    }
+
+    /**
+     * A query string parameter, or null if it is missing or blank
+     */
+    public String query(String name) {
+        String value = queryParams.get(name);
+        return value != null && !value.trim().isEmpty() ? value.trim() : null;
+    }
+
+    /**
+     * A whole-number query parameter between min and max, or the default if it is missing
+     */
+    public int queryInt(String name, int defaultValue, int min, int max) {
+        String value = query(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(name + " must be a number from " + min + " to " + max);
+    }
+
+    /**
+     * True if the query parameter is "true" or "1"
+     */
+    public boolean queryFlag(String name) {
+        String value = query(name);
+        return "true".equalsIgnoreCase(value) || "1".equals(value);
+    }
+
+    /**
+     * A date query parameter in ISO format (2024-09-30), or null if it is missing
+     */
+    public LocalDate queryDate(String name) {
+        String value = query(name);
+        try {
+            return value != null ? LocalDate.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be a date like 2024-09-30");
+        }
+    }
+
+    /**
+     * A query parameter naming one of an enum's constants, any case, or the default if it is missing
+     */
+    public <E extends Enum<E>> E queryEnum(String name, Class<E> type, E defaultValue) {
+        String value = query(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException(name + " must be one of " + Arrays.stream(type.getEnumConstants())
+            .map(constant -> constant.name().toLowerCase()).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * A string field of the JSON body; numbers are accepted and returned as text
+     */
+    public String string(String field) {
+        Object value = body.get(field);
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Long) {
+            return value.toString();
+        }
+        throw new IllegalArgumentException(value == null ? "Missing field: " + field : field + " must be a string");
+    }
+
+    /**
+     * A whole-number field of the JSON body
+     */
+    public int integer(String field) {
+        Object value = body.get(field);
+        if (value instanceof Long && (Long) value >= Integer.MIN_VALUE && (Long) value <= Integer.MAX_VALUE) {
+            return ((Long) value).intValue();
+        }
+        throw new IllegalArgumentException(value == null ? "Missing field: " + field : field + " must be a whole number");
+    }
+}
@@ -0,0 +1,33 @@
+package project.Server;
+
+import project.Databases.Json;
+
+/**
+ * Status code and JSON body returned by an API endpoint
+ */
+public class ApiResponse {
+    final int status;
+    final String json;
+
+    private ApiResponse(int status, String json) {
+        this.status = status;
+        this.json = json;
+    }
+
+    /** 200 with a JSON body */
+    public static ApiResponse ok(String json) {
+        return new ApiResponse(200, json);
+    }
+
+    /** 201 with the created resource as its body */
+    public static ApiResponse created(String json) {
+        return new ApiResponse(201, json);
+    }
+
+    /**
+     * An error status with a body of {"error": message}
+     */
+    public static ApiResponse error(int status, String message) {
+        return new ApiResponse(status, "{\"error\":" + Json.quote(message) + "}");
+    }
+}
@@ -0,0 +1,370 @@
+package project.Server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import project.Databases.AsyncDatabase;
+import project.Databases.Book;
+import project.Databases.ChangeMonitor;
+import project.Databases.Connect;
+import project.Databases.DatabaseConfig;
+import project.Databases.Json;
+import project.Databases.LibraryCounters;
+import project.Databases.UserDirectory;
+
+/**
+ * Headless JSON API over the library database, for kiosks, a web catalogue and scripts.
+ *
+ * Built on the JDK's own HTTP server. Each request runs on its own virtual thread when the
+ * JVM has them (Java 21+), otherwise on a fixed pool of library.server.threads threads, so
+ * a request waiting on the database never holds up the others. Database work goes through
+ * the same reader pool, single writer, caches and transactions as the desktop app, and
+ * ChangeMonitor keeps the caches in step with terminals writing to the same file.
+ *
+ * Callers sign in with HTTP Basic authentication using an account's email and password;
+ * each route declares who may call it. It has its own entry point because the java launcher
+ * starts the JavaFX toolkit for project.Main, which needs a display:
+ *   mvn compile exec:java -Dexec.mainClass="project.Server.ApiServer" -Dlibrary.server.port=8080
+ */
+public class ApiServer {
+
+    /** Prefix of every route */
+    public static final String BASE_PATH = "/api";
+
+    /**
+     * Who may call a route
+     */
+    public enum Access {
+        PUBLIC,
+        SIGNED_IN,
+        MEMBER,
+        ADMIN
+    }
+
+    @FunctionalInterface
+    public interface Handler {
+        ApiResponse handle(ApiRequest request);
+    }
+
+    private static class Route {
+        final String method;
+        final String[] segments;
+        final Access access;
+        final Handler handler;
+
+        Route(String method, String path, Access access, Handler handler) {
+            this.method = method;
+            this.segments = splitPath(path);
+            this.access = access;
+            this.handler = handler;
+        }
+
+        /**
+         * The {name} segments of the path if it matches this route, otherwise null
+         */
+        Map<String, String> match(String[] path) {
+            if (path.length != segments.length) {
+                return null;
+            }
+            Map<String, String> params = new HashMap<>();
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].startsWith("{")) {
+                    params.put(segments[i].substring(1, segments[i].length() - 1), path[i]);
+                } else if (!segments[i].equals(path[i])) {
+                    return null;
+                }
+            }
+            return params;
+        }
+    }
+
+    private final List<Route> routes = new ArrayList<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Add a route
+     * @param path Path below {@link #BASE_PATH}, with {name} for variable segments, e.g. "/books/{id}"
+     */
+    public ApiServer route(String method, String path, Access access, Handler handler) {
+        routes.add(new Route(method, path, access, handler));
+        return this;
+    }
+
+    /**
+     * Start listening; requests are served until {@link #stop} is called
+     */
+    public synchronized void start(int port) throws IOException {
+        // Answers are small; without TCP_NODELAY a keep-alive client can stall on delayed ACKs
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        executor = createExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), DatabaseConfig.SERVER_BACKLOG);
+        server.createContext(BASE_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        System.out.println("API server listening on http://localhost:" + server.getAddress().getPort() + BASE_PATH);
+    }
+
+    /** Port the server is listening on, e.g. when started on port 0 */
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stop accepting requests and give the ones in progress a moment to finish
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(1);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        System.out.println("API server stopped");
+    }
+
+    private static ExecutorService createExecutor() {
+        ExecutorService virtualThreads = AsyncDatabase.newVirtualThreadExecutor();
+        if (virtualThreads != null) {
+            System.out.println("API requests will run on virtual threads");
+            return virtualThreads;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return Executors.newFixedThreadPool(DatabaseConfig.SERVER_THREADS, r -> {
+            Thread thread = new Thread(r, "api-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            ApiResponse response;
+            try {
+                response = dispatch(exchange);
+            } catch (IllegalArgumentException e) {
+                response = ApiResponse.error(400, e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("API error on " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e);
+                response = ApiResponse.error(500, "Internal server error");
+            }
+            send(exchange, response);
+        } catch (IOException e) {
+            // The client went away before the answer was written
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Find the route, check who is calling and run the handler
+     */
+    private ApiResponse dispatch(HttpExchange exchange) throws IOException {
+        String[] path = splitPath(exchange.getRequestURI().getPath().substring(BASE_PATH.length()));
+        String method = exchange.getRequestMethod();
+
+        Route route = null;
+        Map<String, String> pathParams = null;
+        List<String> allowed = new ArrayList<>();
+        for (Route candidate : routes) {
+            Map<String, String> params = candidate.match(path);
+            if (params == null) {
+                continue;
+            }
+            allowed.add(candidate.method);
+            if (candidate.method.equals(method)) {
+                route = candidate;
+                pathParams = params;
+                break;
+            }
+        }
+        if (route == null) {
+            if (allowed.isEmpty()) {
+                return ApiResponse.error(404, "No such endpoint: " + method + " " + exchange.getRequestURI().getPath());
+            }
+            exchange.getResponseHeaders().set("Allow", String.join(", ", allowed));
+            return ApiResponse.error(405, method + " is not supported here");
+        }
+
+        // A wrong password is refused even on public routes, so scripts notice it
+        String email = null;
+        UserDirectory.User user = null;
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null) {
+            String[] credentials = decodeBasicAuth(authorization);
+            user = credentials != null ? UserDirectory.authenticate(credentials[0], credentials[1]) : null;
+            if (user == null) {
+                return unauthorized(exchange, "Invalid email or password");
+            }
+            email = credentials[0];
+        }
+        switch (route.access) {
+            case SIGNED_IN:
+                if (user == null) {
+                    return unauthorized(exchange, "Sign in to use this endpoint");
+                }
+                break;
+            case MEMBER:
+                if (user == null) {
+                    return unauthorized(exchange, "Sign in as a member to use this endpoint");
+                }
+                if (!user.isMember()) {
+                    return ApiResponse.error(403, "Only members can use this endpoint");
+                }
+                break;
+            case ADMIN:
+                if (user == null) {
+                    return unauthorized(exchange, "Sign in as an admin to use this endpoint");
+                }
+                if (!user.isAdmin()) {
+                    return ApiResponse.error(403, "Only admins can use this endpoint");
+                }
+                break;
+            default:
+                break;
+        }
+
+        byte[] body = readBody(exchange.getRequestBody());
+        if (body == null) {
+            return ApiResponse.error(413, "Request body is larger than " + DatabaseConfig.SERVER_MAX_BODY_BYTES + " bytes");
+        }
+        Map<String, Object> json = body.length > 0 ? Json.parseObject(new String(body, StandardCharsets.UTF_8)) : null;
+
+        return route.handler.handle(new ApiRequest(pathParams, parseQuery(exchange.getRequestURI().getRawQuery()),
+            json, email, user));
+    }
+
+    private static ApiResponse unauthorized(HttpExchange exchange, String message) {
+        exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"Library\", charset=\"UTF-8\"");
+        return ApiResponse.error(401, message);
+    }
+
+    private static void send(HttpExchange exchange, ApiResponse response) throws IOException {
+        byte[] bytes = response.json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * The request body, or null if it is larger than library.server.maxBodyBytes
+     */
+    private static byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+            if (body.size() > DatabaseConfig.SERVER_MAX_BODY_BYTES) {
+                return null;
+            }
+        }
+        return body.toByteArray();
+    }
+
+    /**
+     * Email and password of a "Basic" Authorization header, or null if it is not one
+     */
+    private static String[] decodeBasicAuth(String header) {
+        if (!header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            return colon > 0 ? new String[] { credentials.substring(0, colon), credentials.substring(colon + 1) } : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals >= 0 ? pair.substring(0, equals) : pair;
+            String value = equals >= 0 ? pair.substring(equals + 1) : "";
+            params.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String[] splitPath(String path) {
+        return Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toArray(String[]::new);
+    }
+
+    /**
+     * Run the library as a headless API server instead of opening the login window.
+     * The server runs until the process is stopped; the database is closed on the way out.
+     */
+    public static void main(String[] args) {
+        try {
+            Connect.initialize();
+        } catch (SQLException e) {
+            System.err.println("Could not open the database: " + e.getMessage());
+            System.exit(1);
+        }
+        AsyncDatabase.run(Book::loadFuzzyIndex);
+        ChangeMonitor.start();
+
+        ApiServer server = LibraryApi.register(new ApiServer());
+        try {
+            server.start(DatabaseConfig.SERVER_PORT);
+        } catch (IOException e) {
+            System.err.println("Could not start the API server on port " + DatabaseConfig.SERVER_PORT + ": " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println(server.routes.stream().map(route -> "  " + route.method + " " + BASE_PATH +
+            "/" + String.join("/", route.segments)).collect(Collectors.joining("\n")));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            ChangeMonitor.stop();
+            AsyncDatabase.shutdown();
+            if (DatabaseConfig.QUERY_STATS_ON_EXIT) {
+                System.out.println(Connect.getQueryStats());
+                System.out.println(Connect.getStatementCacheStats());
+                System.out.println(Book.getCacheStats());
+                System.out.println(UserDirectory.getCacheStats());
+                System.out.println(LibraryCounters.getStats());
+            }
+            Connect.getInstance().closeConnection();
+        }, "api-shutdown"));
+    }
+}
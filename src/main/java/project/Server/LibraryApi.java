@@ -0,0 +1,344 @@
+package project.Server;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Function;
+
+import project.Databases.Admin;
+import project.Databases.BatchResult;
+import project.Databases.Book;
+import project.Databases.DatabaseConfig;
+import project.Databases.Json;
+import project.Databases.LibraryCounters;
+import project.Databases.LibraryMember;
+import project.Databases.Loan;
+import project.Databases.Page;
+import project.Server.ApiServer.Access;
+
+/**
+ * The library's JSON endpoints: the catalogue, member accounts, admins and loans.
+ * Each one calls the same Book, LibraryMember, Admin and Loan operations as the desktop
+ * screens, so validation, caching and transactions behave the same. Passwords are never returned.
+ */
+public class LibraryApi {
+
+    /** Most rows one page of a listing may ask for */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private LibraryApi() {}
+
+    /**
+     * Add every endpoint to the server
+     */
+    public static ApiServer register(ApiServer server) {
+        return server
+            .route("GET", "/stats", Access.PUBLIC, LibraryApi::getStats)
+            .route("GET", "/books", Access.PUBLIC, LibraryApi::listBooks)
+            .route("POST", "/books", Access.SIGNED_IN, LibraryApi::addBook)
+            .route("GET", "/books/{id}", Access.PUBLIC, LibraryApi::getBook)
+            .route("DELETE", "/books/{id}", Access.ADMIN, LibraryApi::deleteBook)
+            .route("GET", "/me", Access.SIGNED_IN, LibraryApi::getMe)
+            .route("GET", "/members", Access.ADMIN, LibraryApi::listMembers)
+            .route("POST", "/members", Access.PUBLIC, LibraryApi::registerMember)
+            .route("GET", "/members/{email}", Access.SIGNED_IN, LibraryApi::getMember)
+            .route("DELETE", "/members/{email}", Access.ADMIN, LibraryApi::deleteMember)
+            .route("GET", "/admins", Access.ADMIN, LibraryApi::listAdmins)
+            .route("GET", "/loans", Access.MEMBER, LibraryApi::listLoans)
+            .route("POST", "/loans", Access.MEMBER, LibraryApi::borrowBook)
+            .route("POST", "/loans/{id}/return", Access.MEMBER, LibraryApi::returnBook);
+    }
+
+    // ==================== CATALOGUE ====================
+
+    /**
+     * Catalogue and circulation totals, from the maintained counters
+     */
+    private static ApiResponse getStats(ApiRequest request) {
+        Book.CatalogSummary summary = Book.getCatalogSummary();
+        return ApiResponse.ok(new JsonObject()
+            .put("books", summary.totalBooks)
+            .put("totalCopies", summary.totalCopies)
+            .put("availableCopies", summary.availableCopies)
+            .put("borrowedCopies", summary.getBorrowedCopies())
+            .put("outOfStockBooks", summary.outOfStockBooks)
+            .put("members", LibraryCounters.get(LibraryCounters.Counter.MEMBERS))
+            .put("currentlyBorrowed", LibraryCounters.get(LibraryCounters.Counter.CURRENTLY_BORROWED))
+            .put("totalBorrows", LibraryCounters.get(LibraryCounters.Counter.TOTAL_BORROWS))
+            .toString());
+    }
+
+    /**
+     * ?q= searches titles and authors (with ?available=true for books on the shelf);
+     * otherwise one page of the catalogue in ?sort= order, continued with ?page=
+     */
+    private static ApiResponse listBooks(ApiRequest request) {
+        String search = request.query("q");
+        if (search != null) {
+            List<Book> books = request.queryFlag("available") ? Book.searchAvailableBooks(search) : Book.searchBooks(search);
+            return ApiResponse.ok(listJson(books, null, LibraryApi::bookJson));
+        }
+        Book.SortColumn sort = request.queryEnum("sort", Book.SortColumn.class, Book.SortColumn.ADDED);
+        boolean ascending = "asc".equalsIgnoreCase(request.query("order"));
+        int limit = request.queryInt("limit", DatabaseConfig.PAGE_SIZE, 1, MAX_PAGE_SIZE);
+        Page<Book> page = Book.getBooksPage(sort, ascending, request.query("page"), limit);
+        return ApiResponse.ok(listJson(page.getItems(), page.getNextToken(), LibraryApi::bookJson));
+    }
+
+    private static ApiResponse getBook(ApiRequest request) {
+        Book book = Book.getBookById(request.pathInt("id"));
+        return book != null ? ApiResponse.ok(bookJson(book)) : ApiResponse.error(404, "No book with this id");
+    }
+
+    /**
+     * Add a book, recorded as added by the signed-in admin or member.
+     * Body: {"title": ..., "author": ..., "copies": n}
+     */
+    private static ApiResponse addBook(ApiRequest request) {
+        String title = request.string("title").trim();
+        String author = request.string("author").trim();
+        int copies = request.integer("copies");
+        String userType = request.getUser().getType();
+        String validationError = Book.validateBook(title, author, copies, request.getEmail(), userType);
+        if (validationError != null) {
+            return ApiResponse.error(400, validationError);
+        }
+
+        // The import path reports why a book was refused, e.g. a title already in the library
+        BatchResult result = Book.importBooks(List.of(new Book(title, author, copies, request.getEmail(), userType)),
+            request.getEmail(), userType);
+        if (!result.isSuccessful()) {
+            return ApiResponse.error(409, result.getErrors().get(0).getMessage());
+        }
+        Book book = Book.getBookByTitle(title);
+        return book != null ? ApiResponse.created(bookJson(book)) : ApiResponse.error(500, "Book was added but could not be read back");
+    }
+
+    private static ApiResponse deleteBook(ApiRequest request) {
+        int id = request.pathInt("id");
+        if (Book.getBookById(id) == null) {
+            return ApiResponse.error(404, "No book with this id");
+        }
+        return Book.deleteBookById(id) ? ApiResponse.ok(new JsonObject().put("deleted", id).toString())
+                                       : ApiResponse.error(409, "Book could not be deleted");
+    }
+
+    // ==================== ACCOUNTS ====================
+
+    /**
+     * The signed-in account's type and profile
+     */
+    private static ApiResponse getMe(ApiRequest request) {
+        JsonObject profile = request.isAdmin() ? accountJson(request.getUser().getAdmin())
+                                               : accountJson(request.getUser().getMember());
+        return ApiResponse.ok(profile.put("type", request.getUser().getType()).toString());
+    }
+
+    /**
+     * One page of the member directory, filtered with ?name=, ?email=, ?joinedFrom= and ?joinedTo=
+     */
+    private static ApiResponse listMembers(ApiRequest request) {
+        Admin.MemberFilter filter = new Admin.MemberFilter(request.query("name"), request.query("email"),
+            request.queryDate("joinedFrom"), request.queryDate("joinedTo"));
+        Admin.MemberSortColumn sort = request.queryEnum("sort", Admin.MemberSortColumn.class, Admin.MemberSortColumn.JOINED);
+        boolean ascending = "asc".equalsIgnoreCase(request.query("order"));
+        int limit = request.queryInt("limit", DatabaseConfig.PAGE_SIZE, 1, MAX_PAGE_SIZE);
+        Page<LibraryMember> page = Admin.getMembersPage(filter, sort, ascending, request.query("page"), limit);
+        return ApiResponse.ok(listJson(page.getItems(), page.getNextToken(), member -> accountJson(member).toString()));
+    }
+
+    /**
+     * Sign up as a member, with the same checks as the sign-up form.
+     * Body: {"name": ..., "email": ..., "age": n, "phoneNumber": ..., "password": ...}
+     */
+    private static ApiResponse registerMember(ApiRequest request) {
+        LibraryMember member = new LibraryMember(request.string("email").trim(), request.string("name").trim(),
+            request.string("password"), request.integer("age"), request.string("phoneNumber").trim(), null);
+        String validationError = LibraryMember.validateMember(member.getEmail(), member.getName(), member.getPassword(),
+            member.getAge(), member.getPhoneNumber());
+        if (validationError != null) {
+            return ApiResponse.error(400, validationError);
+        }
+
+        BatchResult result = LibraryMember.importMembers(List.of(member));
+        if (!result.isSuccessful()) {
+            return ApiResponse.error(409, result.getErrors().get(0).getMessage());
+        }
+        LibraryMember added = LibraryMember.getMemberByEmail(member.getEmail());
+        return ApiResponse.created(accountJson(added != null ? added : member).toString());
+    }
+
+    /**
+     * A member's profile, for admins or the member themselves
+     */
+    private static ApiResponse getMember(ApiRequest request) {
+        String email = request.path("email");
+        if (!request.isAdmin() && !email.equals(request.getEmail())) {
+            return ApiResponse.error(403, "Members can only see their own profile");
+        }
+        LibraryMember member = LibraryMember.getMemberByEmail(email);
+        return member != null ? ApiResponse.ok(accountJson(member).toString()) : ApiResponse.error(404, "No member with this email");
+    }
+
+    private static ApiResponse deleteMember(ApiRequest request) {
+        String email = request.path("email");
+        if (!LibraryMember.memberExists(email)) {
+            return ApiResponse.error(404, "No member with this email");
+        }
+        return Admin.deleteMemberByEmail(email) ? ApiResponse.ok(new JsonObject().put("deleted", email).toString())
+                                                : ApiResponse.error(409, "Member could not be deleted");
+    }
+
+    private static ApiResponse listAdmins(ApiRequest request) {
+        return ApiResponse.ok(listJson(Admin.ViewAllAdmins(), null, admin -> accountJson(admin).toString()));
+    }
+
+    // ==================== LOANS ====================
+
+    /**
+     * The signed-in member's open loans, or their whole history with ?all=true
+     */
+    private static ApiResponse listLoans(ApiRequest request) {
+        List<Loan.BorrowedBook> loans = Loan.getMemberLoans(request.getEmail(), request.queryFlag("all"));
+        if (loans == null) {
+            return ApiResponse.error(500, "Loans could not be loaded");
+        }
+        return ApiResponse.ok(listJson(loans, null, LibraryApi::loanJson));
+    }
+
+    /**
+     * Borrow a copy of a book for the signed-in member. Body: {"bookId": n}
+     */
+    private static ApiResponse borrowBook(ApiRequest request) {
+        int bookId = request.integer("bookId");
+        if (Book.getBookById(bookId) == null) {
+            return ApiResponse.error(404, "No book with this id");
+        }
+        switch (Loan.borrowBook(request.getEmail(), bookId)) {
+            case SUCCESS:
+                break;
+            case ALREADY_BORROWED:
+                return ApiResponse.error(409, "You have already borrowed this book and haven't returned it yet");
+            case NOT_AVAILABLE:
+                return ApiResponse.error(409, "No copies of this book are available");
+            default:
+                return ApiResponse.error(500, "The book could not be borrowed");
+        }
+        // A member has at most one open loan of a book, so this is the one just made
+        List<Loan.BorrowedBook> loans = Loan.getMemberLoans(request.getEmail(), false);
+        Loan.BorrowedBook loan = loans == null ? null
+            : loans.stream().filter(open -> open.bookId == bookId).findFirst().orElse(null);
+        return ApiResponse.created(loan != null ? loanJson(loan) : new JsonObject().put("bookId", bookId).toString());
+    }
+
+    /**
+     * Return one of the signed-in member's open loans
+     */
+    private static ApiResponse returnBook(ApiRequest request) {
+        int borrowId = request.pathInt("id");
+        List<Loan.BorrowedBook> loans = Loan.getMemberLoans(request.getEmail(), false);
+        Loan.BorrowedBook loan = loans == null ? null
+            : loans.stream().filter(open -> open.borrowId == borrowId).findFirst().orElse(null);
+        if (loan == null) {
+            return ApiResponse.error(404, "You have no open loan with this id");
+        }
+        if (Loan.returnBook(loan.borrowId, loan.bookId) != Loan.Outcome.SUCCESS) {
+            return ApiResponse.error(409, "The book could not be returned");
+        }
+        return ApiResponse.ok(new JsonObject()
+            .put("borrowId", loan.borrowId)
+            .put("bookId", loan.bookId)
+            .put("isReturned", true)
+            .toString());
+    }
+
+    // ==================== JSON ====================
+
+    private static String bookJson(Book book) {
+        return new JsonObject()
+            .put("id", book.getId())
+            .put("title", book.getTitle())
+            .put("author", book.getAuthor())
+            .put("totalCopies", book.getTotalCopies())
+            .put("availableCopies", book.getAvailableCopies())
+            .put("borrowCount", book.getBorrowCount())
+            .put("addedByEmail", book.getAddedByEmail())
+            .put("addedByType", book.getAddedByType())
+            .put("createdAt", book.getCreatedAt())
+            .toString();
+    }
+
+    private static JsonObject accountJson(LibraryMember member) {
+        return new JsonObject()
+            .put("email", member.getEmail())
+            .put("name", member.getName())
+            .put("age", member.getAge())
+            .put("phoneNumber", member.getPhoneNumber())
+            .put("createdAt", member.getCreatedAt());
+    }
+
+    private static JsonObject accountJson(Admin admin) {
+        return new JsonObject()
+            .put("email", admin.getEmail())
+            .put("name", admin.getName())
+            .put("age", admin.getAge())
+            .put("phoneNumber", admin.getPhoneNumber())
+            .put("createdAt", admin.getCreatedAt());
+    }
+
+    private static String loanJson(Loan.BorrowedBook loan) {
+        return new JsonObject()
+            .put("borrowId", loan.borrowId)
+            .put("bookId", loan.bookId)
+            .put("title", loan.bookTitle)
+            .put("author", loan.bookAuthor)
+            .put("borrowDate", loan.borrowDate)
+            .put("returnDate", loan.returnDate)
+            .put("isReturned", loan.isReturned)
+            .toString();
+    }
+
+    /**
+     * {"items": [...], "next": token}, where next continues a paged listing and is null on the last page
+     */
+    private static <T> String listJson(List<T> items, String nextToken, Function<T, String> toJson) {
+        StringBuilder json = new StringBuilder(items.size() * 200 + 32).append("{\"items\":[");
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(toJson.apply(items.get(i)));
+        }
+        json.append("],\"next\":");
+        Json.appendQuoted(json, nextToken);
+        return json.append('}').toString();
+    }
+
+    /**
+     * Builds one JSON object; numbers and booleans are written as they are,
+     * timestamps as ISO date-times and anything else as a string
+     */
+    private static class JsonObject {
+        private final StringBuilder json = new StringBuilder(128).append('{');
+
+        JsonObject put(String name, Object value) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            Json.appendQuoted(json, name);
+            json.append(':');
+            if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else if (value instanceof Timestamp) {
+                json.append('"').append(((Timestamp) value).toLocalDateTime()).append('"');
+            } else {
+                Json.appendQuoted(json, value == null ? null : value.toString());
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return json + "}";
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package project.Tools;
+
+import java.util.List;
+
+import project.Databases.BatchResult;
+import project.Databases.Book;
+
+/**
+ * Imports new stock from a CSV file with the columns title, author, copies.
+ *
+ * Rows get the same checks as a book added from the Add Books dialog. A book whose title
+ * is already in the library, or repeated earlier in the file, is rejected rather than added twice.
+ * Run it from the admin dashboard (Import Books) or the command line:
+ *   mvn exec:java -Dexec.mainClass="project.Tools.LibraryAdmin" \
+ *     -Dlibrary.db.path=My.db -Dexec.args="import-books stock.csv"
+ */
+public class BookImporter extends CsvImport<Book> {
+    private final String userEmail;
+    private final String userType;
+
+    /**
+     * @param userEmail Recorded as the one who added the imported books
+     * @param userType 'admin' or 'member'
+     */
+    public BookImporter(String userEmail, String userType) {
+        super("title", "author", "copies");
+        this.userEmail = userEmail;
+        this.userType = userType;
+    }
+
+    @Override
+    protected Book parse(List<String> fields) {
+        if (fields.size() != 3) {
+            throw new IllegalArgumentException("Expected 3 columns (title, author, copies) but found " + fields.size());
+        }
+        int copies;
+        try {
+            copies = Integer.parseInt(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number format for copies: " + fields.get(2));
+        }
+        return new Book(fields.get(0).trim(), fields.get(1).trim(), copies, userEmail, userType);
+    }
+
+    @Override
+    protected BatchResult insert(List<Book> books) {
+        return Book.importBooks(books, userEmail, userType);
+    }
+}
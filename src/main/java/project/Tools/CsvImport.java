@@ -0,0 +1,235 @@
+package project.Tools;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import project.Databases.BatchResult;
+import project.Databases.DatabaseConfig;
+
+/**
+ * Streams rows from a CSV file into the database in chunks.
+ *
+ * Records are read one at a time and parsed into items; every
+ * {@link DatabaseConfig#IMPORT_CHUNK_SIZE} items are handed to {@link #insert} together,
+ * which writes them in one transaction. Rows that cannot be parsed or are refused by the
+ * database are reported as rejects with their line number and the import carries on,
+ * so one bad row never costs the rest of the file. Chunks that committed stay committed
+ * when the import is cancelled or fails part way through.
+ */
+public abstract class CsvImport<T> {
+
+    /** Rejects kept in the report; every reject still goes to the reject listener */
+    public static final int MAX_REPORTED_REJECTS = 1000;
+
+    /**
+     * A row that was not imported
+     */
+    public static class Reject {
+        public final long line;
+        public final String reason;
+        public final List<String> fields;
+
+        public Reject(long line, String reason, List<String> fields) {
+            this.line = line;
+            this.reason = reason;
+            this.fields = fields;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + line + ": " + reason;
+        }
+    }
+
+    /**
+     * Totals of a finished, cancelled or failed import
+     */
+    public static class ImportReport {
+        public long rowsRead;
+        public long imported;
+        public long rejected;
+        public boolean cancelled;
+        public long elapsedMillis;
+        public final List<Reject> rejects = new ArrayList<>();
+
+        public long getRowsPerSecond() {
+            return elapsedMillis > 0 ? rowsRead * 1000 / elapsedMillis : rowsRead;
+        }
+
+        @Override
+        public String toString() {
+            return (cancelled ? "Import cancelled after " : "Imported ") + imported + " of " + rowsRead + " rows, " +
+                rejected + " rejected, in " + elapsedMillis + " ms (" + getRowsPerSecond() + " rows/s)";
+        }
+    }
+
+    /**
+     * Told after every chunk is written; runs on the importing thread
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param charsRead Characters of the input consumed so far, to compare with the file size
+         */
+        void progress(long rowsRead, long imported, long rejected, long charsRead);
+    }
+
+    private final String[] header;
+    private ProgressListener onProgress = (rowsRead, imported, rejected, charsRead) -> {};
+    private Consumer<Reject> onReject = reject -> {};
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param header Column names; a first row matching them (ignoring case) is skipped
+     */
+    protected CsvImport(String... header) {
+        this.header = header;
+    }
+
+    /**
+     * Turn one record into an item to insert
+     * @throws IllegalArgumentException with the reason the row is rejected
+     */
+    protected abstract T parse(List<String> fields);
+
+    /**
+     * Write one chunk of items in a single transaction
+     * @return Per-item outcome, with error indexes matching positions in the list
+     */
+    protected abstract BatchResult insert(List<T> items);
+
+    public CsvImport<T> onProgress(ProgressListener onProgress) {
+        this.onProgress = onProgress;
+        return this;
+    }
+
+    /**
+     * Receive every rejected row as it is found, e.g. to write a reject file
+     */
+    public CsvImport<T> onReject(Consumer<Reject> onReject) {
+        this.onReject = onReject;
+        return this;
+    }
+
+    /**
+     * Stop before the next chunk is written; safe to call from any thread
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Import a UTF-8 CSV file
+     */
+    public ImportReport run(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return run(reader);
+        }
+    }
+
+    /**
+     * Import CSV text
+     * @throws IOException if the input cannot be read; chunks written before the error are kept
+     */
+    public ImportReport run(Reader input) throws IOException {
+        ImportReport report = new ImportReport();
+        long start = System.currentTimeMillis();
+        CsvReader csv = new CsvReader(input);
+        int chunkSize = Math.max(DatabaseConfig.IMPORT_CHUNK_SIZE, 1);
+        List<T> items = new ArrayList<>(chunkSize);
+        List<Reject> pending = new ArrayList<>(chunkSize);
+
+        try {
+            boolean first = true;
+            List<String> fields;
+            while (!cancelled && (fields = csv.readRecord()) != null) {
+                if (first && isHeader(fields)) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                    continue;
+                }
+
+                report.rowsRead++;
+                try {
+                    T item = parse(fields);
+                    items.add(item);
+                    // Kept so a row the database refuses can be reported with its line
+                    pending.add(new Reject(csv.getLineNumber(), null, fields));
+                } catch (IllegalArgumentException e) {
+                    reject(report, new Reject(csv.getLineNumber(), e.getMessage(), fields));
+                }
+
+                if (items.size() >= chunkSize) {
+                    flush(report, items, pending, csv.getCharsRead());
+                }
+            }
+            if (!cancelled) {
+                flush(report, items, pending, csv.getCharsRead());
+            }
+        } finally {
+            report.cancelled = cancelled;
+            report.elapsedMillis = System.currentTimeMillis() - start;
+        }
+        return report;
+    }
+
+    private boolean isHeader(List<String> fields) {
+        if (fields.size() != header.length) {
+            return false;
+        }
+        for (int i = 0; i < header.length; i++) {
+            if (!header[i].equalsIgnoreCase(fields.get(i).trim())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void flush(ImportReport report, List<T> items, List<Reject> pending, long charsRead) {
+        if (!items.isEmpty()) {
+            BatchResult result = insert(items);
+            report.imported += result.getSucceeded();
+
+            String batchError = null;
+            boolean[] failed = new boolean[items.size()];
+            for (BatchResult.RowError error : result.getErrors()) {
+                if (error.getIndex() < 0) {
+                    batchError = error.getMessage();
+                } else if (!failed[error.getIndex()]) {
+                    failed[error.getIndex()] = true;
+                    Reject row = pending.get(error.getIndex());
+                    reject(report, new Reject(row.line, error.getMessage(), row.fields));
+                }
+            }
+            // A failed transaction wrote none of the rows it did not already reject
+            if (batchError != null) {
+                for (int i = 0; i < items.size(); i++) {
+                    if (!failed[i]) {
+                        Reject row = pending.get(i);
+                        reject(report, new Reject(row.line, batchError, row.fields));
+                    }
+                }
+            }
+            items.clear();
+            pending.clear();
+        }
+        onProgress.progress(report.rowsRead, report.imported, report.rejected, charsRead);
+    }
+
+    private void reject(ImportReport report, Reject reject) {
+        report.rejected++;
+        if (report.rejects.size() < MAX_REPORTED_REJECTS) {
+            report.rejects.add(reject);
+        }
+        onReject.accept(reject);
+    }
+}
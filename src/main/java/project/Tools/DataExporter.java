@@ -0,0 +1,274 @@
+package project.Tools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import project.Databases.Connect;
+import project.Databases.Json;
+import project.Databases.LibraryCounters;
+
+/**
+ * Writes the books, members or loan history to a CSV or NDJSON file.
+ *
+ * Rows are streamed from a database cursor and written through a buffered file channel,
+ * so an export of any size holds one buffer of text in memory. The query runs on a
+ * read-only pooled connection; in WAL mode it reads one consistent snapshot of the
+ * database for its whole run and never blocks borrowing, returning or other writes.
+ * The file is written under a temporary name and only renamed into place once complete,
+ * so a cancelled or failed export never leaves a partial file behind.
+ * Run it from the admin dashboard (Export Data) or the command line:
+ *   mvn exec:java -Dexec.mainClass="project.Tools.LibraryAdmin" \
+ *     -Dlibrary.db.path=My.db -Dexec.args="export loans loans.ndjson"
+ */
+public class DataExporter {
+
+    /** Characters buffered before they are encoded and written to the file */
+    private static final int BUFFER_CHARS = 64 * 1024;
+    /** Rows written between progress reports */
+    private static final int PROGRESS_ROWS = 10_000;
+
+    /**
+     * What can be exported. Member passwords are never exported.
+     */
+    public enum Dataset {
+        BOOKS("books", "books ORDER BY id", () -> LibraryCounters.get(LibraryCounters.Counter.BOOKS),
+            "id", "title", "author", "total_copies", "available_copies", "borrow_count",
+            "added_by_email", "added_by_type", "created_at"),
+        MEMBERS("members", "members ORDER BY email", () -> LibraryCounters.get(LibraryCounters.Counter.MEMBERS),
+            "email", "name", "age", "phone_number", "created_at"),
+        // Every loan ever made, with the member's name and the book's title through the view
+        LOANS("loans", "member_borrowed_books", () -> Connect.executeCount("SELECT MAX(id) FROM borrowed_books"),
+            "member_email", "member_name", "book_title", "book_author", "borrow_date", "return_date", "is_returned");
+
+        private final String label;
+        private final String source;
+        private final LongSupplier estimate;
+        private final String[] columns;
+
+        Dataset(String label, String source, LongSupplier estimate, String... columns) {
+            this.label = label;
+            this.source = source;
+            this.estimate = estimate;
+            this.columns = columns;
+        }
+
+        public String getLabel() { return label; }
+
+        String query() {
+            return "SELECT " + String.join(", ", columns) + " FROM " + source;
+        }
+
+        /**
+         * Dataset by its label, e.g. "loans", or null if there is none
+         */
+        public static Dataset forLabel(String label) {
+            for (Dataset dataset : values()) {
+                if (dataset.label.equalsIgnoreCase(label)) {
+                    return dataset;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return label.substring(0, 1).toUpperCase() + label.substring(1);
+        }
+    }
+
+    public enum Format {
+        CSV("csv"),
+        NDJSON("ndjson");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+
+        /**
+         * Format matching a file's extension: .ndjson or .jsonl for NDJSON, anything else CSV
+         */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? NDJSON : CSV;
+        }
+    }
+
+    /**
+     * Totals of a finished or cancelled export
+     */
+    public static class ExportReport {
+        public long rows;
+        public long bytes;
+        public boolean cancelled;
+        public long elapsedMillis;
+
+        @Override
+        public String toString() {
+            return (cancelled ? "Export cancelled after " : "Exported ") + rows + " rows (" + bytes + " bytes) in " +
+                elapsedMillis + " ms";
+        }
+    }
+
+    /**
+     * Told every few thousand rows; runs on the exporting thread
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param estimatedRows Approximate number of rows in the export, for a progress bar
+         */
+        void progress(long rowsWritten, long estimatedRows);
+    }
+
+    private final Dataset dataset;
+    private final Format format;
+    private ProgressListener onProgress = (rowsWritten, estimatedRows) -> {};
+    private volatile boolean cancelled = false;
+
+    public DataExporter(Dataset dataset, Format format) {
+        this.dataset = dataset;
+        this.format = format;
+    }
+
+    public DataExporter onProgress(ProgressListener onProgress) {
+        this.onProgress = onProgress;
+        return this;
+    }
+
+    /**
+     * Stop after the row being written; safe to call from any thread
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Export to a UTF-8 file, replacing it if it exists
+     * @throws IOException if the file cannot be written; nothing is left at the file's path
+     */
+    public ExportReport run(Path file) throws IOException {
+        ExportReport report = new ExportReport();
+        long start = System.currentTimeMillis();
+        long estimatedRows = dataset.estimate.getAsLong();
+        Path partFile = file.resolveSibling(file.getFileName() + ".part");
+        String[] columns = dataset.columns;
+        boolean complete = false;
+
+        try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Stream<Object[]> rows = Connect.stream(dataset.query(), rs -> {
+                 Object[] values = new Object[columns.length];
+                 for (int i = 0; i < values.length; i++) {
+                     values[i] = rs.getObject(i + 1);
+                 }
+                 return values;
+             })) {
+            StringBuilder buffer = new StringBuilder(BUFFER_CHARS + 1024);
+            if (format == Format.CSV) {
+                appendCsvRow(buffer, columns);
+            }
+
+            Iterator<Object[]> cursor = rows.iterator();
+            while (!cancelled && cursor.hasNext()) {
+                Object[] values = cursor.next();
+                if (format == Format.CSV) {
+                    appendCsvRow(buffer, values);
+                } else {
+                    appendJsonRow(buffer, columns, values);
+                }
+                report.rows++;
+                if (buffer.length() >= BUFFER_CHARS) {
+                    report.bytes += write(channel, buffer);
+                }
+                if (report.rows % PROGRESS_ROWS == 0) {
+                    onProgress.progress(report.rows, Math.max(estimatedRows, report.rows));
+                }
+            }
+            report.bytes += write(channel, buffer);
+            complete = !cancelled;
+        } finally {
+            report.cancelled = cancelled;
+            report.elapsedMillis = System.currentTimeMillis() - start;
+            if (!complete) {
+                Files.deleteIfExists(partFile);
+            }
+        }
+
+        if (report.cancelled) {
+            return report;
+        }
+        Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        onProgress.progress(report.rows, report.rows);
+        return report;
+    }
+
+    /**
+     * Encode the buffered text as UTF-8, write it to the channel and empty the buffer
+     * @return Bytes written
+     */
+    private static long write(FileChannel channel, StringBuilder buffer) throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(buffer));
+        int length = bytes.remaining();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        buffer.setLength(0);
+        return length;
+    }
+
+    /**
+     * One CSV line; fields containing commas, quotes or line breaks are quoted
+     */
+    private static void appendCsvRow(StringBuilder csv, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String value = values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                csv.append(value);
+            }
+        }
+        csv.append('\n');
+    }
+
+    /**
+     * One JSON object per line, keyed by column name
+     */
+    private static void appendJsonRow(StringBuilder json, String[] columns, Object[] values) {
+        json.append('{');
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            Json.appendQuoted(json, columns[i]);
+            json.append(':');
+            Object value = values[i];
+            if (value instanceof Number) {
+                json.append(value);
+            } else {
+                Json.appendQuoted(json, value == null ? null : value.toString());
+            }
+        }
+        json.append("}\n");
+    }
+}
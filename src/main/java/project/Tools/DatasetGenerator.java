@@ -0,0 +1,449 @@
+package project.Tools;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import project.Databases.BatchResult;
+import project.Databases.Connect;
+
+/**
+ * Fills a database with synthetic members, books and borrowing history for scale testing.
+ *
+ * Everything is derived from a seed and an end date, so the same arguments always
+ * produce the same database. The data is deliberately skewed like a real library:
+ * - book and member activity follow Zipf distributions (a few bestsellers and heavy readers)
+ * - authors write runs of consecutive books, and a few authors write most of them
+ * - loans are spread over several years, with recent loans still out
+ *
+ * Rows go through Connect.executeBatch, the same path as bulk imports.
+ * Usage (point library.db.path at a new file, the fast profile makes loading quicker):
+ *   mvn exec:java -Dexec.mainClass="project.Tools.DatasetGenerator" \
+ *     -Dlibrary.db.path=scale.db -Dlibrary.db.profile=fast \
+ *     -Dexec.args="--books=1000000 --members=200000 --loans=20000000 --seed=42"
+ */
+public class DatasetGenerator {
+    /** Admin recorded as the one who added every generated book (created by schema migration 1) */
+    public static final String ADDED_BY = "admin";
+
+    /** Password of every generated member */
+    public static final String MEMBER_PASSWORD = "password";
+
+    private static final int ROWS_PER_CALL = 50_000;
+    private static final long DAY_SECONDS = 86_400L;
+
+    private static final double BOOK_SKEW = 0.8;
+    private static final double MEMBER_SKEW = 0.6;
+    private static final double AUTHOR_SKEW = 0.75;
+    private static final double SERIES_CONTINUE = 0.6;
+    private static final double MEAN_LOAN_DAYS = 14.0;
+
+    private static final String[] FIRST_NAMES = {
+        "Maria", "James", "Aiko", "Liam", "Sofia", "Noah", "Amara", "Lucas", "Chen", "Olivia",
+        "Mateo", "Zara", "Ethan", "Priya", "Diego", "Hana", "Samuel", "Leila", "Kwame", "Ingrid",
+        "Rafael", "Yuki", "Omar", "Elena", "Tariq", "Nadia", "Jonas", "Imani", "Pedro", "Freya",
+        "Arjun", "Clara"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Santos", "Okafor", "Tanaka", "Murphy", "Rossi", "Cohen", "Reyes", "Schmidt", "Nguyen", "Kowalski",
+        "Garcia", "Mensah", "Larsen", "Patel", "Dubois", "Kim", "Moreau", "Haddad", "Silva", "Novak",
+        "Fischer", "Castillo", "Ivanova", "Bauer", "Mendoza", "Sato", "Oyelaran", "Lindqvist", "Ortiz", "Byrne",
+        "Fernandes", "Walsh"
+    };
+
+    private static final String[] TITLE_ADJECTIVES = {
+        "Silent", "Hidden", "Golden", "Broken", "Last", "Forgotten", "Burning", "Crimson",
+        "Endless", "Frozen", "Wandering", "Secret", "Distant", "Shattered", "Quiet", "Wild",
+        "Ancient", "Hollow", "Restless", "Bitter", "Gentle", "Iron", "Lonely", "Northern",
+        "Pale", "Scarlet", "Sleeping", "Stolen", "Twisted", "Velvet", "Winter", "Emerald"
+    };
+
+    private static final String[] TITLE_NOUNS = {
+        "River", "Garden", "Kingdom", "Letter", "Mirror", "Forest", "Harbor", "Crown",
+        "Shadow", "Island", "Promise", "Bridge", "Lantern", "Orchard", "Voyage", "Tower",
+        "Storm", "Journal", "Compass", "Empire", "Meadow", "Song", "Library", "Station",
+        "Daughter", "Signal", "Archive", "Circus", "Engine", "Feather", "Map", "Witness"
+    };
+
+    private static final String[] TITLE_PLACES = {
+        "the North", "Ashes", "the Sea", "Tomorrow", "Glass", "the Valley", "Stars", "the City",
+        "Dust", "the Desert", "Silence", "the Mountain", "Rain", "the Empire", "Smoke", "the Tide",
+        "Memory", "the Forest", "Bones", "the Moon", "Salt", "the Border", "Thorns", "the Lake",
+        "Ice", "the Old World", "Embers", "the Coast", "Shadows", "the South", "Time", "the River"
+    };
+
+    private final long seed;
+    private final long endEpochSeconds;
+    private final long spanSeconds;
+
+    /**
+     * @param seed Seed for every random choice
+     * @param endDate Day the generated history ends; loans in the last weeks before it are still out
+     * @param years Years of history before the end date
+     */
+    public DatasetGenerator(long seed, LocalDate endDate, int years) {
+        this.seed = seed;
+        this.endEpochSeconds = endDate.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        this.spanSeconds = Math.max(years, 1) * 365L * DAY_SECONDS;
+    }
+
+    // ==================== NAMES ====================
+
+    /**
+     * Unique title of the book generated at this position (0-based)
+     */
+    public static String bookTitle(int index) {
+        int combinations = TITLE_ADJECTIVES.length * TITLE_NOUNS.length * TITLE_PLACES.length;
+        // Odd multiplier modulo a power of two is a bijection, so neighbouring books get unrelated titles
+        int scrambled = (int) ((index * 40_503L) & (combinations - 1));
+        String title = "The " + TITLE_ADJECTIVES[scrambled % TITLE_ADJECTIVES.length]
+            + " " + TITLE_NOUNS[(scrambled / TITLE_ADJECTIVES.length) % TITLE_NOUNS.length]
+            + " of " + TITLE_PLACES[scrambled / (TITLE_ADJECTIVES.length * TITLE_NOUNS.length)];
+        int volume = index / combinations;
+        return volume == 0 ? title : title + ", Volume " + (volume + 1);
+    }
+
+    /**
+     * A word that appears in generated titles, e.g. as a search term
+     */
+    public static String titleWord(int index) {
+        return TITLE_NOUNS[Math.floorMod(index, TITLE_NOUNS.length)];
+    }
+
+    /**
+     * Email of the member generated at this position (0-based)
+     */
+    public static String memberEmail(int index) {
+        return (memberFirstName(index) + "." + memberLastName(index) + index + "@example.org").toLowerCase();
+    }
+
+    private static String memberFirstName(int index) {
+        return FIRST_NAMES[index % FIRST_NAMES.length];
+    }
+
+    private static String memberLastName(int index) {
+        return LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    private static String authorName(int index) {
+        String name = FIRST_NAMES[index % FIRST_NAMES.length];
+        int rest = index / FIRST_NAMES.length;
+        String last = LAST_NAMES[rest % LAST_NAMES.length];
+        rest /= LAST_NAMES.length;
+        if (rest == 0) {
+            return name + " " + last;
+        }
+        String initial = String.valueOf((char) ('A' + (rest - 1) % 26));
+        int generation = (rest - 1) / 26;
+        return name + " " + initial + ". " + last + (generation > 0 ? " " + (generation + 1) : "");
+    }
+
+    // ==================== GENERATION ====================
+
+    /**
+     * Generate books, then members, then loans into an empty catalog
+     * @return true if every table was filled
+     */
+    public boolean generate(int books, int members, long loans) {
+        if (books <= 0 || members <= 0 || loans < 0) {
+            System.err.println("Books and members must be greater than 0 and loans cannot be negative");
+            return false;
+        }
+        if (Connect.executeCount("SELECT COUNT(*) FROM books") > 0 || Connect.executeCount("SELECT COUNT(*) FROM members") > 0) {
+            System.err.println("The database already has books or members; generate into a new database file");
+            return false;
+        }
+
+        // One independent stream per table, so changing one count leaves the other tables' data unchanged
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom bookRandom = root.split();
+        SplittableRandom memberRandom = root.split();
+        SplittableRandom loanRandom = root.split();
+
+        long started = System.currentTimeMillis();
+        int[] bookByRank = permutation(books, bookRandom);
+        if (!generateBooks(books, bookByRank, bookRandom)) {
+            return false;
+        }
+        int[] memberByRank = permutation(members, memberRandom);
+        if (!generateMembers(members, memberRandom)) {
+            return false;
+        }
+        if (loans > 0 && !generateLoans(loans, books, members, bookByRank, memberByRank, loanRandom)) {
+            return false;
+        }
+        if (!updateBookCounters()) {
+            return false;
+        }
+
+        System.out.printf("Generated %d books, %d members and %d loans in %.1f s%n",
+            books, members, Connect.executeCount("SELECT COUNT(*) FROM borrowed_books"),
+            (System.currentTimeMillis() - started) / 1000.0);
+        return true;
+    }
+
+    private boolean generateBooks(int books, int[] bookByRank, SplittableRandom random) {
+        String query = "INSERT INTO books (title, author, total_copies, available_copies, added_by_email, added_by_type, created_at, updated_at) " +
+                       "VALUES (?, ?, ?, ?, ?, 'admin', datetime(?, 'unixepoch'), datetime(?, 'unixepoch'))";
+
+        // Popular books get extra copies; bookByRank[0] is the most borrowed book's index
+        boolean[] popular = new boolean[books];
+        for (int rank = 0; rank < Math.max(books / 100, 1); rank++) {
+            popular[bookByRank[rank]] = true;
+        }
+
+        ZipfSampler authorPicker = new ZipfSampler(Math.max(books / 10, 1), AUTHOR_SKEW);
+        int author = authorPicker.sample(random);
+        List<Object[]> rows = new ArrayList<>(ROWS_PER_CALL);
+
+        for (int i = 0; i < books; i++) {
+            // Authors write runs of books (series), and a few authors write most of the catalog
+            if (random.nextDouble() >= SERIES_CONTINUE) {
+                author = authorPicker.sample(random);
+            }
+            int copies = 1 + random.nextInt(4) + (popular[i] ? 5 : 0);
+            long addedAt = endEpochSeconds - spanSeconds + spanSeconds * i / books;
+            rows.add(new Object[] { bookTitle(i), authorName(author - 1), copies, copies, ADDED_BY, addedAt, addedAt });
+
+            if (rows.size() == ROWS_PER_CALL || i == books - 1) {
+                if (!insert("books", query, rows, i + 1, books)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean generateMembers(int members, SplittableRandom random) {
+        String query = "INSERT INTO members (email, name, password, age, phone_number, created_at) " +
+                       "VALUES (?, ?, ?, ?, ?, datetime(?, 'unixepoch'))";
+        List<Object[]> rows = new ArrayList<>(ROWS_PER_CALL);
+
+        for (int i = 0; i < members; i++) {
+            String name = memberFirstName(i) + " " + memberLastName(i);
+            int age = 16 + random.nextInt(65);
+            String phone = String.format("09%09d", random.nextInt(1_000_000_000));
+            long joinedAt = endEpochSeconds - spanSeconds + spanSeconds * i / members;
+            rows.add(new Object[] { memberEmail(i), name, MEMBER_PASSWORD, age, phone, joinedAt });
+
+            if (rows.size() == ROWS_PER_CALL || i == members - 1) {
+                if (!insert("members", query, rows, i + 1, members)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Loans in chronological order. A member can have only one open loan of a book, so a
+     * loan still out at the end date is drawn again if its member already has that book.
+     */
+    private boolean generateLoans(long loans, int books, int members, int[] bookByRank, int[] memberByRank,
+                                  SplittableRandom random) {
+        String query = "INSERT INTO borrowed_books (member_email, book_id, borrow_date, return_date, is_returned) " +
+                       "VALUES (?, ?, datetime(?, 'unixepoch'), datetime(?, 'unixepoch'), ?)";
+        ZipfSampler bookPicker = new ZipfSampler(books, BOOK_SKEW);
+        ZipfSampler memberPicker = new ZipfSampler(members, MEMBER_SKEW);
+        long firstBookId = firstId("books");
+
+        // (member, book) pairs of the loans that are still out
+        Set<Long> openLoans = new HashSet<>();
+        List<Object[]> rows = new ArrayList<>(ROWS_PER_CALL);
+
+        for (long i = 0; i < loans; i++) {
+            long borrowedAt = endEpochSeconds - spanSeconds + spanSeconds * i / loans + random.nextLong(DAY_SECONDS);
+            long days = 1 + (long) Math.min(-MEAN_LOAN_DAYS * Math.log(1.0 - random.nextDouble()), 120.0);
+            long returnedAt = borrowedAt + days * DAY_SECONDS;
+            boolean returned = returnedAt <= endEpochSeconds;
+
+            if (!returned && openLoans.size() == (long) members * books) {
+                System.err.println("Every member already has every book out; use more members or books");
+                return false;
+            }
+            int member;
+            int book;
+            do {
+                member = memberByRank[memberPicker.sample(random) - 1];
+                book = bookByRank[bookPicker.sample(random) - 1];
+            } while (!returned && !openLoans.add((long) member * books + book));
+
+            rows.add(new Object[] { memberEmail(member), firstBookId + book, borrowedAt,
+                returned ? returnedAt : null, returned ? 1 : 0 });
+
+            if (rows.size() == ROWS_PER_CALL || i == loans - 1) {
+                if (!insert("loans", query, rows, i + 1, loans)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Make borrow counts and availability agree with the generated loans
+     */
+    private boolean updateBookCounters() {
+        // One pass over the loans instead of a correlated count per book
+        String query = "UPDATE books SET " +
+            "borrow_count = loans.total, " +
+            "total_copies = MAX(total_copies, loans.still_out), " +
+            "available_copies = MAX(total_copies, loans.still_out) - loans.still_out " +
+            "FROM (SELECT book_id, COUNT(*) AS total, SUM(is_returned = 0) AS still_out " +
+            "      FROM borrowed_books GROUP BY book_id) AS loans " +
+            "WHERE loans.book_id = books.id";
+        if (Connect.executeCount("SELECT COUNT(*) FROM borrowed_books") > 0 && !Connect.executeUpdate(query)) {
+            System.err.println("Failed to update book availability");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean insert(String table, String query, List<Object[]> rows, long done, long total) {
+        BatchResult result = Connect.executeBatch(query, rows);
+        rows.clear();
+        if (!result.isSuccessful()) {
+            System.err.println("Failed to generate " + table + ": " + result.getErrors());
+            return false;
+        }
+        System.out.println(Character.toUpperCase(table.charAt(0)) + table.substring(1) + ": " + done + " / " + total);
+        return true;
+    }
+
+    private static long firstId(String table) {
+        String first = Connect.executeScalar("SELECT MIN(id) FROM " + table);
+        return first != null ? Long.parseLong(first) : 1L;
+    }
+
+    /**
+     * Random order of 0..size-1, used to map popularity ranks to rows so the
+     * most popular books and members are scattered through the table
+     */
+    private static int[] permutation(int size, SplittableRandom random) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Zipf-distributed ranks 1..n in constant time per sample, using
+     * Hörmann and Derflinger's rejection-inversion method
+     */
+    private static class ZipfSampler {
+        private final int n;
+        private final double exponent;
+        private final double hIntegralX1;
+        private final double hIntegralN;
+        private final double s;
+
+        ZipfSampler(int n, double exponent) {
+            this.n = n;
+            this.exponent = exponent;
+            this.hIntegralX1 = hIntegral(1.5) - 1.0;
+            this.hIntegralN = hIntegral(n + 0.5);
+            this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+        }
+
+        int sample(SplittableRandom random) {
+            while (true) {
+                double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+                double x = hIntegralInverse(u);
+                int k = (int) (x + 0.5);
+                if (k < 1) {
+                    k = 1;
+                } else if (k > n) {
+                    k = n;
+                }
+                if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return helper2((1.0 - exponent) * logX) * logX;
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = x * (1.0 - exponent);
+            if (t < -1.0) {
+                t = -1.0;
+            }
+            return Math.exp(helper1(t) * x);
+        }
+
+        /** log(1 + x) / x, accurate near 0 */
+        private static double helper1(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+        }
+
+        /** (exp(x) - 1) / x, accurate near 0 */
+        private static double helper2(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1.0 + x * 0.5 * (1.0 + x * (1.0 / 3.0) * (1.0 + 0.25 * x));
+        }
+    }
+
+    // ==================== COMMAND LINE ====================
+
+    public static void main(String[] args) {
+        int books = 10_000;
+        int members = 2_000;
+        long loans = 50_000;
+        long seed = 42;
+        int years = 5;
+        LocalDate endDate = LocalDate.now();
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                System.err.println("Expected --name=value but got: " + arg);
+                System.exit(2);
+            }
+            try {
+                switch (option[0]) {
+                    case "--books": books = Integer.parseInt(option[1]); break;
+                    case "--members": members = Integer.parseInt(option[1]); break;
+                    case "--loans": loans = Long.parseLong(option[1]); break;
+                    case "--seed": seed = Long.parseLong(option[1]); break;
+                    case "--years": years = Integer.parseInt(option[1]); break;
+                    case "--end-date": endDate = LocalDate.parse(option[1]); break;
+                    default:
+                        System.err.println("Unknown option " + option[0] + " (expected --books, --members, --loans, --seed, --years or --end-date)");
+                        System.exit(2);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Invalid value for " + option[0] + ": " + option[1]);
+                System.exit(2);
+            }
+        }
+
+        // Every 50k-row batch is "slow", so keep the slow-query log quiet unless it was asked for
+        if (System.getProperty("library.stats.slowQueryMs") == null) {
+            System.setProperty("library.stats.slowQueryMs", "-1");
+        }
+
+        System.out.println("Generating " + books + " books, " + members + " members and " + loans +
+            " loans (seed " + seed + ", " + years + " years ending " + endDate + ")");
+        boolean generated = new DatasetGenerator(seed, endDate, years).generate(books, members, loans);
+        Connect.getInstance().closeConnection();
+        System.exit(generated ? 0 : 1);
+    }
+}
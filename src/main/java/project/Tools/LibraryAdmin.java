@@ -0,0 +1,150 @@
+package project.Tools;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import project.Databases.Book;
+import project.Databases.Connect;
+import project.Databases.LibraryCounters;
+
+/**
+ * Maintenance commands for an existing database file.
+ *
+ * Opening the database applies any pending schema migrations first, so running
+ * a command against an old database also upgrades it.
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="project.Tools.LibraryAdmin" \
+ *     -Dlibrary.db.path=My.db -Dexec.args="rebuild-search-index"
+ *   ... -Dexec.args="import-books stock.csv [added-by-email]"
+ *   ... -Dexec.args="import-members roster.csv"
+ *   ... -Dexec.args="export books|members|loans file.csv|file.ndjson"
+ */
+public class LibraryAdmin {
+
+    private LibraryAdmin() {}
+
+    public static void main(String[] args) {
+        if (args.length == 0 || args.length - 1 < argumentRange(args[0])[0] || args.length - 1 > argumentRange(args[0])[1]) {
+            printUsage();
+            System.exit(2);
+        }
+
+        boolean succeeded;
+        switch (args[0]) {
+            case "rebuild-search-index":
+                succeeded = Book.rebuildSearchIndex();
+                System.out.println(succeeded ? "Search index rebuilt for " + Book.getTotalBookCount() + " books"
+                                             : "Search index rebuild failed");
+                break;
+            case "check-search-index":
+                succeeded = Book.checkSearchIndex();
+                System.out.println(succeeded ? "Search index is consistent with the books table"
+                                             : "Search index is out of date, run rebuild-search-index");
+                break;
+            case "reconcile-counters":
+                int corrected = LibraryCounters.reconcile();
+                succeeded = corrected >= 0;
+                System.out.println(!succeeded ? "Recounting the library counters failed"
+                                 : corrected == 0 ? "Library counters were already correct"
+                                 : "Corrected " + corrected + " library counter(s)");
+                break;
+            case "import-books":
+                succeeded = runImport(new BookImporter(args.length == 3 ? args[2] : DatasetGenerator.ADDED_BY, "admin"),
+                    Paths.get(args[1]));
+                break;
+            case "import-members":
+                succeeded = runImport(new MemberImporter(), Paths.get(args[1]));
+                break;
+            case "export":
+                DataExporter.Dataset dataset = DataExporter.Dataset.forLabel(args[1]);
+                if (dataset == null) {
+                    printUsage();
+                    System.exit(2);
+                }
+                succeeded = export(dataset, Paths.get(args[2]));
+                break;
+            default:
+                printUsage();
+                System.exit(2);
+                return;
+        }
+
+        Connect.getInstance().closeConnection();
+        System.exit(succeeded ? 0 : 1);
+    }
+
+    /**
+     * Number of arguments a command takes after its name, as {min, max}
+     */
+    private static int[] argumentRange(String command) {
+        switch (command) {
+            case "import-books":
+                return new int[] { 1, 2 };
+            case "import-members":
+                return new int[] { 1, 1 };
+            case "export":
+                return new int[] { 2, 2 };
+            default:
+                return new int[] { 0, 0 };
+        }
+    }
+
+    /**
+     * Import a CSV file, printing progress and every rejected row
+     */
+    private static boolean runImport(CsvImport<?> importer, Path file) {
+        long[] lastPrinted = { System.currentTimeMillis() };
+        importer.onReject(reject -> System.err.println(reject))
+            .onProgress((rowsRead, imported, rejected, charsRead) -> {
+                long now = System.currentTimeMillis();
+                if (now - lastPrinted[0] >= 1000) {
+                    lastPrinted[0] = now;
+                    System.out.println("  " + rowsRead + " rows read, " + imported + " imported, " + rejected + " rejected");
+                }
+            });
+        try {
+            CsvImport.ImportReport report = importer.run(file);
+            System.out.println(report);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Import of " + file + " stopped: " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Export a dataset in the format given by the file's extension, printing progress
+     */
+    private static boolean export(DataExporter.Dataset dataset, Path file) {
+        long[] lastPrinted = { System.currentTimeMillis() };
+        DataExporter exporter = new DataExporter(dataset, DataExporter.Format.forFile(file))
+            .onProgress((rowsWritten, estimatedRows) -> {
+                long now = System.currentTimeMillis();
+                if (now - lastPrinted[0] >= 1000) {
+                    lastPrinted[0] = now;
+                    System.out.println("  " + rowsWritten + " of about " + estimatedRows + " rows written");
+                }
+            });
+        try {
+            System.out.println(exporter.run(file) + " to " + file);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Export to " + file + " failed: " + e);
+            return false;
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: LibraryAdmin <command> [arguments]");
+        System.err.println("  rebuild-search-index   re-index every book title and author");
+        System.err.println("  check-search-index     verify the search index matches the books table");
+        System.err.println("  reconcile-counters     recount the dashboard totals from the tables");
+        System.err.println("  import-books <file.csv> [added-by-email]");
+        System.err.println("                         add books from a CSV of title, author, copies");
+        System.err.println("  import-members <file.csv>");
+        System.err.println("                         register members from a CSV of name, email, age, phone_number, password");
+        System.err.println("  export <books|members|loans> <file.csv|file.ndjson>");
+        System.err.println("                         write a table to CSV or NDJSON (by file extension)");
+    }
+}
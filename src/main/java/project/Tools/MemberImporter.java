@@ -0,0 +1,42 @@
+package project.Tools;
+
+import java.util.List;
+
+import project.Databases.BatchResult;
+import project.Databases.LibraryMember;
+
+/**
+ * Registers a roster of members from a CSV file with the columns name, email, age, phone_number, password.
+ *
+ * Rows get the same checks as the sign-up form. An email that already belongs to a member
+ * or an admin, or is repeated earlier in the file, is rejected rather than registered twice.
+ * Run it from the admin dashboard (Import Members) or the command line:
+ *   mvn exec:java -Dexec.mainClass="project.Tools.LibraryAdmin" \
+ *     -Dlibrary.db.path=My.db -Dexec.args="import-members roster.csv"
+ */
+public class MemberImporter extends CsvImport<LibraryMember> {
+
+    public MemberImporter() {
+        super("name", "email", "age", "phone_number", "password");
+    }
+
+    @Override
+    protected LibraryMember parse(List<String> fields) {
+        if (fields.size() != 5) {
+            throw new IllegalArgumentException("Expected 5 columns (name, email, age, phone_number, password) but found " + fields.size());
+        }
+        int age;
+        try {
+            age = Integer.parseInt(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Please enter a valid number for age: " + fields.get(2));
+        }
+        return new LibraryMember(fields.get(1).trim(), fields.get(0).trim(), fields.get(4).trim(), age,
+            fields.get(3).trim(), null);
+    }
+
+    @Override
+    protected BatchResult insert(List<LibraryMember> members) {
+        return LibraryMember.importMembers(members);
+    }
+}
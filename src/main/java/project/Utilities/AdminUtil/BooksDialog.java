@@ -9,17 +9,26 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.geometry.Insets;
 import project.Databases.Book;
+import project.Databases.DatabaseConfig;
+import project.Databases.Page;
+import project.Tools.BookImporter;
 import project.Utilities.AlertMsg;
+import project.Utilities.FxAsync;
+import project.Utilities.PagedTable;
 import project.Utilities.SwitchSceneUtil;
 import project.Utilities.UIUtil;
 
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class BooksDialog {
@@ -206,36 +215,36 @@ public class BooksDialog {
                 return;
             }
 
-            List<Book> foundBooks = Book.searchBooksForDeletion(title, author);
-            
-            if (foundBooks.isEmpty()) {
-                AlertMsg.showError("No Books Found", "No books found matching your search criteria.");
-                event.consume();
-                return;
-            }
+            // Search and delete in the background; the dialog closes itself after a successful delete
+            event.consume();
+            FxAsync.runWithProgress("Searching books...", () -> Book.searchBooksForDeletion(title, author), foundBooks -> {
+                if (foundBooks == null || foundBooks.isEmpty()) {
+                    AlertMsg.showError("No Books Found", "No books found matching your search criteria.");
+                    return;
+                }
 
-            Book selectedBook = showBookSelectionDialog(foundBooks);
-            if (selectedBook == null) {
-                event.consume();
-                return;
-            }
+                Book selectedBook = showBookSelectionDialog(foundBooks);
+                if (selectedBook == null) {
+                    return;
+                }
 
-            boolean confirmed = showDeleteConfirmationDialog(selectedBook);
-            if (!confirmed) {
-                event.consume();
-                return;
-            }
+                boolean confirmed = showDeleteConfirmationDialog(selectedBook);
+                if (!confirmed) {
+                    return;
+                }
 
-            boolean deleted = Book.deleteBookById(selectedBook.getId());
-            if (deleted) {
-                AlertMsg.showInformation("Success", "Book deleted successfully!\n\n" +
-                    "📖 Title: " + selectedBook.getTitle() + "\n" +
-                    "✍️ Author: " + selectedBook.getAuthor() + "\n" +
-                    "🆔 Book ID: " + selectedBook.getId());
-            } else {
-                AlertMsg.showError("Error", "Failed to delete the book. Please try again.");
-                event.consume();
-            }
+                FxAsync.runWithProgress("Deleting book...", () -> Book.deleteBookById(selectedBook.getId()), deleted -> {
+                    if (deleted) {
+                        AlertMsg.showInformation("Success", "Book deleted successfully!\n\n" +
+                            "📖 Title: " + selectedBook.getTitle() + "\n" +
+                            "✍️ Author: " + selectedBook.getAuthor() + "\n" +
+                            "🆔 Book ID: " + selectedBook.getId());
+                        dialog.close();
+                    } else {
+                        AlertMsg.showError("Error", "Failed to delete the book. Please try again.");
+                    }
+                }, okButton);
+            }, okButton);
         });
 
         dialog.setResultConverter(dialogButton -> null);
@@ -340,74 +349,31 @@ public class BooksDialog {
     }
 
     /**
-     * Show dialog for searching books by title or author
+     * Show dialog for searching books by title or author, with results shown as the admin types
      */
     public static void showSearchBooksDialog() {
-        Dialog<Void> dialog = new Dialog<>();
-        UIUtil.setupDialog(dialog, "Search Books by Title or Author");
-
-        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
-
-        GridPane grid = UIUtil.createDialogGrid();
-        TextField searchField = new TextField();
-        searchField.setPromptText("Enter book title or author name");
-        searchField.setPrefWidth(300);
-
-        Label adminLabel = UIUtil.createUserLabel("Searching", "admin");
-
-        grid.add(adminLabel, 0, 0, 2, 1);
-        grid.add(new Label("Search Term:"), 0, 1);
-        grid.add(searchField, 1, 1);
-
-        dialog.getDialogPane().setContent(grid);
-        searchField.requestFocus();
-        
-        javafx.scene.control.Button okButton = (javafx.scene.control.Button) dialog.getDialogPane().lookupButton(ButtonType.OK);
-        
-        okButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
-            String searchTerm = searchField.getText().trim();
-            
-            if (searchTerm.isEmpty()) {
-                AlertMsg.showError("Validation Error", "Please enter a search term!");
-                event.consume();
-                return;
-            }
-
-            List<Book> foundBooks = Book.searchBooks(searchTerm);
-            
-            if (foundBooks.isEmpty()) {
-                AlertMsg.showInformation("No Books Found", 
-                    "📚 No books found matching: '" + searchTerm + "'\n\n" +
-                    "Try searching with:\n" +
-                    "• Different spelling\n" +
-                    "• Author's last name\n" +
-                    "• Partial book title\n" +
-                    "• Different keywords");
-                event.consume();
-                return;
-            }
-
-            SearchDialogs.showSearchResultsDialog(foundBooks, searchTerm);
-        });
-
-        searchField.setOnAction(e -> okButton.fire());
-
-        dialog.setResultConverter(dialogButton -> null);
-        dialog.showAndWait();
+        SearchDialogs.showSearchBooksDialog();
     }
 
     /**
      * Show all books in the library in a formatted dialog
      */
     public static void showAllBooksDialog() {
-        List<Book> allBooks = Book.getAllBooks();
-        
+        FxAsync.runWithProgress("Loading books...",
+            () -> Map.entry(Book.getBooksPage(null, DatabaseConfig.PAGE_SIZE), Book.getCatalogSummary()),
+            loaded -> showAllBooksDialog(loaded.getKey(), loaded.getValue()));
+    }
+
+    /**
+     * Build the All Books dialog from its first page; later pages load as the user scrolls
+     */
+    private static void showAllBooksDialog(Page<Book> firstPage, Book.CatalogSummary summary) {
         Dialog<Void> dialog = new Dialog<>();
-        UIUtil.setupDialog(dialog, "📚 All Library Books (" + allBooks.size() + " books total)");
+        UIUtil.setupDialog(dialog, "📚 All Library Books (" + summary.totalBooks + " books total)");
 
         dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
 
-        if (allBooks.isEmpty()) {
+        if (firstPage.getItems().isEmpty()) {
             VBox emptyVBox = new VBox(20);
             emptyVBox.setPadding(new Insets(40));
             
@@ -423,53 +389,47 @@ public class BooksDialog {
             VBox vbox = new VBox(10);
             vbox.setPadding(new Insets(20));
 
-            Label headerLabel = UIUtil.createTableHeader("ID    | TITLE                           | AUTHOR                     | TOTAL | AVAILABLE | BORROWED | STATUS", UIUtil.PRIMARY_COLOR);
-            vbox.getChildren().add(headerLabel);
-            
-            Label separatorLabel = UIUtil.createTableSeparator("─────┼─────────────────────────────────┼────────────────────────────┼───────┼───────────┼──────────┼──────────");
-            vbox.getChildren().add(separatorLabel);
-
-            // Add each book
-            for (Book book : allBooks) {
-                int borrowedCopies = book.getTotalCopies() - book.getAvailableCopies();
-                String status = book.getAvailableCopies() > 0 ? "Available" : "Out of Stock";
-                
-                String bookInfo = String.format("%-5d | %-31s | %-26s | %-5d | %-9d | %-8d | %s",
-                    book.getId(),
-                    UIUtil.truncateString(book.getTitle(), 31),
-                    UIUtil.truncateString(book.getAuthor(), 26),
-                    book.getTotalCopies(),
-                    book.getAvailableCopies(),
-                    borrowedCopies,
-                    status);
-                
-                Label bookLabel = new Label(bookInfo);
-                bookLabel.setStyle(UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px;");
-                
-                UIUtil.applyHoverEffect(bookLabel, 
-                    UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px;", 
-                    "#f0f8ff");
-                
-                if (book.getAvailableCopies() == 0) {
-                    bookLabel.setStyle(UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-background-color: #ffe6e6; -fx-text-fill: " + UIUtil.DANGER_COLOR + ";");
-                    
-                    UIUtil.applyHoverEffect(bookLabel, 
-                        UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-background-color: #ffe6e6; -fx-text-fill: " + UIUtil.DANGER_COLOR + ";", 
-                        "#ffcccc");
-                }
-                
-                vbox.getChildren().add(bookLabel);
-            }
-
-            int totalBooks = allBooks.size();
-            int totalCopies = allBooks.stream().mapToInt(Book::getTotalCopies).sum();
-            int availableCopies = allBooks.stream().mapToInt(Book::getAvailableCopies).sum();
-            int borrowedCopies = totalCopies - availableCopies;
-            int outOfStockBooks = (int) allBooks.stream().filter(book -> book.getAvailableCopies() == 0).count();
-            int availableBooks = totalBooks - outOfStockBooks;
+            // Only the visible rows get cells, and sorting reloads the pages in order from the database
+            TableView<Book> table = new TableView<>();
+            TableColumn<Book, Object> addedColumn = UIUtil.createTableColumn("Added", Book.SortColumn.ADDED.name(), 150,
+                book -> book.getCreatedAt() != null ? book.getCreatedAt().toString().substring(0, 19) : "");
+            table.getColumns().addAll(List.of(
+                UIUtil.createTableColumn("ID", Book.SortColumn.ID.name(), 60, Book::getId),
+                UIUtil.createTableColumn("Title", Book.SortColumn.TITLE.name(), 240, Book::getTitle),
+                UIUtil.createTableColumn("Author", Book.SortColumn.AUTHOR.name(), 180, Book::getAuthor),
+                UIUtil.createTableColumn("Total", Book.SortColumn.TOTAL_COPIES.name(), 60, Book::getTotalCopies),
+                UIUtil.createTableColumn("Available", Book.SortColumn.AVAILABLE_COPIES.name(), 80, Book::getAvailableCopies),
+                UIUtil.createTableColumn("Borrowed", null, 80, book -> book.getTotalCopies() - book.getAvailableCopies()),
+                UIUtil.createTableColumn("Status", null, 100, book -> book.getAvailableCopies() > 0 ? "Available" : "Out of Stock"),
+                addedColumn));
+            addedColumn.setSortType(TableColumn.SortType.DESCENDING);
+            table.getSortOrder().add(addedColumn);
+            table.setPrefSize(960, 480);
+            table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+            VBox.setVgrow(table, Priority.ALWAYS);
+            vbox.getChildren().add(table);
+
+            Label loadedLabel = new Label();
+            loadedLabel.setStyle("-fx-text-fill: #666666; -fx-font-size: 12px;");
+            vbox.getChildren().add(loadedLabel);
+
+            PagedTable.attach(table, firstPage, (sortKey, ascending, token) -> Book.getBooksPage(
+                    sortKey != null ? Book.SortColumn.valueOf(sortKey) : Book.SortColumn.ADDED,
+                    sortKey != null && ascending, token, DatabaseConfig.PAGE_SIZE))
+                .withRowState("out-of-stock", book -> book.getAvailableCopies() == 0)
+                .onLoaded(count -> loadedLabel.setText("Showing " + count + " of " + summary.totalBooks + " books"));
+            UIUtil.applyTableStyles(dialog);
+
+            // Totals come from the library_counters table
+            int totalBooks = summary.totalBooks;
+            int totalCopies = summary.totalCopies;
+            int availableCopies = summary.availableCopies;
+            int borrowedCopies = summary.getBorrowedCopies();
+            int outOfStockBooks = summary.outOfStockBooks;
+            int availableBooks = summary.getAvailableBooks();
             
             Label summaryLabel = new Label(String.format(
-                "\n📊 Library Statistics:\n" +
+                "📊 Library Statistics:\n" +
                 "   📚 Total Books: %d titles | 📦 Total Copies: %d\n" +
                 "   ✅ Available: %d copies (%d books) | 📖 Borrowed: %d copies\n" +
                 "   ❌ Out of Stock: %d books",
@@ -477,15 +437,11 @@ public class BooksDialog {
             summaryLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + "; -fx-font-size: 14px;");
             vbox.getChildren().add(summaryLabel);
 
-            Label viewInfoLabel = UIUtil.createUserLabel("\n👤 Viewing", "admin");
+            Label viewInfoLabel = UIUtil.createUserLabel("👤 Viewing", "admin");
             viewInfoLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #666666; -fx-font-size: 12px;");
             vbox.getChildren().add(viewInfoLabel);
 
-            ScrollPane scrollPane = new ScrollPane(vbox);
-            scrollPane.setPrefSize(900, 600);
-            scrollPane.setFitToWidth(true);
-
-            dialog.getDialogPane().setContent(scrollPane);
+            dialog.getDialogPane().setContent(vbox);
         }
 
         javafx.scene.control.Button closeButton = (javafx.scene.control.Button) dialog.getDialogPane().lookupButton(ButtonType.CLOSE);
@@ -494,4 +450,13 @@ public class BooksDialog {
 
         dialog.showAndWait();
     }
+
+    /**
+     * Pick a CSV file of title, author, copies and import it, showing progress and rejected rows
+     */
+    public static void showImportBooksDialog() {
+        String currentEmail = SwitchSceneUtil.currentUserEmail != null ?
+                                SwitchSceneUtil.currentUserEmail : "admin@library.com";
+        ImportDialog.showImportDialog("Books", "title, author, copies", new BookImporter(currentEmail, "admin"));
+    }
 }
@@ -0,0 +1,149 @@
+package project.Utilities.AdminUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+import project.Tools.DataExporter;
+import project.Utilities.FxAsync;
+import project.Utilities.UIUtil;
+
+/**
+ * Dialogs for exporting the catalog, members or loan history to a file
+ */
+public class ExportDialog {
+
+    /**
+     * Ask what to export and where, then export it in the background with progress.
+     * Closing the progress dialog during the export cancels it and removes the partial file.
+     */
+    public static void showExportDialog() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        UIUtil.setupDialog(dialog, "📤 Export library data:");
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        ChoiceBox<DataExporter.Dataset> datasetChoice = new ChoiceBox<>();
+        datasetChoice.getItems().addAll(DataExporter.Dataset.values());
+        datasetChoice.setValue(DataExporter.Dataset.BOOKS);
+        datasetChoice.setPrefWidth(250);
+
+        ChoiceBox<DataExporter.Format> formatChoice = new ChoiceBox<>();
+        formatChoice.getItems().addAll(DataExporter.Format.values());
+        formatChoice.setValue(DataExporter.Format.CSV);
+        formatChoice.setPrefWidth(250);
+
+        GridPane grid = UIUtil.createDialogGrid();
+        grid.add(UIUtil.createUserLabel("Exporting", "admin"), 0, 0, 2, 1);
+        grid.add(new Label("Data:"), 0, 1);
+        grid.add(datasetChoice, 1, 1);
+        grid.add(new Label("Format:"), 0, 2);
+        grid.add(formatChoice, 1, 2);
+        Label noteLabel = new Label("Loans include every borrow with the member's name and the book's title.\n" +
+            "Member passwords are never exported.");
+        noteLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #666666; -fx-font-size: 12px;");
+        grid.add(noteLabel, 0, 3, 2, 1);
+        dialog.getDialogPane().setContent(grid);
+
+        Button okButton = (Button) dialog.getDialogPane().lookupButton(ButtonType.OK);
+        okButton.setText("Export...");
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isEmpty() || result.get() != ButtonType.OK) {
+            return;
+        }
+        DataExporter.Dataset dataset = datasetChoice.getValue();
+        DataExporter.Format format = formatChoice.getValue();
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export " + dataset);
+        chooser.setInitialFileName(dataset.getLabel() + "-" + LocalDate.now() + "." + format.getExtension());
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(format.name() + " files", "*." + format.getExtension()));
+        Window owner = Window.getWindows().stream().filter(Window::isFocused).findFirst().orElse(null);
+        File file = chooser.showSaveDialog(owner);
+        if (file != null) {
+            showExportProgressDialog(new DataExporter(dataset, format), file);
+        }
+    }
+
+    /**
+     * Run the export and show its progress until it finishes or is cancelled
+     */
+    private static void showExportProgressDialog(DataExporter exporter, File file) {
+        Dialog<Void> dialog = new Dialog<>();
+        UIUtil.setupDialog(dialog, "📤 Exporting to " + file.getName());
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+
+        VBox vbox = new VBox(10);
+        vbox.setPadding(new Insets(20));
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(480);
+        Label statusLabel = new Label("Starting export...");
+        statusLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + "; -fx-font-size: 14px;");
+        vbox.getChildren().addAll(statusLabel, progressBar);
+        dialog.getDialogPane().setContent(vbox);
+
+        Button closeButton = (Button) dialog.getDialogPane().lookupButton(ButtonType.CLOSE);
+        closeButton.setText("Cancel Export");
+        closeButton.setStyle("-fx-background-color: " + UIUtil.PRIMARY_COLOR + "; -fx-text-fill: white; -fx-font-weight: bold;");
+
+        exporter.onProgress((rowsWritten, estimatedRows) -> Platform.runLater(() -> {
+            progressBar.setProgress((double) rowsWritten / Math.max(estimatedRows, 1));
+            statusLabel.setText(String.format("Written %,d of about %,d rows", rowsWritten, estimatedRows));
+        }));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        closeButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+            if (running.get()) {
+                exporter.cancel();
+                closeButton.setText("Cancelling...");
+                closeButton.setDisable(true);
+                event.consume();
+            }
+        });
+        dialog.setOnCloseRequest(event -> {
+            if (running.get()) {
+                exporter.cancel();
+                event.consume();
+            }
+        });
+
+        FxAsync.run(() -> {
+            try {
+                return exporter.run(file.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, report -> {
+            running.set(false);
+            progressBar.setProgress(report.cancelled ? 0 : 1.0);
+            statusLabel.setText(report.cancelled ? "⚠️ Export cancelled, no file was written"
+                : String.format("✅ Exported %,d rows to %s (%,d KB)", report.rows, file.getName(), report.bytes / 1024));
+            closeButton.setText("Close");
+            closeButton.setDisable(false);
+        }, error -> {
+            running.set(false);
+            Throwable cause = error instanceof UncheckedIOException ? error.getCause() : error;
+            System.err.println("Export failed: " + cause.getMessage());
+            statusLabel.setText("⚠️ Export failed: " + cause.getMessage());
+            closeButton.setText("Close");
+            closeButton.setDisable(false);
+        });
+
+        dialog.showAndWait();
+    }
+}
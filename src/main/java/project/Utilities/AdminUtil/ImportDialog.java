@@ -0,0 +1,131 @@
+package project.Utilities.AdminUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+import project.Tools.CsvImport;
+import project.Utilities.FxAsync;
+import project.Utilities.UIUtil;
+
+/**
+ * Progress dialog shared by the CSV imports (books, member rosters)
+ */
+public class ImportDialog {
+
+    /**
+     * Pick a CSV file and import it, showing progress and the rejected rows.
+     * Closing the dialog during the import cancels it after the chunk being written.
+     * @param what What is imported, e.g. "Books"
+     * @param columns The file's columns, shown in the file chooser
+     */
+    public static void showImportDialog(String what, String columns, CsvImport<?> importer) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import " + what + " from CSV");
+        chooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("CSV files (" + columns + ")", "*.csv"),
+            new FileChooser.ExtensionFilter("All files", "*.*"));
+        Window owner = Window.getWindows().stream().filter(Window::isFocused).findFirst().orElse(null);
+        File file = chooser.showOpenDialog(owner);
+        if (file == null) {
+            return;
+        }
+
+        Dialog<Void> dialog = new Dialog<>();
+        UIUtil.setupDialog(dialog, "📥 Importing " + file.getName());
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+
+        VBox vbox = new VBox(10);
+        vbox.setPadding(new Insets(20));
+
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(560);
+        Label statusLabel = new Label("Reading " + file.getName() + "...");
+        statusLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + "; -fx-font-size: 14px;");
+
+        Label rejectsLabel = new Label("Rejected rows:");
+        rejectsLabel.setStyle("-fx-text-fill: #666666; -fx-font-size: 12px;");
+        ListView<String> rejectsList = new ListView<>();
+        rejectsList.setPrefSize(560, 260);
+        rejectsList.setPlaceholder(new Label("No rows rejected"));
+        VBox.setVgrow(rejectsList, Priority.ALWAYS);
+
+        vbox.getChildren().addAll(statusLabel, progressBar, rejectsLabel, rejectsList);
+        dialog.getDialogPane().setContent(vbox);
+
+        Button closeButton = (Button) dialog.getDialogPane().lookupButton(ButtonType.CLOSE);
+        closeButton.setText("Cancel Import");
+        closeButton.setStyle("-fx-background-color: " + UIUtil.PRIMARY_COLOR + "; -fx-text-fill: white; -fx-font-weight: bold;");
+
+        // Only the first rejects are listed, however many rows the file has
+        AtomicInteger listed = new AtomicInteger();
+        long fileSize = Math.max(file.length(), 1);
+        importer.onReject(reject -> {
+            if (listed.getAndIncrement() < CsvImport.MAX_REPORTED_REJECTS) {
+                String row = reject + "  (" + String.join(", ", reject.fields) + ")";
+                Platform.runLater(() -> rejectsList.getItems().add(row));
+            }
+        }).onProgress((rowsRead, imported, rejected, charsRead) -> Platform.runLater(() -> {
+            progressBar.setProgress(Math.min(1.0, (double) charsRead / fileSize));
+            statusLabel.setText(String.format("Read %,d rows: %,d imported, %,d rejected", rowsRead, imported, rejected));
+        }));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        closeButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+            if (running.get()) {
+                importer.cancel();
+                closeButton.setText("Cancelling...");
+                closeButton.setDisable(true);
+                event.consume();
+            }
+        });
+        dialog.setOnCloseRequest(event -> {
+            if (running.get()) {
+                importer.cancel();
+                event.consume();
+            }
+        });
+
+        FxAsync.run(() -> {
+            try {
+                return importer.run(file.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, report -> {
+            running.set(false);
+            progressBar.setProgress(1.0);
+            statusLabel.setText(String.format("%s %,d of %,d rows: %,d rejected (%,d rows/s)",
+                report.cancelled ? "⚠️ Cancelled after importing" : "✅ Imported",
+                report.imported, report.rowsRead, report.rejected, report.getRowsPerSecond()));
+            if (report.rejected > report.rejects.size()) {
+                rejectsLabel.setText("Rejected rows (first " + report.rejects.size() + " of " + report.rejected + "):");
+            }
+            closeButton.setText("Close");
+            closeButton.setDisable(false);
+        }, error -> {
+            running.set(false);
+            Throwable cause = error instanceof UncheckedIOException ? error.getCause() : error;
+            System.err.println(what + " import failed: " + cause.getMessage());
+            statusLabel.setText("⚠️ Import stopped: " + cause.getMessage() + "\nRows imported before the error were kept.");
+            closeButton.setText("Close");
+            closeButton.setDisable(false);
+        });
+
+        dialog.showAndWait();
+    }
+}
@@ -1,6 +1,8 @@
 package project.Utilities.AdminUtil;
 
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.DatePicker;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Dialog;
@@ -9,75 +11,133 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.geometry.Insets;
 import project.Databases.Admin;
+import project.Databases.DatabaseConfig;
 import project.Databases.LibraryMember;
+import project.Databases.Page;
+import project.Tools.MemberImporter;
 import project.Utilities.AlertMsg;
+import project.Utilities.FxAsync;
+import project.Utilities.PagedTable;
 import project.Utilities.SwitchSceneUtil;
 import project.Utilities.UIUtil;
 
+import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class MembersDialog {
 
     /**
-     * Show all members and admins in a dialog with detailed information
+     * Data loaded in the background before the members dialog is built
+     */
+    private static class MembersView {
+        final Page<LibraryMember> firstPage;
+        final int totalMembers;
+        final List<Admin> admins;
+
+        MembersView(Page<LibraryMember> firstPage, int totalMembers, List<Admin> admins) {
+            this.firstPage = firstPage;
+            this.totalMembers = totalMembers;
+            this.admins = admins;
+        }
+    }
+
+    /**
+     * Show every member and admin. Members are loaded one page at a time as the user scrolls,
+     * and can be sorted and filtered by name, email and join date.
+     */
+    public static void showAllMembersDialog() {
+        FxAsync.runWithProgress("Loading members...", () -> new MembersView(
+            Admin.getMembersPage(null, DatabaseConfig.PAGE_SIZE),
+            Admin.getTotalMemberCount(),
+            Admin.ViewAllAdmins()), view -> {
+
+            if (view.firstPage.getItems().isEmpty()) {
+                AlertMsg.showInformation("No Members Found", 
+                    "📋 The library currently has no registered members.\n\n" +
+                    "To add members, they need to register through the Create Account screen.");
+                return;
+            }
+            showMembersDialog(view, true);
+        });
+    }
+
+    /**
+     * Show the given members (e.g. search results) and all admins in a dialog with detailed information
      */
     public static void showAllMembersDialog(List<LibraryMember> members) {
+        // Get admins separately in the background, then build the dialog
+        FxAsync.runWithProgress("Loading admins...", Admin::ViewAllAdmins,
+            adminList -> showMembersDialog(new MembersView(new Page<>(members, null), members.size(), adminList), false));
+    }
+
+    /**
+     * Build the members dialog. The directory is paged, sorted and filtered by the database
+     * unless the view holds a fixed list of search results.
+     */
+    private static void showMembersDialog(MembersView view, boolean directory) {
+        Page<LibraryMember> firstPage = view.firstPage;
+        List<Admin> adminList = view.admins;
+
         Dialog<Void> dialog = new Dialog<>();
-        UIUtil.setupDialog(dialog, "📋 All Library Members & Admins (" + members.size() + " total)");
+        UIUtil.setupDialog(dialog, "📋 All Library Members & Admins (" + view.totalMembers + " total)");
 
         dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
 
         VBox vbox = new VBox(10);
         vbox.setPadding(new Insets(20));
 
-        // Get admins separately and convert to LibraryMember objects
-        List<Admin> adminList = Admin.ViewAllAdmins();
+        // Convert admins to LibraryMember objects
         List<LibraryMember> admins = convertAdminsToLibraryMembers(adminList);
-        List<LibraryMember> regularMembers = members;
 
         // MEMBERS SECTION
-        if (!regularMembers.isEmpty()) {
-            Label memberSectionLabel = new Label("👥 LIBRARY MEMBERS (" + regularMembers.size() + " total)");
+        if (!firstPage.getItems().isEmpty()) {
+            Label memberSectionLabel = new Label("👥 LIBRARY MEMBERS (" + view.totalMembers + " total)");
             memberSectionLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + "; -fx-padding: 10px 0px;");
             vbox.getChildren().add(memberSectionLabel);
 
-            // Add member header with column titles using UIUtil
-            Label memberHeaderLabel = UIUtil.createTableHeader(
-                "EMAIL                           | NAME                     | AGE | PHONE         | CREATED AT", 
-                UIUtil.PRIMARY_COLOR);
-            vbox.getChildren().add(memberHeaderLabel);
-            
-            // Add member separator label using UIUtil
-            Label memberSeparatorLabel = UIUtil.createTableSeparator(
-                "─────────────────────────────────┼────────────────────────────┼─────┼───────────────┼──────────────");
-            vbox.getChildren().add(memberSeparatorLabel);
-
-            // Add each member
-            for (LibraryMember member : regularMembers) {
-                String memberInfo = String.format("%-31s | %-26s | %-3d | %-13s | %s",
-                    UIUtil.truncateString(member.getEmail(), 31),
-                    UIUtil.truncateString(member.getName(), 26),
-                    member.getAge(),
-                    UIUtil.truncateString(member.getPhoneNumber(), 13), // Fixed method name
-                    member.getCreatedAt().toString().substring(0, 10));
-                
-                Label memberLabel = new Label(memberInfo);
-                memberLabel.setStyle(UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px;");
-                
-                // Add hover effect using UIUtil
-                UIUtil.applyHoverEffect(memberLabel, 
-                    UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px;", 
-                    "#f0f8ff");
-                
-                vbox.getChildren().add(memberLabel);
+            TableView<LibraryMember> memberTable = createMemberTable();
+            TableColumn<LibraryMember, ?> joinedColumn = memberTable.getColumns().get(memberTable.getColumns().size() - 1);
+            joinedColumn.setSortType(TableColumn.SortType.DESCENDING);
+            memberTable.getSortOrder().add(joinedColumn);
+            memberTable.setPrefSize(800, 360);
+            VBox.setVgrow(memberTable, Priority.ALWAYS);
+
+            Label loadedLabel = new Label();
+            loadedLabel.setStyle("-fx-text-fill: #666666; -fx-font-size: 12px;");
+
+            if (directory) {
+                // Only the visible rows get cells; the filter is read by each page load
+                AtomicReference<Admin.MemberFilter> filter = new AtomicReference<>(Admin.MemberFilter.NONE);
+                PagedTable<LibraryMember> pagedTable = PagedTable.attach(memberTable, firstPage,
+                    (sortKey, ascending, token) -> Admin.getMembersPage(filter.get(),
+                        sortKey != null ? Admin.MemberSortColumn.valueOf(sortKey) : Admin.MemberSortColumn.JOINED,
+                        sortKey != null && ascending, token, DatabaseConfig.PAGE_SIZE));
+                pagedTable.onLoaded(count -> loadedLabel.setText(filter.get().isEmpty()
+                    ? "Showing " + count + " of " + view.totalMembers + " members"
+                    : "Showing " + count + (pagedTable.hasMore() ? "+" : "") + " matching members"));
+
+                vbox.getChildren().add(createFilterBar(filter, pagedTable));
+            } else {
+                // The first page must already be in the table's starting order, newest first
+                Page<LibraryMember> sortedResults = new Page<>(
+                    sortMembers(firstPage.getItems(), Admin.MemberSortColumn.JOINED.name(), false), null);
+                PagedTable.attach(memberTable, sortedResults, (sortKey, ascending, token) -> new Page<>(
+                    sortMembers(firstPage.getItems(), sortKey, ascending), null))
+                    .onLoaded(count -> loadedLabel.setText("Showing " + count + " matching members"));
             }
+            vbox.getChildren().addAll(memberTable, loadedLabel);
         }
 
         // ADMINS SECTION
@@ -86,53 +146,25 @@ public class MembersDialog {
             adminSectionLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: " + UIUtil.WARNING_COLOR + "; -fx-padding: 10px 0px;");
             vbox.getChildren().add(adminSectionLabel);
 
-            // Add admin header with column titles using UIUtil
-            Label adminHeaderLabel = UIUtil.createTableHeader(
-                "EMAIL                           | NAME                     | AGE | PHONE         | CREATED AT", 
-                UIUtil.WARNING_COLOR);
-            vbox.getChildren().add(adminHeaderLabel);
-            
-            // Add admin separator label using UIUtil
-            Label adminSeparatorLabel = UIUtil.createTableSeparator(
-                "─────────────────────────────────┼────────────────────────────┼─────┼───────────────┼──────────────");
-            vbox.getChildren().add(adminSeparatorLabel);
-
-            // Add each admin
-            for (LibraryMember admin : admins) {
-                String adminInfo = String.format("%-31s | %-26s | %-3d | %-13s | %s",
-                    UIUtil.truncateString(admin.getEmail(), 31),
-                    UIUtil.truncateString(admin.getName(), 26),
-                    admin.getAge(),
-                    UIUtil.truncateString(admin.getPhoneNumber(), 13), // Fixed method name
-                    admin.getCreatedAt().toString().substring(0, 10));
-                
-                Label adminLabel = new Label(adminInfo);
-                adminLabel.setStyle(UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-text-fill: " + UIUtil.WARNING_COLOR + ";");
-                
-                // Add hover effect using UIUtil
-                UIUtil.applyHoverEffect(adminLabel, 
-                    UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-text-fill: " + UIUtil.WARNING_COLOR + ";", 
-                    "#fff3cd");
-                
-                vbox.getChildren().add(adminLabel);
-            }
+            // Admins are few, so they are all loaded and sorted in memory
+            TableView<LibraryMember> adminTable = createMemberTable();
+            adminTable.getItems().setAll(admins);
+            adminTable.setPrefSize(800, 130);
+            vbox.getChildren().add(adminTable);
         }
 
         // Add summary statistics
         Label summaryLabel = new Label(String.format(
-            "\n📊 User Statistics:\n" +
+            "📊 User Statistics:\n" +
             "   👥 Total Members: %d\n" +
             "   🔧 Total Admins: %d\n" +
             "   📈 Total Users: %d",
-            regularMembers.size(), admins.size(), regularMembers.size() + admins.size()));
+            view.totalMembers, admins.size(), view.totalMembers + admins.size()));
         summaryLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + "; -fx-font-size: 14px;");
         vbox.getChildren().add(summaryLabel);
 
-        ScrollPane scrollPane = new ScrollPane(vbox);
-        scrollPane.setPrefSize(800, 500);
-        scrollPane.setFitToWidth(true);
-
-        dialog.getDialogPane().setContent(scrollPane);
+        UIUtil.applyTableStyles(dialog);
+        dialog.getDialogPane().setContent(vbox);
 
         javafx.scene.control.Button closeButton = (javafx.scene.control.Button) dialog.getDialogPane().lookupButton(ButtonType.CLOSE);
         closeButton.setText("Close");
@@ -141,6 +173,88 @@ public class MembersDialog {
         dialog.showAndWait();
     }
 
+    /**
+     * Table with the member columns; the user data of each sortable column names its MemberSortColumn
+     */
+    private static TableView<LibraryMember> createMemberTable() {
+        TableView<LibraryMember> table = new TableView<>();
+        table.getColumns().addAll(List.of(
+            UIUtil.createTableColumn("Email", Admin.MemberSortColumn.EMAIL.name(), 240, LibraryMember::getEmail),
+            UIUtil.createTableColumn("Name", Admin.MemberSortColumn.NAME.name(), 200, LibraryMember::getName),
+            UIUtil.createTableColumn("Age", Admin.MemberSortColumn.AGE.name(), 60, LibraryMember::getAge),
+            UIUtil.createTableColumn("Phone", null, 130, LibraryMember::getPhoneNumber),
+            UIUtil.createTableColumn("Joined", Admin.MemberSortColumn.JOINED.name(), 110, MembersDialog::joinedDate)));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        return table;
+    }
+
+    /**
+     * Name, email and join date filters for the member directory; applying one reloads the table
+     */
+    private static GridPane createFilterBar(AtomicReference<Admin.MemberFilter> filter, PagedTable<LibraryMember> pagedTable) {
+        TextField nameField = new TextField();
+        nameField.setPromptText("Name contains");
+        TextField emailField = new TextField();
+        emailField.setPromptText("Email contains");
+        DatePicker fromPicker = new DatePicker();
+        fromPicker.setPromptText("Joined from");
+        DatePicker toPicker = new DatePicker();
+        toPicker.setPromptText("Joined to");
+
+        Button applyButton = new Button("🔍 Filter");
+        applyButton.setStyle("-fx-background-color: " + UIUtil.PRIMARY_COLOR + "; -fx-text-fill: white; -fx-font-weight: bold;");
+        Button clearButton = new Button("Clear");
+
+        applyButton.setOnAction(e -> {
+            LocalDate from = fromPicker.getValue();
+            LocalDate to = toPicker.getValue();
+            if (from != null && to != null && from.isAfter(to)) {
+                AlertMsg.showError("Validation Error", "The 'Joined from' date must not be after the 'Joined to' date!");
+                return;
+            }
+            filter.set(new Admin.MemberFilter(nameField.getText(), emailField.getText(), from, to));
+            pagedTable.reload();
+        });
+        clearButton.setOnAction(e -> {
+            nameField.clear();
+            emailField.clear();
+            fromPicker.setValue(null);
+            toPicker.setValue(null);
+            applyButton.fire();
+        });
+        nameField.setOnAction(e -> applyButton.fire());
+        emailField.setOnAction(e -> applyButton.fire());
+
+        GridPane grid = UIUtil.createCompactGrid();
+        grid.setPadding(new Insets(0));
+        grid.addRow(0, nameField, emailField, fromPicker, toPicker, applyButton, clearButton);
+        return grid;
+    }
+
+    /**
+     * Search results sorted in memory, for the table's sort order
+     */
+    private static List<LibraryMember> sortMembers(List<LibraryMember> members, String sortKey, boolean ascending) {
+        Comparator<LibraryMember> order;
+        switch (sortKey != null ? Admin.MemberSortColumn.valueOf(sortKey) : Admin.MemberSortColumn.JOINED) {
+            case EMAIL: order = Comparator.comparing(LibraryMember::getEmail); break;
+            case NAME: order = Comparator.comparing(LibraryMember::getName).thenComparing(LibraryMember::getEmail); break;
+            case AGE: order = Comparator.comparingInt(LibraryMember::getAge).thenComparing(LibraryMember::getEmail); break;
+            default: order = Comparator.comparing(LibraryMember::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(LibraryMember::getEmail);
+        }
+        List<LibraryMember> sorted = new ArrayList<>(members);
+        sorted.sort(sortKey != null && ascending ? order : order.reversed());
+        return sorted;
+    }
+
+    /**
+     * Day the account was created, or null if unknown
+     */
+    private static LocalDate joinedDate(LibraryMember member) {
+        return member.getCreatedAt() != null ? member.getCreatedAt().toLocalDateTime().toLocalDate() : null;
+    }
+
     // Convert Admin objects to LibraryMember objects for consistent display
     private static List<LibraryMember> convertAdminsToLibraryMembers(List<Admin> adminList) {
         List<LibraryMember> libraryMembers = new ArrayList<>();
@@ -157,6 +271,14 @@ public class MembersDialog {
         return libraryMembers;
     }
 
+    /**
+     * Pick a roster CSV of name, email, age, phone_number, password and register its members,
+     * showing progress and rejected rows
+     */
+    public static void showImportMembersDialog() {
+        ImportDialog.showImportDialog("Members", "name, email, age, phone_number, password", new MemberImporter());
+    }
+
     /**
      * Show dialog for removing a member
      */
@@ -199,40 +321,39 @@ public class MembersDialog {
                 return;
             }
 
-            // Search for members
-            List<LibraryMember> foundMembers = Admin.searchMembersForDeletion(email, name);
-            
-            if (foundMembers.isEmpty()) {
-                AlertMsg.showError("No Members Found", "No members found matching your search criteria.");
-                event.consume();
-                return;
-            }
-
-            // Show member selection dialog
-            LibraryMember selectedMember = showMemberSelectionDialog(foundMembers);
-            if (selectedMember == null) {
-                event.consume(); // User cancelled selection
-                return;
-            }
-
-            // Show confirmation dialog
-            boolean confirmed = showDeleteMemberConfirmationDialog(selectedMember);
-            if (!confirmed) {
-                event.consume();
-                return;
-            }
-
-            // Delete the member
-            boolean deleted = Admin.deleteMemberByEmail(selectedMember.getEmail());
-            if (deleted) {
-                AlertMsg.showInformation("Success", "Member deleted successfully!\n\n" +
-                    "👤 Name: " + selectedMember.getName() + "\n" +
-                    "📧 Email: " + selectedMember.getEmail() + "\n" +
-                    "📞 Phone: " + selectedMember.getPhoneNumber());
-            } else {
-                AlertMsg.showError("Error", "Failed to delete the member. Please try again.");
-                event.consume();
-            }
+            // Search and delete in the background; the dialog closes itself after a successful delete
+            event.consume();
+            FxAsync.runWithProgress("Searching members...", () -> Admin.searchMembersForDeletion(email, name), foundMembers -> {
+                if (foundMembers == null || foundMembers.isEmpty()) {
+                    AlertMsg.showError("No Members Found", "No members found matching your search criteria.");
+                    return;
+                }
+
+                // Show member selection dialog
+                LibraryMember selectedMember = showMemberSelectionDialog(foundMembers);
+                if (selectedMember == null) {
+                    return; // User cancelled selection
+                }
+
+                // Show confirmation dialog
+                boolean confirmed = showDeleteMemberConfirmationDialog(selectedMember);
+                if (!confirmed) {
+                    return;
+                }
+
+                // Delete the member
+                FxAsync.runWithProgress("Deleting member...", () -> Admin.deleteMemberByEmail(selectedMember.getEmail()), deleted -> {
+                    if (deleted) {
+                        AlertMsg.showInformation("Success", "Member deleted successfully!\n\n" +
+                            "👤 Name: " + selectedMember.getName() + "\n" +
+                            "📧 Email: " + selectedMember.getEmail() + "\n" +
+                            "📞 Phone: " + selectedMember.getPhoneNumber());
+                        dialog.close();
+                    } else {
+                        AlertMsg.showError("Error", "Failed to delete the member. Please try again.");
+                    }
+                }, okButton);
+            }, okButton);
         });
 
         dialog.setResultConverter(dialogButton -> null);
@@ -384,23 +505,24 @@ public class MembersDialog {
                 return;
             }
 
-            // Use existing searchMembersForDeletion method for search functionality
-            List<LibraryMember> foundMembers = Admin.searchMembersForDeletion(searchTerm, searchTerm);
-            
-            if (foundMembers.isEmpty()) {
-                AlertMsg.showInformation("No Members Found", 
-                    "👥 No members found matching: '" + searchTerm + "'\n\n" +
-                    "Try searching with:\n" +
-                    "• Different spelling\n" +
-                    "• Full name or partial name\n" +
-                    "• Email address\n" +
-                    "• Different keywords");
-                event.consume();
-                return;
-            }
-
-            // Show search results using the existing method
-            showAllMembersDialog(foundMembers);
+            // Use existing searchMembersForDeletion method for search functionality, off the FX thread
+            event.consume();
+            FxAsync.runWithProgress("Searching members...", () -> Admin.searchMembersForDeletion(searchTerm, searchTerm), foundMembers -> {
+                if (foundMembers == null || foundMembers.isEmpty()) {
+                    AlertMsg.showInformation("No Members Found", 
+                        "👥 No members found matching: '" + searchTerm + "'\n\n" +
+                        "Try searching with:\n" +
+                        "• Different spelling\n" +
+                        "• Full name or partial name\n" +
+                        "• Email address\n" +
+                        "• Different keywords");
+                    return;
+                }
+
+                // Show search results using the existing method
+                dialog.close();
+                showAllMembersDialog(foundMembers);
+            }, okButton, searchField);
         });
 
         // Allow Enter key to trigger search
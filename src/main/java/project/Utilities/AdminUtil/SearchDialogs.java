@@ -3,6 +3,7 @@ package project.Utilities.AdminUtil;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.GridPane;
@@ -12,6 +13,8 @@ import project.Databases.Book;
 import project.Databases.Admin;
 import project.Databases.LibraryMember;
 import project.Utilities.AlertMsg;
+import project.Utilities.FxAsync;
+import project.Utilities.LiveSearch;
 import project.Utilities.UIUtil;
 
 import java.util.List;
@@ -19,136 +22,67 @@ import java.util.List;
 public class SearchDialogs {
     
     /**
-     * Show dialog for searching books by title or author
+     * Show dialog for searching books by title or author. Results appear in the dialog
+     * as the admin types, best matches first.
      */
     public static void showSearchBooksDialog() {
         Dialog<Void> dialog = new Dialog<>();
         UIUtil.setupDialog(dialog, "Search Books by Title or Author");
 
-        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
-
-        GridPane grid = UIUtil.createDialogGrid();
-
-        TextField searchField = new TextField();
-        searchField.setPromptText("Enter book title or author name");
-        searchField.setPrefWidth(300);
-
-        Label adminLabel = UIUtil.createUserLabel("Searching", "admin");
-
-        grid.add(adminLabel, 0, 0, 2, 1);
-        grid.add(new Label("Search Term:"), 0, 1);
-        grid.add(searchField, 1, 1);
-
-        dialog.getDialogPane().setContent(grid);
-        searchField.requestFocus();
-        
-        javafx.scene.control.Button okButton = (javafx.scene.control.Button) dialog.getDialogPane().lookupButton(ButtonType.OK);
-        
-        okButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
-            String searchTerm = searchField.getText().trim();
-            
-            if (searchTerm.isEmpty()) {
-                AlertMsg.showError("Validation Error", "Please enter a search term!");
-                event.consume();
-                return;
-            }
-
-            List<Book> foundBooks = Book.searchBooks(searchTerm);
-            
-            if (foundBooks.isEmpty()) {
-                AlertMsg.showInformation("No Books Found", 
-                    "📚 No books found matching: '" + searchTerm + "'\n\n" +
-                    "Try searching with:\n" +
-                    "• Different spelling\n" +
-                    "• Author's last name\n" +
-                    "• Partial book title\n" +
-                    "• Different keywords");
-                event.consume();
-                return;
-            }
-
-            showSearchResultsDialog(foundBooks, searchTerm);
-        });
-
-        searchField.setOnAction(e -> okButton.fire());
-
-        dialog.setResultConverter(dialogButton -> null);
-        dialog.showAndWait();
-    }
-
-    /**
-     * Show search results in a formatted dialog
-     */
-    public static void showSearchResultsDialog(List<Book> books, String searchTerm) {
-        Dialog<Void> dialog = new Dialog<>();
-        UIUtil.setupDialog(dialog, "📚 Search Results for: '" + searchTerm + "' (" + books.size() + " books found)");
-
         dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
 
         VBox vbox = new VBox(10);
         vbox.setPadding(new Insets(20));
 
-        Label headerLabel = UIUtil.createTableHeader("ID    | TITLE                           | AUTHOR                     | TOTAL | AVAILABLE | BORROWED", UIUtil.PRIMARY_COLOR);
-        vbox.getChildren().add(headerLabel);
-        
-        Label separatorLabel = UIUtil.createTableSeparator("─────┼─────────────────────────────────┼────────────────────────────┼───────┼───────────┼─────────");
-        vbox.getChildren().add(separatorLabel);
+        TextField searchField = new TextField();
+        searchField.setPromptText("Start typing a book title or author name");
+        searchField.setPrefWidth(400);
 
-        for (Book book : books) {
-            int borrowedCopies = book.getTotalCopies() - book.getAvailableCopies();
-            
-            String bookInfo = String.format("%-5d | %-31s | %-26s | %-5d | %-9d | %-8d",
-                book.getId(),
-                UIUtil.truncateString(book.getTitle(), 31),
-                UIUtil.truncateString(book.getAuthor(), 26),
-                book.getTotalCopies(),
-                book.getAvailableCopies(),
-                borrowedCopies);
-            
-            Label bookLabel = new Label(bookInfo);
-            bookLabel.setStyle(UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px;");
-            
-            UIUtil.applyHoverEffect(bookLabel, 
-                UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px;", 
-                "#f0f8ff");
-            
-            if (book.getAvailableCopies() == 0) {
-                bookLabel.setStyle(UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-background-color: #ffe6e6; -fx-text-fill: " + UIUtil.DANGER_COLOR + ";");
-                
-                UIUtil.applyHoverEffect(bookLabel, 
-                    UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-background-color: #ffe6e6; -fx-text-fill: " + UIUtil.DANGER_COLOR + ";", 
-                    "#ffcccc");
-            }
-            
-            vbox.getChildren().add(bookLabel);
-        }
+        Label adminLabel = UIUtil.createUserLabel("Searching", "admin");
 
-        int totalCopies = books.stream().mapToInt(Book::getTotalCopies).sum();
-        int availableCopies = books.stream().mapToInt(Book::getAvailableCopies).sum();
-        int borrowedCopies = totalCopies - availableCopies;
-        
-        Label summaryLabel = new Label(String.format(
-            "\n📊 Summary: %d books found | %d total copies | %d available | %d borrowed",
-            books.size(), totalCopies, availableCopies, borrowedCopies));
+        Label statusLabel = new Label("Type to search the catalog");
+        statusLabel.setStyle("-fx-text-fill: #666666; -fx-font-size: 12px;");
+
+        // Results are capped at the search limit, so the table never holds more than a few hundred rows
+        TableView<Book> table = new TableView<>();
+        table.getColumns().addAll(List.of(
+            UIUtil.createTableColumn("ID", null, 60, Book::getId),
+            UIUtil.createTableColumn("Title", null, 260, Book::getTitle),
+            UIUtil.createTableColumn("Author", null, 190, Book::getAuthor),
+            UIUtil.createTableColumn("Total", null, 60, Book::getTotalCopies),
+            UIUtil.createTableColumn("Available", null, 80, Book::getAvailableCopies),
+            UIUtil.createTableColumn("Borrowed", null, 80, book -> book.getTotalCopies() - book.getAvailableCopies())));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.setPlaceholder(new Label("No books to show"));
+        table.setPrefSize(800, 420);
+        UIUtil.applyRowState(table, "out-of-stock", book -> book.getAvailableCopies() == 0);
+
+        Label summaryLabel = new Label();
         summaryLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + "; -fx-font-size: 14px;");
-        vbox.getChildren().add(summaryLabel);
 
-        if (books.size() < 5) {
-            Label tipsLabel = new Label("\n💡 Tips: Try searching with partial titles, author surnames, or different keywords for more results.");
-            tipsLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #666666; -fx-font-size: 12px;");
-            vbox.getChildren().add(tipsLabel);
-        }
+        vbox.getChildren().addAll(adminLabel, searchField, statusLabel, table, summaryLabel);
 
-        ScrollPane scrollPane = new ScrollPane(vbox);
-        scrollPane.setPrefSize(800, 500);
-        scrollPane.setFitToWidth(true);
+        LiveSearch<Book> liveSearch = LiveSearch.attach(searchField, Book::searchBooks, (searchTerm, books) -> {
+            table.getItems().setAll(books);
+            statusLabel.setText(UIUtil.describeSearchResults(searchTerm, books.size(), "books"));
 
-        dialog.getDialogPane().setContent(scrollPane);
+            int totalCopies = books.stream().mapToInt(Book::getTotalCopies).sum();
+            int availableCopies = books.stream().mapToInt(Book::getAvailableCopies).sum();
+            summaryLabel.setText(books.isEmpty() ? "" : String.format(
+                "📊 Summary: %d books found | %d total copies | %d available | %d borrowed",
+                books.size(), totalCopies, availableCopies, totalCopies - availableCopies));
+        }).onSearching(searchTerm -> statusLabel.setText("🔍 Searching for '" + searchTerm + "'..."));
+
+        UIUtil.applyTableStyles(dialog);
+        dialog.getDialogPane().setContent(vbox);
+        dialog.setOnShown(e -> searchField.requestFocus());
+        dialog.setOnHidden(e -> liveSearch.cancel());
 
         javafx.scene.control.Button closeButton = (javafx.scene.control.Button) dialog.getDialogPane().lookupButton(ButtonType.CLOSE);
         closeButton.setText("Close");
         closeButton.setStyle("-fx-background-color: " + UIUtil.PRIMARY_COLOR + "; -fx-text-fill: white; -fx-font-weight: bold;");
 
+        dialog.setResultConverter(dialogButton -> null);
         dialog.showAndWait();
     }
 
@@ -187,21 +121,22 @@ public class SearchDialogs {
                 return;
             }
 
-            List<LibraryMember> foundMembers = Admin.searchMembersForDeletion(searchTerm, searchTerm);
-            
-            if (foundMembers.isEmpty()) {
-                AlertMsg.showInformation("No Members Found", 
-                    "👥 No members found matching: '" + searchTerm + "'\n\n" +
-                    "Try searching with:\n" +
-                    "• Different spelling\n" +
-                    "• Member's full name\n" +
-                    "• Partial email address\n" +
-                    "• Different keywords");
-                event.consume();
-                return;
-            }
-
-            showMemberSearchResultsDialog(foundMembers, searchTerm);
+            event.consume();
+            FxAsync.runWithProgress("Searching members...", () -> Admin.searchMembersForDeletion(searchTerm, searchTerm), foundMembers -> {
+                if (foundMembers == null || foundMembers.isEmpty()) {
+                    AlertMsg.showInformation("No Members Found", 
+                        "👥 No members found matching: '" + searchTerm + "'\n\n" +
+                        "Try searching with:\n" +
+                        "• Different spelling\n" +
+                        "• Member's full name\n" +
+                        "• Partial email address\n" +
+                        "• Different keywords");
+                    return;
+                }
+
+                showMemberSearchResultsDialog(foundMembers, searchTerm);
+                dialog.close();
+            }, okButton, searchField);
         });
 
         searchField.setOnAction(e -> okButton.fire());
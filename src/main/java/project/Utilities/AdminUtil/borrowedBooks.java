@@ -1,20 +1,35 @@
 package project.Utilities.AdminUtil;
 
+import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.DatePicker;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.geometry.Insets;
+import project.Databases.Book;
 import project.Databases.Connect;
+import project.Databases.DatabaseConfig;
+import project.Databases.Page;
+import project.Utilities.AlertMsg;
+import project.Utilities.FxAsync;
+import project.Utilities.PagedTable;
 import project.Utilities.SwitchSceneUtil;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
+import project.Utilities.UIUtil;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class borrowedBooks {
     
@@ -43,15 +58,18 @@ public class borrowedBooks {
     }
 
     /**
-     * Show all borrowers and their borrowed books
+     * Show all borrowers and their borrowed books, filtered by the database
      */
     public static void showAllBorrowersDialog() {
-        // Get all borrower information from the database
-        List<BorrowerInfo> borrowers = getAllBorrowers();
-        
+        // Load the first page in the background; later pages load as the user scrolls
+        FxAsync.runWithProgress("Loading borrowers...",
+            () -> getBorrowersPage(null, DatabaseConfig.PAGE_SIZE), borrowedBooks::showAllBorrowersDialog);
+    }
+
+    private static void showAllBorrowersDialog(Page<BorrowerInfo> firstPage) {
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle(null);
-        dialog.setHeaderText("📚 All Library Borrowers (" + borrowers.size() + " borrowed books total)");
+        dialog.setHeaderText("📚 All Library Borrowers");
 
         dialog.setOnShowing(e -> {
             Stage stage = (Stage) dialog.getDialogPane().getScene().getWindow();
@@ -60,7 +78,7 @@ public class borrowedBooks {
 
         dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
 
-        if (borrowers.isEmpty()) {
+        if (firstPage.getItems().isEmpty()) {
             // Show empty state
             VBox emptyVBox = new VBox(20);
             emptyVBox.setPadding(new Insets(40));
@@ -77,81 +95,63 @@ public class borrowedBooks {
             VBox vbox = new VBox(10);
             vbox.setPadding(new Insets(20));
 
-            // Add header with column titles
-            Label headerLabel = new Label("MEMBER NAME             | EMAIL                     | BOOK TITLE              | AUTHOR                | BORROW DATE  | RETURN DATE  | STATUS");
-            headerLabel.setStyle("-fx-font-family: 'Consolas', monospace; -fx-font-size: 11px; -fx-font-weight: bold; -fx-text-fill: #0598ff;");
-            vbox.getChildren().add(headerLabel);
-            
-            // Add separator line
-            Label separatorLabel = new Label("─────────────────────────┼─────────────────────────┼─────────────────────────┼─────────────────────┼──────────────┼──────────────┼──────────");
-            separatorLabel.setStyle("-fx-font-family: 'Consolas', monospace; -fx-font-size: 11px; -fx-text-fill: #cccccc;");
-            vbox.getChildren().add(separatorLabel);
-
-            // Add each borrower record
-            for (BorrowerInfo borrower : borrowers) {
-                String status = borrower.isReturned ? "Returned" : "Borrowed";
-                String returnDateStr = borrower.returnDate != null ? borrower.returnDate.substring(0, 10) : "N/A";
-                String borrowDateStr = borrower.borrowDate != null ? borrower.borrowDate.substring(0, 10) : "N/A";
-                
-                String borrowerInfo = String.format("%-23s | %-23s | %-23s | %-19s | %-12s | %-12s | %s",
-                    truncateString(borrower.memberName, 23),
-                    truncateString(borrower.memberEmail, 23),
-                    truncateString(borrower.bookTitle, 23),
-                    truncateString(borrower.bookAuthor, 19),
-                    borrowDateStr,
-                    returnDateStr,
-                    status);
-                
-                Label borrowerLabel = new Label(borrowerInfo);
-                borrowerLabel.setStyle("-fx-font-family: 'Consolas', monospace; -fx-font-size: 10px; -fx-padding: 2px 0px;");
-                
-                // Add hover effect
-                borrowerLabel.setOnMouseEntered(e -> 
-                    borrowerLabel.setStyle("-fx-font-family: 'Consolas', monospace; -fx-font-size: 10px; -fx-padding: 2px 0px; -fx-background-color: #f0f8ff;"));
-                borrowerLabel.setOnMouseExited(e -> 
-                    borrowerLabel.setStyle("-fx-font-family: 'Consolas', monospace; -fx-font-size: 10px; -fx-padding: 2px 0px;"));
-                
-                // Highlight currently borrowed books
-                if (!borrower.isReturned) {
-                    borrowerLabel.setStyle("-fx-font-family: 'Consolas', monospace; -fx-font-size: 10px; -fx-padding: 2px 0px; -fx-background-color: #fff3cd; -fx-text-fill: #856404;");
-                    
-                    borrowerLabel.setOnMouseEntered(e -> 
-                        borrowerLabel.setStyle("-fx-font-family: 'Consolas', monospace; -fx-font-size: 10px; -fx-padding: 2px 0px; -fx-background-color: #ffeaa7; -fx-text-fill: #856404;"));
-                    borrowerLabel.setOnMouseExited(e -> 
-                        borrowerLabel.setStyle("-fx-font-family: 'Consolas', monospace; -fx-font-size: 10px; -fx-padding: 2px 0px; -fx-background-color: #fff3cd; -fx-text-fill: #856404;"));
-                }
-                
-                vbox.getChildren().add(borrowerLabel);
-            }
+            // Newest loans first; the order is fixed so every filter can page along its index
+            TableView<BorrowerInfo> table = new TableView<>();
+            table.getColumns().addAll(List.of(
+                UIUtil.createTableColumn("Member", null, 150, borrower -> borrower.memberName),
+                UIUtil.createTableColumn("Email", null, 180, borrower -> borrower.memberEmail),
+                UIUtil.createTableColumn("Book", null, 190, borrower -> borrower.bookTitle),
+                UIUtil.createTableColumn("Author", null, 150, borrower -> borrower.bookAuthor),
+                UIUtil.createTableColumn("Borrowed", null, 95, borrower -> formatDate(borrower.borrowDate)),
+                UIUtil.createTableColumn("Returned", null, 95, borrower -> formatDate(borrower.returnDate)),
+                UIUtil.createTableColumn("Status", null, 80, borrower -> borrower.isReturned ? "Returned" : "Borrowed")));
+            table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+            table.setPrefSize(1000, 420);
+            VBox.setVgrow(table, Priority.ALWAYS);
 
-            // Add summary statistics
-            int totalBorrows = borrowers.size();
-            int currentlyBorrowed = (int) borrowers.stream().filter(b -> !b.isReturned).count();
-            int returned = totalBorrows - currentlyBorrowed;
-            int uniqueMembers = (int) borrowers.stream().map(b -> b.memberEmail).distinct().count();
-            int uniqueBooks = (int) borrowers.stream().map(b -> b.bookTitle).distinct().count();
-            
-            Label summaryLabel = new Label(String.format(
-                "\n📊 Borrowing Statistics:\n" +
-                "   📚 Total Borrows: %d records | 👥 Unique Members: %d | 📖 Unique Books: %d\n" +
-                "   📖 Currently Borrowed: %d books | ✅ Returned: %d books\n" +
-                "   📈 Return Rate: %.1f%%",
-                totalBorrows, uniqueMembers, uniqueBooks, currentlyBorrowed, returned, 
-                totalBorrows > 0 ? (returned * 100.0 / totalBorrows) : 0.0));
+            Label loadedLabel = new Label();
+            loadedLabel.setStyle("-fx-text-fill: #666666; -fx-font-size: 12px;");
+
+            Label summaryLabel = new Label();
             summaryLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #0598ff; -fx-font-size: 14px;");
-            vbox.getChildren().add(summaryLabel);
+
+            // The filter is read by each page load; totals of an older filter are dropped when they arrive
+            AtomicReference<BorrowerFilter> filter = new AtomicReference<>(BorrowerFilter.NONE);
+            AtomicLong latestSummary = new AtomicLong();
+            Consumer<BorrowerFilter> loadSummary = summaryFilter -> {
+                long requested = latestSummary.incrementAndGet();
+                summaryLabel.setText("📊 Borrowing Statistics: calculating...");
+                // Totals of the whole history take a while on a big database, so the table is shown first
+                FxAsync.run(() -> getBorrowerSummary(summaryFilter), totals -> {
+                    if (requested == latestSummary.get()) {
+                        showSummary(summaryLabel, totals);
+                        if (summaryFilter.isEmpty()) {
+                            dialog.setHeaderText("📚 All Library Borrowers (" + totals.totalBorrows + " borrowed books total)");
+                        }
+                    }
+                });
+            };
+            loadSummary.accept(BorrowerFilter.NONE);
+            PagedTable<BorrowerInfo> pagedTable = PagedTable.attach(table, firstPage,
+                (sortKey, ascending, token) -> getBorrowersPage(filter.get(), token, DatabaseConfig.PAGE_SIZE))
+                .withRowState("active-loan", borrower -> !borrower.isReturned);
+            pagedTable.onLoaded(count -> loadedLabel.setText(
+                "Showing " + count + (pagedTable.hasMore() ? "+" : "") + " borrowing records"));
+
+            vbox.getChildren().addAll(createFilterBar(newFilter -> {
+                filter.set(newFilter);
+                pagedTable.reload();
+                loadSummary.accept(newFilter);
+            }), table, loadedLabel, summaryLabel);
 
             // Add view information
             String userInfo = SwitchSceneUtil.currentUserEmail != null ? SwitchSceneUtil.currentUserEmail : "admin@library.com";
-            Label viewInfoLabel = new Label("\n👤 Viewing as: " + userInfo + " (ADMIN)");
+            Label viewInfoLabel = new Label("👤 Viewing as: " + userInfo + " (ADMIN)");
             viewInfoLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #666666; -fx-font-size: 12px;");
             vbox.getChildren().add(viewInfoLabel);
 
-            ScrollPane scrollPane = new ScrollPane(vbox);
-            scrollPane.setPrefSize(1000, 600); // Increased width for all columns
-            scrollPane.setFitToWidth(true);
-
-            dialog.getDialogPane().setContent(scrollPane);
+            UIUtil.applyTableStyles(dialog);
+            dialog.getDialogPane().setContent(vbox);
         }
         
         // Apply consistent styling
@@ -171,46 +171,218 @@ public class borrowedBooks {
     }
 
     /**
-     * Get all borrower information from the database using the member_borrowed_books view
+     * Active only, date range, member and book filters; applying them hands the new filter on
      */
-    private static List<BorrowerInfo> getAllBorrowers() {
-        List<BorrowerInfo> borrowers = new ArrayList<>();
-        
-        String query = "SELECT member_name, member_email, book_title, book_author, " +
-                      "borrow_date, return_date, is_returned " +
-                      "FROM member_borrowed_books " +
-                      "ORDER BY borrow_date DESC, member_name ASC";
-        
-        try (Connection conn = Connect.getDBConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                borrowers.add(new BorrowerInfo(
-                    rs.getString("member_name"),
-                    rs.getString("member_email"),
-                    rs.getString("book_title"),
-                    rs.getString("book_author"),
-                    rs.getString("borrow_date"),
-                    rs.getString("return_date"),
-                    rs.getBoolean("is_returned")
-                ));
+    private static GridPane createFilterBar(Consumer<BorrowerFilter> onApply) {
+        CheckBox activeOnlyBox = new CheckBox("Active loans only");
+        TextField memberField = new TextField();
+        memberField.setPromptText("Member email");
+        TextField bookField = new TextField();
+        bookField.setPromptText("Book title or author");
+        DatePicker fromPicker = new DatePicker();
+        fromPicker.setPromptText("Borrowed from");
+        DatePicker toPicker = new DatePicker();
+        toPicker.setPromptText("Borrowed to");
+
+        Button applyButton = new Button("🔍 Filter");
+        applyButton.setStyle("-fx-background-color: #0598ff; -fx-text-fill: white; -fx-font-weight: bold;");
+        Button clearButton = new Button("Clear");
+
+        applyButton.setOnAction(e -> {
+            LocalDate from = fromPicker.getValue();
+            LocalDate to = toPicker.getValue();
+            if (from != null && to != null && from.isAfter(to)) {
+                AlertMsg.showError("Validation Error", "The 'Borrowed from' date must not be after the 'Borrowed to' date!");
+                return;
+            }
+            onApply.accept(new BorrowerFilter(activeOnlyBox.isSelected(), from, to, memberField.getText(), bookField.getText()));
+        });
+        clearButton.setOnAction(e -> {
+            activeOnlyBox.setSelected(false);
+            memberField.clear();
+            bookField.clear();
+            fromPicker.setValue(null);
+            toPicker.setValue(null);
+            applyButton.fire();
+        });
+        memberField.setOnAction(e -> applyButton.fire());
+        bookField.setOnAction(e -> applyButton.fire());
+
+        GridPane grid = UIUtil.createCompactGrid();
+        grid.setPadding(new Insets(0));
+        grid.addRow(0, memberField, bookField, fromPicker, toPicker);
+        grid.addRow(1, activeOnlyBox, applyButton, clearButton);
+        return grid;
+    }
+
+    private static void showSummary(Label summaryLabel, BorrowerSummary summary) {
+        summaryLabel.setText(String.format(
+            "📊 Borrowing Statistics:\n" +
+            "   📚 Total Borrows: %d records | 👥 Unique Members: %d | 📖 Unique Books: %d\n" +
+            "   📖 Currently Borrowed: %d books | ✅ Returned: %d books\n" +
+            "   📈 Return Rate: %.1f%%",
+            summary.totalBorrows, summary.uniqueMembers, summary.uniqueBooks, summary.currentlyBorrowed, summary.getReturned(),
+            summary.totalBorrows > 0 ? (summary.getReturned() * 100.0 / summary.totalBorrows) : 0.0));
+    }
+
+    /**
+     * Day part of a stored timestamp, or "N/A" if there is none
+     */
+    private static String formatDate(String timestamp) {
+        return timestamp != null && timestamp.length() >= 10 ? timestamp.substring(0, 10) : "N/A";
+    }
+
+    /**
+     * Conditions for the borrower report; null or blank fields match every loan
+     */
+    public static class BorrowerFilter {
+        public static final BorrowerFilter NONE = new BorrowerFilter(false, null, null, null, null);
+
+        /** Only loans that have not been returned */
+        public final boolean activeOnly;
+        /** First and last day borrowed, inclusive */
+        public final LocalDate borrowedFrom;
+        public final LocalDate borrowedTo;
+        /** Exact email of the member */
+        public final String memberEmail;
+        /** Words of the book title or author, matched like the book search */
+        public final String book;
+
+        public BorrowerFilter(boolean activeOnly, LocalDate borrowedFrom, LocalDate borrowedTo, String memberEmail, String book) {
+            this.activeOnly = activeOnly;
+            this.borrowedFrom = borrowedFrom;
+            this.borrowedTo = borrowedTo;
+            this.memberEmail = memberEmail != null && !memberEmail.trim().isEmpty() ? memberEmail.trim() : null;
+            this.book = book != null && !book.trim().isEmpty() ? book.trim() : null;
+        }
+
+        public boolean isEmpty() {
+            return !activeOnly && borrowedFrom == null && borrowedTo == null && memberEmail == null && book == null;
+        }
+
+        /**
+         * Add this filter's SQL conditions on borrowed_books (aliased bb) and their parameters
+         */
+        private void appendConditions(List<String> conditions, List<Object> params) {
+            if (activeOnly) {
+                // Written as in the partial index on active loans, so SQLite can use it
+                conditions.add("bb.is_returned = 0");
+            }
+            // borrow_date is stored as 'YYYY-MM-DD HH:MM:SS' text, so whole days compare as strings
+            if (borrowedFrom != null) {
+                conditions.add("bb.borrow_date >= ?");
+                params.add(borrowedFrom.toString());
+            }
+            if (borrowedTo != null) {
+                conditions.add("bb.borrow_date < ?");
+                params.add(borrowedTo.plusDays(1).toString());
+            }
+            if (memberEmail != null) {
+                conditions.add("bb.member_email = ?");
+                params.add(memberEmail);
+            }
+            String matchQuery = Book.toMatchQuery(book);
+            if (matchQuery != null) {
+                conditions.add("bb.book_id IN (SELECT rowid FROM books_fts WHERE books_fts MATCH ?)");
+                params.add(matchQuery);
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error retrieving borrower information: " + e.getMessage());
-            e.printStackTrace();
         }
-        
-        return borrowers;
     }
 
     /**
-     * Helper method to truncate strings that are too long for display
+     * Loan totals for the loans matching a filter
      */
-    private static String truncateString(String str, int maxLength) {
-        if (str == null) return "";
-        if (str.length() <= maxLength) return str;
-        return str.substring(0, maxLength - 3) + "...";
+    public static class BorrowerSummary {
+        public int totalBorrows;
+        public int currentlyBorrowed;
+        public int uniqueMembers;
+        public int uniqueBooks;
+
+        public int getReturned() { return totalBorrows - currentlyBorrowed; }
+    }
+
+    private static final String BORROWER_COLUMNS =
+        "SELECT m.name AS member_name, m.email AS member_email, b.title AS book_title, b.author AS book_author, " +
+        "bb.borrow_date, bb.return_date, bb.is_returned, bb.id " +
+        "FROM borrowed_books bb " +
+        "JOIN members m ON bb.member_email = m.email " +
+        "JOIN books b ON bb.book_id = b.id";
+
+    private static final String[] BORROWER_PAGE_KEYS = { "borrow_date", "id" };
+
+    /**
+     * Get one page of borrowing records, newest first, using keyset pagination on (borrow_date, id)
+     * @param pageToken Token from the previous page, or null for the first page
+     * @param limit Maximum records on the page
+     */
+    public static Page<BorrowerInfo> getBorrowersPage(String pageToken, int limit) {
+        return getBorrowersPage(BorrowerFilter.NONE, pageToken, limit);
+    }
+
+    /**
+     * Get one page of the borrowing records matching a filter, newest first. Every filter
+     * has an index ending in (borrow_date, id), so the page is read in order without sorting.
+     * @param pageToken Token from the previous page of the same filter, or null for the first page
+     * @param limit Maximum records on the page
+     */
+    public static Page<BorrowerInfo> getBorrowersPage(BorrowerFilter filter, String pageToken, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        filter.appendConditions(conditions, params);
+
+        String[] after = Page.decodeToken(pageToken, BORROWER_PAGE_KEYS.length);
+        if (after != null) {
+            conditions.add("(bb.borrow_date, bb.id) < (?, ?)");
+            params.add(after[0]);
+            params.add(after[1]);
+        }
+
+        String query = BORROWER_COLUMNS + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) +
+                       " ORDER BY bb.borrow_date DESC, bb.id DESC";
+        return Connect.executePage(query, borrowedBooks::mapBorrower, BORROWER_PAGE_KEYS, limit, params.toArray());
+    }
+
+    /**
+     * Totals for the loans matching a filter, computed by SQLite in one aggregate query
+     * over borrowed_books instead of from the loaded rows
+     * @return the totals, all 0 if they could not be loaded
+     */
+    public static BorrowerSummary getBorrowerSummary(BorrowerFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        filter.appendConditions(conditions, params);
+
+        String query = "SELECT COUNT(*), COALESCE(SUM(bb.is_returned = 0), 0), " +
+                      "COUNT(DISTINCT bb.member_email), COUNT(DISTINCT bb.book_id) " +
+                      "FROM borrowed_books bb" +
+                      (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions));
+        BorrowerSummary summary = Connect.executeQuery(query, rs -> {
+            try {
+                BorrowerSummary totals = new BorrowerSummary();
+                if (rs.next()) {
+                    totals.totalBorrows = rs.getInt(1);
+                    totals.currentlyBorrowed = rs.getInt(2);
+                    totals.uniqueMembers = rs.getInt(3);
+                    totals.uniqueBooks = rs.getInt(4);
+                }
+                return totals;
+            } catch (SQLException e) {
+                System.err.println("Error loading borrower summary: " + e.getMessage());
+                return null;
+            }
+        }, params.toArray());
+        return summary != null ? summary : new BorrowerSummary();
+    }
+
+    private static BorrowerInfo mapBorrower(ResultSet rs) throws SQLException {
+        return new BorrowerInfo(
+            rs.getString("member_name"),
+            rs.getString("member_email"),
+            rs.getString("book_title"),
+            rs.getString("book_author"),
+            rs.getString("borrow_date"),
+            rs.getString("return_date"),
+            rs.getBoolean("is_returned")
+        );
     }
 }
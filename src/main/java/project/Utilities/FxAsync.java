@@ -0,0 +1,131 @@
+package project.Utilities;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.stage.Window;
+import javafx.util.Duration;
+import project.Databases.AsyncDatabase;
+
+/**
+ * Runs database work off the JavaFX application thread and brings the result back to it,
+ * so dialogs and controllers stay responsive while SQLite is busy.
+ */
+public class FxAsync {
+
+    /** Work that finishes faster than this never shows the progress popup */
+    private static final Duration PROGRESS_DELAY = Duration.millis(200);
+
+    /**
+     * Run database work in the background and hand the result to the FX thread
+     * @param work Database work, runs off the FX thread
+     * @param onSuccess Receives the result on the FX thread
+     */
+    public static <T> CompletableFuture<T> run(Supplier<T> work, Consumer<T> onSuccess) {
+        return run(work, onSuccess, FxAsync::showFailure);
+    }
+
+    /**
+     * Same as {@link #run(Supplier, Consumer)} with custom failure handling instead of an error alert
+     * @param onFailure Receives the error on the FX thread
+     */
+    public static <T> CompletableFuture<T> run(Supplier<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        return deliver(AsyncDatabase.supply(work), onSuccess, onFailure, () -> {});
+    }
+
+    /**
+     * Hand the result of work that is already running (e.g. several queries combined
+     * with CompletableFuture.allOf) to the FX thread
+     * @param onSuccess Receives the result on the FX thread
+     * @param onFailure Receives the error on the FX thread
+     */
+    public static <T> CompletableFuture<T> whenDone(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        return deliver(future, onSuccess, onFailure, () -> {});
+    }
+
+    /**
+     * Same as {@link #run}, showing a progress indicator if the work takes a while
+     * and disabling the given controls (e.g. the dialog's OK button) until it finishes
+     * @param message Text shown next to the progress indicator
+     */
+    public static <T> CompletableFuture<T> runWithProgress(String message, Supplier<T> work, Consumer<T> onSuccess, Node... busyControls) {
+        for (Node control : busyControls) {
+            control.setDisable(true);
+        }
+
+        Stage progressStage = createProgressStage(message);
+        PauseTransition delay = new PauseTransition(PROGRESS_DELAY);
+        delay.setOnFinished(e -> progressStage.show());
+        delay.play();
+
+        return deliver(AsyncDatabase.supply(work), onSuccess, FxAsync::showFailure, () -> {
+            delay.stop();
+            progressStage.close();
+            for (Node control : busyControls) {
+                control.setDisable(false);
+            }
+        });
+    }
+
+    /**
+     * Once the future completes, run cleanup and then the success callback (or an error alert) on the FX thread
+     */
+    private static <T> CompletableFuture<T> deliver(CompletableFuture<T> future, Consumer<T> onSuccess,
+                                                    Consumer<Throwable> onFailure, Runnable cleanup) {
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            cleanup.run();
+            if (error != null) {
+                onFailure.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else {
+                onSuccess.accept(result);
+            }
+        }));
+        return future;
+    }
+
+    /**
+     * Small undecorated popup with a spinning progress indicator
+     */
+    private static Stage createProgressStage(String message) {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setPrefSize(32, 32);
+
+        Label label = new Label(message);
+        label.setStyle("-fx-font-size: 13px; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + ";");
+
+        HBox box = new HBox(12, indicator, label);
+        box.setPadding(new Insets(15, 20, 15, 20));
+        box.setStyle("-fx-background-color: white; " + UIUtil.PRIMARY_DIALOG_STYLE);
+
+        Stage stage = new Stage(StageStyle.UNDECORATED);
+        stage.setScene(new Scene(box));
+        stage.setAlwaysOnTop(true);
+
+        Window owner = Window.getWindows().stream().filter(Window::isFocused).findFirst().orElse(null);
+        if (owner != null) {
+            stage.initOwner(owner);
+        }
+        return stage;
+    }
+
+    private static void showFailure(Throwable cause) {
+        System.err.println("Background database task failed: " + cause.getMessage());
+        cause.printStackTrace();
+        AlertMsg.showError("Database Error",
+            "The request could not be completed.\n\n" +
+            "Error details: " + cause.getMessage() + "\n\n" +
+            "Please try again or contact system administrator.");
+    }
+}
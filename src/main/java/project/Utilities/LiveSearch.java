@@ -0,0 +1,115 @@
+package project.Utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javafx.animation.PauseTransition;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+import project.Databases.Connect;
+import project.Databases.DatabaseConfig;
+import project.Databases.QueryCancellation;
+
+/**
+ * Search-as-you-type for a text field.
+ *
+ * The search runs once typing pauses for {@link DatabaseConfig#SEARCH_DEBOUNCE_MS}, or at
+ * once on Enter. Every keystroke cancels the search that is still running, interrupting
+ * its query in SQLite, so a fast typist never has more than one search on the database
+ * and never sees the results of older text.
+ */
+public class LiveSearch<T> {
+    private final TextField field;
+    private final Function<String, List<T>> search;
+    private final BiConsumer<String, List<T>> onResults;
+    private final PauseTransition debounce = new PauseTransition(Duration.millis(DatabaseConfig.SEARCH_DEBOUNCE_MS));
+    private Consumer<String> onSearching = text -> {};
+
+    private QueryCancellation running;
+    // Bumped on every keystroke, so results of older text are dropped when they arrive
+    private long generation = 0;
+
+    private LiveSearch(TextField field, Function<String, List<T>> search, BiConsumer<String, List<T>> onResults) {
+        this.field = field;
+        this.search = search;
+        this.onResults = onResults;
+    }
+
+    /**
+     * Search as the user types in the field
+     * @param search Runs off the FX thread with the trimmed text; null counts as no results
+     * @param onResults Receives the text and its results on the FX thread; blank text gets an empty list without searching
+     */
+    public static <T> LiveSearch<T> attach(TextField field, Function<String, List<T>> search, BiConsumer<String, List<T>> onResults) {
+        LiveSearch<T> liveSearch = new LiveSearch<>(field, search, onResults);
+        liveSearch.debounce.setOnFinished(e -> liveSearch.start());
+        field.textProperty().addListener((observable, oldText, newText) -> {
+            liveSearch.cancelRunning();
+            liveSearch.debounce.playFromStart();
+        });
+        field.setOnAction(e -> liveSearch.refresh());
+        return liveSearch;
+    }
+
+    /**
+     * Run on the FX thread when a search starts, e.g. to show "Searching..."
+     */
+    public LiveSearch<T> onSearching(Consumer<String> onSearching) {
+        this.onSearching = onSearching;
+        return this;
+    }
+
+    /**
+     * Search the current text now, e.g. after the data behind the results changed
+     */
+    public void refresh() {
+        debounce.stop();
+        cancelRunning();
+        start();
+    }
+
+    /**
+     * Stop the running search, e.g. when the dialog closes
+     */
+    public void cancel() {
+        debounce.stop();
+        cancelRunning();
+    }
+
+    private void cancelRunning() {
+        generation++;
+        if (running != null) {
+            running.cancel();
+            running = null;
+        }
+    }
+
+    private void start() {
+        String text = field.getText() == null ? "" : field.getText().trim();
+        long requested = generation;
+        if (text.isEmpty()) {
+            onResults.accept(text, new ArrayList<>());
+            return;
+        }
+
+        QueryCancellation cancellation = new QueryCancellation();
+        running = cancellation;
+        onSearching.accept(text);
+        FxAsync.run(() -> Connect.cancellable(cancellation, () -> search.apply(text)), results -> {
+            if (requested != generation) {
+                return;
+            }
+            running = null;
+            onResults.accept(text, results != null ? results : new ArrayList<>());
+        }, error -> {
+            if (requested == generation) {
+                running = null;
+                System.err.println("Search failed: " + error.getMessage());
+                onResults.accept(text, new ArrayList<>());
+            }
+        });
+    }
+}
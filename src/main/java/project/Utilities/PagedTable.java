@@ -0,0 +1,190 @@
+package project.Utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import project.Databases.Page;
+
+/**
+ * Feeds a TableView from a keyset-paginated query, one page at a time.
+ *
+ * The TableView only creates cells for the visible rows, so the table stays light however
+ * many rows it holds. When a row near the end of the loaded items is shown, the next page
+ * is fetched in the background and appended. Clicking a sortable column header reloads
+ * from the first page in that order from the database instead of sorting in memory;
+ * a column is sortable when its user data holds the sort key to pass to the page source.
+ */
+public class PagedTable<T> {
+
+    /**
+     * Loads one page of rows; runs off the FX thread
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        /**
+         * @param sortKey User data of the sorted column, or null for the default order
+         * @param pageToken Token from the previous page, or null for the first page
+         */
+        Page<T> fetch(String sortKey, boolean ascending, String pageToken);
+    }
+
+    /** Start loading the next page when a row this close to the end is shown */
+    private static final int PREFETCH_ROWS = 20;
+
+    private final TableView<T> table;
+    private final PageSource<T> source;
+    private final List<PseudoClass> states = new ArrayList<>();
+    private final List<Predicate<T>> stateTests = new ArrayList<>();
+    private Consumer<Integer> onLoaded = count -> {};
+
+    private String sortKey;
+    private boolean ascending;
+    private String nextToken;
+    private boolean loading = false;
+    // Bumped on every re-sort, so pages of an older order are dropped when they arrive
+    private long generation = 0;
+
+    private PagedTable(TableView<T> table, PageSource<T> source) {
+        this.table = table;
+        this.source = source;
+    }
+
+    /**
+     * Show the first page in the table and load the rest as the user scrolls or sorts
+     * @param firstPage Page of the default order, already loaded when the dialog was opened
+     */
+    public static <T> PagedTable<T> attach(TableView<T> table, Page<T> firstPage, PageSource<T> source) {
+        PagedTable<T> pagedTable = new PagedTable<>(table, source);
+
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(column.getUserData() instanceof String);
+        }
+        // The first page was loaded in the order the table starts with
+        if (!table.getSortOrder().isEmpty()) {
+            TableColumn<T, ?> column = table.getSortOrder().get(0);
+            pagedTable.sortKey = (String) column.getUserData();
+            pagedTable.ascending = column.getSortType() == TableColumn.SortType.ASCENDING;
+        }
+        table.setRowFactory(view -> pagedTable.new PagedRow());
+        table.setSortPolicy(view -> {
+            pagedTable.sortChanged();
+            return true;
+        });
+        table.setPlaceholder(new Label("Loading..."));
+
+        pagedTable.show(firstPage, false);
+        return pagedTable;
+    }
+
+    /**
+     * Set a CSS pseudo-class on the rows whose item passes the test, e.g. ":out-of-stock"
+     */
+    public PagedTable<T> withRowState(String pseudoClass, Predicate<T> test) {
+        states.add(PseudoClass.getPseudoClass(pseudoClass));
+        stateTests.add(test);
+        table.refresh();
+        return this;
+    }
+
+    /**
+     * Run after every page is shown, with the number of rows loaded so far
+     */
+    public PagedTable<T> onLoaded(Consumer<Integer> onLoaded) {
+        this.onLoaded = onLoaded;
+        onLoaded.accept(table.getItems().size());
+        return this;
+    }
+
+    public boolean hasMore() { return nextToken != null; }
+
+    /**
+     * Load again from the first page in the current order, e.g. after the source's filter changed
+     */
+    public void reload() {
+        fetch(null, false);
+    }
+
+    private void show(Page<T> page, boolean append) {
+        if (append) {
+            table.getItems().addAll(page.getItems());
+        } else {
+            table.getItems().setAll(page.getItems());
+            table.scrollTo(0);
+        }
+        nextToken = page.getNextToken();
+        if (table.getItems().isEmpty()) {
+            table.setPlaceholder(new Label("No rows to show"));
+        }
+        onLoaded.accept(table.getItems().size());
+    }
+
+    /**
+     * Reload from the first page if the sorted column or direction changed
+     */
+    private void sortChanged() {
+        String newKey = null;
+        boolean newAscending = false;
+        if (!table.getSortOrder().isEmpty()) {
+            TableColumn<T, ?> column = table.getSortOrder().get(0);
+            newKey = (String) column.getUserData();
+            newAscending = column.getSortType() == TableColumn.SortType.ASCENDING;
+        }
+        if (Objects.equals(newKey, sortKey) && newAscending == ascending) {
+            return;
+        }
+        sortKey = newKey;
+        ascending = newAscending;
+        fetch(null, false);
+    }
+
+    private void loadMore() {
+        if (!loading && nextToken != null) {
+            fetch(nextToken, true);
+        }
+    }
+
+    private void fetch(String token, boolean append) {
+        long requested = ++generation;
+        String key = sortKey;
+        boolean asc = ascending;
+        loading = true;
+
+        FxAsync.run(() -> source.fetch(key, asc, token), page -> {
+            if (requested != generation) {
+                return;
+            }
+            loading = false;
+            show(page, append);
+        }, error -> {
+            if (requested == generation) {
+                loading = false;
+            }
+            table.setPlaceholder(new Label("⚠️ Could not load rows: " + error.getMessage()));
+            System.err.println("Error loading table page: " + error.getMessage());
+        });
+    }
+
+    /**
+     * Row that applies the row states and asks for the next page when it nears the end
+     */
+    private class PagedRow extends TableRow<T> {
+        @Override
+        protected void updateItem(T item, boolean empty) {
+            super.updateItem(item, empty);
+            for (int i = 0; i < states.size(); i++) {
+                pseudoClassStateChanged(states.get(i), !empty && item != null && stateTests.get(i).test(item));
+            }
+            if (!empty && getIndex() >= table.getItems().size() - PREFETCH_ROWS) {
+                loadMore();
+            }
+        }
+    }
+}
@@ -3,9 +3,18 @@ package project.Utilities;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import javafx.css.PseudoClass;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.scene.layout.GridPane;
 import javafx.geometry.Insets;
 import javafx.stage.Stage;
+import project.Databases.DatabaseConfig;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class UIUtil {
     
@@ -196,6 +205,63 @@ public class UIUtil {
         return createTableSeparator("─────────────────────────────────┼────────────────────────────┼───────────────┼──────────────");
     }
     
+    // ==================== TABLE VIEWS ====================
+    
+    /**
+     * Create a read-only TableView column
+     * @param sortKey Key the page source sorts by, or null if the column cannot be sorted
+     */
+    public static <T> TableColumn<T, Object> createTableColumn(String title, String sortKey, double width, Function<T, Object> value) {
+        TableColumn<T, Object> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(value.apply(cell.getValue())));
+        column.setUserData(sortKey);
+        column.setPrefWidth(width);
+        return column;
+    }
+    
+    /**
+     * Set a CSS pseudo-class (e.g. ":out-of-stock") on the rows of a table whose item passes the test.
+     * Paged tables set theirs through PagedTable.withRowState.
+     */
+    public static <T> void applyRowState(TableView<T> table, String pseudoClass, Predicate<T> test) {
+        PseudoClass state = PseudoClass.getPseudoClass(pseudoClass);
+        table.setRowFactory(view -> new TableRow<T>() {
+            @Override
+            protected void updateItem(T item, boolean empty) {
+                super.updateItem(item, empty);
+                pseudoClassStateChanged(state, !empty && item != null && test.test(item));
+            }
+        });
+    }
+    
+    /**
+     * Add the shared TableView styles (row states such as out-of-stock) to a dialog
+     */
+    public static void applyTableStyles(Dialog<?> dialog) {
+        dialog.getDialogPane().getStylesheets().add(UIUtil.class.getResource("/project/CSS/Tables.css").toExternalForm());
+    }
+    
+    // ==================== SEARCH ====================
+    
+    /**
+     * Status line for a live search: how many results, whether the limit cut them off,
+     * and what to try when nothing matched
+     * @param noun What was searched for, e.g. "books" or "available books"
+     */
+    public static String describeSearchResults(String searchTerm, int found, String noun) {
+        if (searchTerm.isEmpty()) {
+            return "Type to search the catalog";
+        }
+        if (found == 0) {
+            return "📚 No " + noun + " found matching '" + searchTerm + "'. " +
+                   "Try a different spelling, the author's last name or part of the title.";
+        }
+        if (found >= DatabaseConfig.SEARCH_LIMIT) {
+            return "Showing the best " + found + " " + noun + " for '" + searchTerm + "'. Keep typing to narrow them down.";
+        }
+        return found + " " + noun + " found for '" + searchTerm + "'";
+    }
+    
     // ==================== STRING UTILITIES ====================
     
     /**
@@ -1,59 +1,41 @@
 package project.Utilities.memberUtil;
 
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.geometry.Insets;
 import project.Databases.Book;
 import project.Databases.LibraryMember;
-import project.Databases.Connect;
+import project.Databases.Loan;
 import project.Utilities.AlertMsg;
+import project.Utilities.FxAsync;
+import project.Utilities.LiveSearch;
 import project.Utilities.SwitchSceneUtil;
 import project.Utilities.UIUtil;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
-import java.util.ArrayList;
 
 public class BorrowReturn {
     
-    /**
-     * Data class to hold borrowed book information
-     */
-    public static class BorrowedBookInfo {
-        public final int borrowId;
-        public final String bookTitle;
-        public final String bookAuthor;
-        public final int bookId;
-        public final String borrowDate;
-        public final String returnDate;
-        public final boolean isReturned;
-        
-        public BorrowedBookInfo(int borrowId, String bookTitle, String bookAuthor, int bookId,
-                               String borrowDate, String returnDate, boolean isReturned) {
-            this.borrowId = borrowId;
-            this.bookTitle = bookTitle;
-            this.bookAuthor = bookAuthor;
-            this.bookId = bookId;
-            this.borrowDate = borrowDate;
-            this.returnDate = returnDate;
-            this.isReturned = isReturned;
-        }
-    }
-
     /**
      * Main dialog for borrow/return operations
      */
     public static void showBorrowReturnMainDialog() {
+        String currentEmail = SwitchSceneUtil.currentUserEmail;
+        FxAsync.runWithProgress("Loading your account...",
+            () -> LibraryMember.getMemberByEmail(currentEmail),
+            currentMember -> showBorrowReturnMainDialog(currentMember != null ? currentMember.getName() : "Student"));
+    }
+
+    private static void showBorrowReturnMainDialog(String memberName) {
         Dialog<ButtonType> dialog = new Dialog<>();
         UIUtil.setupDialog(dialog, "📚 Library Borrow/Return System"); // USING UIUtil
 
@@ -76,10 +58,6 @@ public class BorrowReturn {
         VBox content = new VBox(20);
         content.setPadding(new Insets(20));
 
-        String currentEmail = SwitchSceneUtil.currentUserEmail;
-        LibraryMember currentMember = LibraryMember.getMemberByEmail(currentEmail);
-        String memberName = currentMember != null ? currentMember.getName() : "Student";
-
         Label welcomeLabel = new Label("Welcome, " + memberName + "!");
         welcomeLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + ";");
 
@@ -110,150 +88,78 @@ public class BorrowReturn {
     }
 
     /**
-     * Dialog for searching available books to borrow
+     * Dialog for searching available books to borrow. Results appear as the member types;
+     * double-click a book, or select it and press Borrow, to borrow it.
      */
     public static void showSearchBooksDialog() {
         Dialog<Void> dialog = new Dialog<>();
         UIUtil.setupDialog(dialog, "🔍 Search Available Books"); // USING UIUtil
 
-        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+
+        VBox vbox = new VBox(10);
+        vbox.setPadding(new Insets(20));
 
-        GridPane grid = UIUtil.createDialogGrid(); // USING UIUtil
         TextField searchField = new TextField();
-        searchField.setPromptText("Enter book title or author name");
-        searchField.setPrefWidth(300);
+        searchField.setPromptText("Start typing a book title or author name");
+        searchField.setPrefWidth(400);
 
         Label memberLabel = UIUtil.createUserLabel("Searching", "member"); // USING UIUtil
 
-        grid.add(memberLabel, 0, 0, 2, 1);
-        grid.add(new Label("Search Term:"), 0, 1);
-        grid.add(searchField, 1, 1);
-
-        dialog.getDialogPane().setContent(grid);
-        searchField.requestFocus();
-
-        javafx.scene.control.Button okButton = (javafx.scene.control.Button) dialog.getDialogPane().lookupButton(ButtonType.OK);
-        
-        okButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
-            String searchTerm = searchField.getText().trim();
-            
-            if (searchTerm.isEmpty()) {
-                AlertMsg.showError("Search Error", "Please enter a search term!");
-                event.consume();
-                return;
+        Label statusLabel = new Label("Type to search the catalog");
+        statusLabel.setStyle("-fx-text-fill: #666666; -fx-font-size: 12px;");
+
+        // Results are capped at the search limit, so the table never holds more than a few hundred rows
+        TableView<Book> table = new TableView<>();
+        table.getColumns().addAll(List.of(
+            UIUtil.createTableColumn("ID", null, 60, Book::getId),
+            UIUtil.createTableColumn("Title", null, 280, Book::getTitle),
+            UIUtil.createTableColumn("Author", null, 200, Book::getAuthor),
+            UIUtil.createTableColumn("Available", null, 80, Book::getAvailableCopies)));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.setPlaceholder(new Label("No books to show"));
+        table.setPrefSize(700, 400);
+
+        Button borrowButton = new Button("📖 Borrow Selected Book");
+        borrowButton.setStyle("-fx-background-color: " + UIUtil.PRIMARY_COLOR + "; -fx-text-fill: white; -fx-font-weight: bold;");
+        borrowButton.disableProperty().bind(table.getSelectionModel().selectedItemProperty().isNull());
+
+        Label tipLabel = new Label("💡 Tip: Double-click a book to borrow it!");
+        tipLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + "; -fx-font-size: 14px;");
+
+        vbox.getChildren().addAll(memberLabel, searchField, statusLabel, table, borrowButton, tipLabel);
+
+        LiveSearch<Book> liveSearch = LiveSearch.attach(searchField, Book::searchAvailableBooks, (searchTerm, books) -> {
+            table.getItems().setAll(books);
+            statusLabel.setText(UIUtil.describeSearchResults(searchTerm, books.size(), "available books"));
+        }).onSearching(searchTerm -> statusLabel.setText("🔍 Searching for '" + searchTerm + "'..."));
+
+        Runnable borrowSelected = () -> {
+            Book book = table.getSelectionModel().getSelectedItem();
+            if (book != null && showBorrowConfirmationDialog(book)) {
+                String currentEmail = SwitchSceneUtil.currentUserEmail;
+                FxAsync.runWithProgress("Borrowing book...",
+                    () -> Loan.borrowBook(currentEmail, book.getId()),
+                    outcome -> showBorrowOutcome(outcome, book, dialog),
+                    vbox);
             }
-
-            List<Book> foundBooks = searchAvailableBooks(searchTerm);
-            
-            if (foundBooks.isEmpty()) {
-                AlertMsg.showInformation("No Results", 
-                    "No available books found matching: '" + searchTerm + "'\n\n" +
-                    "Try searching with different keywords or author names.");
-                event.consume();
-                return;
+        };
+        borrowButton.setOnAction(e -> borrowSelected.run());
+        table.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                borrowSelected.run();
             }
-
-            showBorrowableBookResults(foundBooks, searchTerm);
         });
 
-        searchField.setOnAction(e -> okButton.fire());
-        dialog.setResultConverter(dialogButton -> null);
-        dialog.showAndWait();
-    }
-
-    /**
-     * Search for available books (books with available copies > 0)
-     */
-    private static List<Book> searchAvailableBooks(String searchTerm) {
-        String query = "SELECT * FROM books WHERE (title LIKE ? OR author LIKE ?) AND available_copies > 0 ORDER BY title";
-        
-        return Connect.executeQuery(query, rs -> {
-            List<Book> books = new ArrayList<>();
-            try {
-                while (rs.next()) {
-                    Book book = new Book();
-                    book.setId(rs.getInt("id"));
-                    book.setTitle(rs.getString("title"));
-                    book.setAuthor(rs.getString("author"));
-                    book.setTotalCopies(rs.getInt("total_copies"));
-                    book.setAvailableCopies(rs.getInt("available_copies"));
-                    books.add(book);
-                }
-            } catch (SQLException e) {
-                System.err.println("Error processing search results: " + e.getMessage());
-            }
-            return books;
-        }, "%" + searchTerm + "%", "%" + searchTerm + "%");
-    }
-
-    /**
-     * Show borrowable book search results
-     */
-    public static void showBorrowableBookResults(List<Book> books, String searchTerm) {
-        Dialog<Void> dialog = new Dialog<>();
-        UIUtil.setupDialog(dialog, "📚 Available Books - Search Results for: '" + searchTerm + "'"); // USING UIUtil
-
-        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
-
-        VBox vbox = new VBox(10);
-        vbox.setPadding(new Insets(20));
-
-        Label headerLabel = UIUtil.createTableHeader("ID    | TITLE                           | AUTHOR                     | AVAILABLE | ACTION", UIUtil.PRIMARY_COLOR);
-        vbox.getChildren().add(headerLabel);
-        
-        Label separatorLabel = UIUtil.createTableSeparator("──────┼─────────────────────────────────┼────────────────────────────┼───────────┼────────");
-        vbox.getChildren().add(separatorLabel);
-
-        for (Book book : books) {
-            String bookInfo = String.format("%-5d | %-31s | %-26s | %-9d | Click to Borrow",
-                book.getId(),
-                UIUtil.truncateString(book.getTitle(), 31),
-                UIUtil.truncateString(book.getAuthor(), 26),
-                book.getAvailableCopies());
-            
-            Label bookLabel = new Label(bookInfo);
-            bookLabel.setStyle(UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-cursor: hand;");
-            
-            // Add click event to show confirmation dialog and borrow the book
-            bookLabel.setOnMouseClicked(e -> {
-                if (showBorrowConfirmationDialog(book)) {
-                    boolean borrowed = borrowBook(book);
-                    if (borrowed) {
-                        dialog.close();
-                        AlertMsg.showInformation("Success", 
-                            "Book borrowed successfully!\n\n" +
-                            "📖 Title: " + book.getTitle() + "\n" +
-                            "✍️ Author: " + book.getAuthor() + "\n" +
-                            "🆔 Book ID: " + book.getId() + "\n\n" +
-                            "Please remember to return it on time!");
-                    }
-                }
-            });
-            
-            UIUtil.applyHoverEffect(bookLabel, 
-                UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-cursor: hand;", 
-                "#e6f3ff");
-            
-            vbox.getChildren().add(bookLabel);
-        }
-
-        Label summaryLabel = new Label(String.format(
-            "\n📊 Search Summary: Found %d available books\n" +
-            "💡 Tip: Click on any book to borrow it!",
-            books.size()));
-        summaryLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: " + UIUtil.PRIMARY_COLOR + "; -fx-font-size: 14px;");
-        vbox.getChildren().add(summaryLabel);
-
-        ScrollPane scrollPane = new ScrollPane(vbox);
-        scrollPane.setPrefSize(700, 500);
-        scrollPane.setFitToWidth(true);
-
-        dialog.getDialogPane().setContent(scrollPane);
+        dialog.getDialogPane().setContent(vbox);
+        dialog.setOnShown(e -> searchField.requestFocus());
+        dialog.setOnHidden(e -> liveSearch.cancel());
 
         javafx.scene.control.Button closeButton = (javafx.scene.control.Button) dialog.getDialogPane().lookupButton(ButtonType.CLOSE);
         closeButton.setText("Close");
         closeButton.setStyle("-fx-background-color: " + UIUtil.PRIMARY_COLOR + "; -fx-text-fill: white; -fx-font-weight: bold;");
 
+        dialog.setResultConverter(dialogButton -> null);
         dialog.showAndWait();
     }
 
@@ -282,64 +188,30 @@ public class BorrowReturn {
     }
 
     /**
-     * Borrow a book for the current member
+     * Tell the member how their borrow attempt went
      */
-    private static boolean borrowBook(Book book) {
-        String currentEmail = SwitchSceneUtil.currentUserEmail;
-        
-        if (memberHasBorrowedBook(currentEmail, book.getId())) {
-            AlertMsg.showError("Already Borrowed", 
-                "You have already borrowed this book and haven't returned it yet.\n\n" +
-                "Please return it first before borrowing again.");
-            return false;
-        }
-        
-        String insertQuery = "INSERT INTO borrowed_books (member_email, book_id, borrow_date, is_returned) VALUES (?, ?, datetime('now'), 0)";
-        String updateQuery = "UPDATE books SET available_copies = available_copies - 1 WHERE id = ? AND available_copies > 0";
-        
-        try (Connection conn = Connect.getDBConnection()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery);
-                 PreparedStatement updateStmt = conn.prepareStatement(updateQuery)) {
-                
-                insertStmt.setString(1, currentEmail);
-                insertStmt.setInt(2, book.getId());
-                int insertResult = insertStmt.executeUpdate();
-                
-                updateStmt.setInt(1, book.getId());
-                int updateResult = updateStmt.executeUpdate();
-                
-                if (insertResult > 0 && updateResult > 0) {
-                    conn.commit();
-                    return true;
-                } else {
-                    conn.rollback();
-                    AlertMsg.showError("Borrow Failed", "Failed to borrow the book. It might no longer be available.");
-                    return false;
-                }
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
-            
-        } catch (SQLException e) {
-            AlertMsg.showError("Database Error", "An error occurred while borrowing the book: " + e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Check if member has already borrowed a specific book
-     */
-    private static boolean memberHasBorrowedBook(String memberEmail, int bookId) {
-        String query = "SELECT COUNT(*) FROM borrowed_books WHERE member_email = ? AND book_id = ? AND is_returned = 0";
-        try {
-            int count = Connect.executeCount(query, memberEmail, bookId);
-            return count > 0;
-        } catch (Exception e) {
-            return false;
+    private static void showBorrowOutcome(Loan.Outcome outcome, Book book, Dialog<Void> resultsDialog) {
+        switch (outcome) {
+            case SUCCESS:
+                resultsDialog.close();
+                AlertMsg.showInformation("Success", 
+                    "Book borrowed successfully!\n\n" +
+                    "📖 Title: " + book.getTitle() + "\n" +
+                    "✍️ Author: " + book.getAuthor() + "\n" +
+                    "🆔 Book ID: " + book.getId() + "\n\n" +
+                    "Please remember to return it on time!");
+                break;
+            case ALREADY_BORROWED:
+                AlertMsg.showError("Already Borrowed", 
+                    "You have already borrowed this book and haven't returned it yet.\n\n" +
+                    "Please return it first before borrowing again.");
+                break;
+            case NOT_AVAILABLE:
+                AlertMsg.showError("Borrow Failed", "Failed to borrow the book. It might no longer be available.");
+                break;
+            default:
+                AlertMsg.showError("Database Error", "An error occurred while borrowing the book. Please try again.");
+                break;
         }
     }
 
@@ -348,9 +220,13 @@ public class BorrowReturn {
      */
     public static void showReturnBooksDialog() {
         String currentEmail = SwitchSceneUtil.currentUserEmail;
-        List<BorrowedBookInfo> borrowedBooks = getMemberBorrowedBooks(currentEmail, false);
-        
-        if (borrowedBooks.isEmpty()) {
+        FxAsync.runWithProgress("Loading your borrowed books...",
+            () -> Loan.getMemberLoans(currentEmail, false),
+            BorrowReturn::showReturnBooksDialog);
+    }
+
+    private static void showReturnBooksDialog(List<Loan.BorrowedBook> borrowedBooks) {
+        if (borrowedBooks == null || borrowedBooks.isEmpty()) {
             AlertMsg.showInformation("No Books to Return", 
                 "You don't have any books to return.\n\n" +
                 "All your borrowed books have been returned or you haven't borrowed any books yet.");
@@ -371,7 +247,7 @@ public class BorrowReturn {
         Label separatorLabel = UIUtil.createBorrowTableSeparator(); // USING UIUtil
         vbox.getChildren().add(separatorLabel);
 
-        for (BorrowedBookInfo borrowedBook : borrowedBooks) {
+        for (Loan.BorrowedBook borrowedBook : borrowedBooks) {
             String bookInfo = String.format("%-31s | %-26s | %-13s | Click to Return",
                 UIUtil.truncateString(borrowedBook.bookTitle, 31),
                 UIUtil.truncateString(borrowedBook.bookAuthor, 26),
@@ -380,19 +256,23 @@ public class BorrowReturn {
             Label bookLabel = new Label(bookInfo);
             bookLabel.setStyle(UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-cursor: hand;");
             
-            bookLabel.setOnMouseClicked(e -> {
-                boolean returned = returnBook(borrowedBook);
-                if (returned) {
-                    dialog.close();
-                    AlertMsg.showInformation("Success", 
-                        "Book returned successfully!\n\n" +
-                        "📖 Title: " + borrowedBook.bookTitle + "\n" +
-                        "✍️ Author: " + borrowedBook.bookAuthor + "\n" +
-                        "📅 Borrowed: " + borrowedBook.borrowDate.substring(0, 10) + "\n" +
-                        "📅 Returned: Today\n\n" +
-                        "Thank you for returning the book on time!");
-                }
-            });
+            bookLabel.setOnMouseClicked(e -> FxAsync.runWithProgress("Returning book...",
+                () -> Loan.returnBook(borrowedBook.borrowId, borrowedBook.bookId),
+                outcome -> {
+                    if (outcome == Loan.Outcome.SUCCESS) {
+                        dialog.close();
+                        AlertMsg.showInformation("Success", 
+                            "Book returned successfully!\n\n" +
+                            "📖 Title: " + borrowedBook.bookTitle + "\n" +
+                            "✍️ Author: " + borrowedBook.bookAuthor + "\n" +
+                            "📅 Borrowed: " + borrowedBook.borrowDate.substring(0, 10) + "\n" +
+                            "📅 Returned: Today\n\n" +
+                            "Thank you for returning the book on time!");
+                    } else {
+                        AlertMsg.showError("Return Failed", "Failed to return the book. Please try again.");
+                    }
+                },
+                vbox));
             
             UIUtil.applyHoverEffect(bookLabel, 
                 UIUtil.MONOSPACE_STYLE + " -fx-font-size: 11px; -fx-padding: 2px 0px; -fx-cursor: hand;", 
@@ -421,53 +301,18 @@ public class BorrowReturn {
         dialog.showAndWait();
     }
 
-    /**
-     * Return a borrowed book
-     */
-    private static boolean returnBook(BorrowedBookInfo borrowedBook) {
-        String updateBorrowQuery = "UPDATE borrowed_books SET is_returned = 1, return_date = datetime('now') WHERE id = ?";
-        String updateBookQuery = "UPDATE books SET available_copies = available_copies + 1 WHERE id = ?";
-        
-        try (Connection conn = Connect.getDBConnection()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement updateBorrowStmt = conn.prepareStatement(updateBorrowQuery);
-                 PreparedStatement updateBookStmt = conn.prepareStatement(updateBookQuery)) {
-                
-                updateBorrowStmt.setInt(1, borrowedBook.borrowId);
-                int borrowResult = updateBorrowStmt.executeUpdate();
-                
-                updateBookStmt.setInt(1, borrowedBook.bookId);
-                int bookResult = updateBookStmt.executeUpdate();
-                
-                if (borrowResult > 0 && bookResult > 0) {
-                    conn.commit();
-                    return true;
-                } else {
-                    conn.rollback();
-                    AlertMsg.showError("Return Failed", "Failed to return the book. Please try again.");
-                    return false;
-                }
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            }
-            
-        } catch (SQLException e) {
-            AlertMsg.showError("Database Error", "An error occurred while returning the book: " + e.getMessage());
-            return false;
-        }
-    }
-
     /**
      * Show member's borrowed books history
      */
     public static void showMyBorrowedBooksDialog() {
         String currentEmail = SwitchSceneUtil.currentUserEmail;
-        List<BorrowedBookInfo> allBorrowedBooks = getMemberBorrowedBooks(currentEmail, true);
-        
-        if (allBorrowedBooks.isEmpty()) {
+        FxAsync.runWithProgress("Loading your borrowing history...",
+            () -> Loan.getMemberLoans(currentEmail, true),
+            BorrowReturn::showMyBorrowedBooksDialog);
+    }
+
+    private static void showMyBorrowedBooksDialog(List<Loan.BorrowedBook> allBorrowedBooks) {
+        if (allBorrowedBooks == null || allBorrowedBooks.isEmpty()) {
             AlertMsg.showInformation("No Borrowing History", 
                 "You haven't borrowed any books yet.\n\n" +
                 "Use 'Search & Borrow Books' to start borrowing!");
@@ -488,7 +333,7 @@ public class BorrowReturn {
         Label separatorLabel = UIUtil.createTableSeparator("─────────────────────────────────┼────────────────────────────┼───────────────┼──────────────┼─────────");
         vbox.getChildren().add(separatorLabel);
 
-        for (BorrowedBookInfo borrowedBook : allBorrowedBooks) {
+        for (Loan.BorrowedBook borrowedBook : allBorrowedBooks) {
             String returnDateStr = borrowedBook.returnDate != null ? borrowedBook.returnDate.substring(0, 10) : "N/A";
             String status = borrowedBook.isReturned ? "Returned" : "Borrowed";
             
@@ -544,40 +389,4 @@ public class BorrowReturn {
 
         dialog.showAndWait();
     }
-
-    /**
-     * Get member's borrowed books
-     */
-    private static List<BorrowedBookInfo> getMemberBorrowedBooks(String memberEmail, boolean includeReturned) {
-        String query = "SELECT bb.id, b.title, b.author, b.id as book_id, bb.borrow_date, bb.return_date, bb.is_returned " +
-                      "FROM borrowed_books bb " +
-                      "JOIN books b ON bb.book_id = b.id " +
-                      "WHERE bb.member_email = ?";
-        
-        if (!includeReturned) {
-            query += " AND bb.is_returned = 0";
-        }
-        
-        query += " ORDER BY bb.borrow_date DESC";
-        
-        return Connect.executeQuery(query, rs -> {
-            List<BorrowedBookInfo> borrowedBooks = new ArrayList<>();
-            try {
-                while (rs.next()) {
-                    borrowedBooks.add(new BorrowedBookInfo(
-                        rs.getInt("id"),
-                        rs.getString("title"),
-                        rs.getString("author"),
-                        rs.getInt("book_id"),
-                        rs.getString("borrow_date"),
-                        rs.getString("return_date"),
-                        rs.getBoolean("is_returned")
-                    ));
-                }
-            } catch (SQLException e) {
-                System.err.println("Error processing borrowed books: " + e.getMessage());
-            }
-            return borrowedBooks;
-        }, memberEmail);
-    }
 }
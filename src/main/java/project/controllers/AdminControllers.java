@@ -1,24 +1,31 @@
 package project.controllers;
 
 import java.io.IOException;
-import java.util.List;
-
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Label;
+import javafx.stage.WindowEvent;
+import project.Databases.AsyncDatabase;
 import project.Databases.Book;
+import project.Databases.ChangeMonitor;
 import project.Databases.Admin;
-import project.Databases.LibraryMember;
 import project.Utilities.AlertMsg;
+import project.Utilities.FxAsync;
 import project.Utilities.SwitchSceneUtil;
 import project.Utilities.AdminUtil.BooksDialog;
+import project.Utilities.AdminUtil.ExportDialog;
 import project.Utilities.AdminUtil.MembersDialog;
 import project.Utilities.AdminUtil.SearchDialogs;
 import project.Utilities.AdminUtil.borrowedBooks;
 
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AdminControllers implements Initializable {
 
@@ -31,45 +38,96 @@ public class AdminControllers implements Initializable {
     @FXML
     private Label totalMembersLabel;
 
+    // Runs on the change monitor's thread whenever something was committed
+    private final Runnable onDatabaseChange = this::refreshStatistics;
+
+    // Set while a refresh is queued, so a burst of changes causes one refresh
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+    // Only the latest refresh may update the labels, in case an older one finishes after it
+    private final AtomicLong latestRefresh = new AtomicLong();
+
+    // Stops the refreshes once the dashboard's window is hidden or closed
+    private final EventHandler<WindowEvent> onWindowHidden = event -> stopWatchingChanges();
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        // Load statistics when the controller is initialized
-        loadStatistics();
+        totalBooksLabel.setText("…");
+        totalMembersLabel.setText("…");
+        borrowedBooksLabel.setText("…");
+
+        // Load statistics when the controller is initialized, then again whenever the data changes
+        refreshStatistics();
+        ChangeMonitor.addListener(onDatabaseChange);
+
+        // The labels are not in a scene yet while the FXML is loading
+        totalBooksLabel.sceneProperty().addListener((observable, oldScene, scene) -> {
+            if (scene != null) {
+                scene.windowProperty().addListener((windowObservable, oldWindow, window) -> {
+                    if (oldWindow != null) {
+                        oldWindow.removeEventHandler(WindowEvent.WINDOW_HIDDEN, onWindowHidden);
+                    }
+                    if (window != null) {
+                        window.addEventHandler(WindowEvent.WINDOW_HIDDEN, onWindowHidden);
+                    } else {
+                        // The stage moved on to another scene
+                        stopWatchingChanges();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Stop refreshing the statistics when the data changes, so the monitor
+     * does not keep this controller alive after the dashboard is gone
+     */
+    private void stopWatchingChanges() {
+        ChangeMonitor.removeListener(onDatabaseChange);
     }
 
     /**
-     * Load and display statistics in the labels
+     * Load and display statistics in the labels.
+     * The three counts are read in parallel off the FX thread and shown together in one UI update.
      */
     private void loadStatistics() {
-        try {
-            // Get total books
-            int totalBooks = Book.getTotalBookCount();
-            totalBooksLabel.setText(String.valueOf(totalBooks));
+        // Changes from here on need another refresh, since these reads may miss them
+        refreshPending.set(false);
+        long refresh = latestRefresh.incrementAndGet();
 
-            // Get total members
-            int totalMembers = Admin.getTotalMemberCount();
-            totalMembersLabel.setText(String.valueOf(totalMembers));
+        CompletableFuture<Integer> books = AsyncDatabase.supply(Book::getTotalBookCount);
+        CompletableFuture<Integer> members = AsyncDatabase.supply(Admin::getTotalMemberCount);
+        CompletableFuture<Integer> borrowed = AsyncDatabase.supply(Book::getCurrentlyBorrowedCount);
 
-            // Get currently borrowed books
-            int borrowedBooks = Book.getCurrentlyBorrowedCount();
-            borrowedBooksLabel.setText(String.valueOf(borrowedBooks));
+        CompletableFuture<int[]> counts = CompletableFuture.allOf(books, members, borrowed)
+            .thenApply(done -> new int[] { books.join(), members.join(), borrowed.join() });
 
-        } catch (Exception e) {
+        FxAsync.whenDone(counts, values -> {
+            if (refresh != latestRefresh.get()) {
+                return;
+            }
+            totalBooksLabel.setText(String.valueOf(values[0]));
+            totalMembersLabel.setText(String.valueOf(values[1]));
+            borrowedBooksLabel.setText(String.valueOf(values[2]));
+        }, e -> {
             System.err.println("Error loading statistics: " + e.getMessage());
             e.printStackTrace();
-            
+
             // Set default values if there's an error
             totalBooksLabel.setText("0");
             totalMembersLabel.setText("0");
             borrowedBooksLabel.setText("0");
-        }
+        });
     }
 
     /**
-     * Refresh statistics (call this after adding/removing books or members)
+     * Refresh statistics (call this after adding/removing books or members).
+     * Safe to call from any thread; calls made before a pending refresh starts are merged into it.
      */
     public void refreshStatistics() {
-        loadStatistics();
+        if (refreshPending.compareAndSet(false, true)) {
+            Platform.runLater(this::loadStatistics);
+        }
     }
 
     @FXML
@@ -77,24 +135,33 @@ public class AdminControllers implements Initializable {
         BooksDialog.BookData bookData = BooksDialog.showAddBookDialog(); // UPDATED
 
         if(bookData != null) {
-            if (Book.bookExists(bookData.title, bookData.author)) {
-                AlertMsg.showError("Duplicate Book", 
-                "This book already exists in the Library!\n\n" +
-                    "📖 Title: " + bookData.title + "\n" +
-                    "✍️ Author: " + bookData.author + "\n\n" +
-                    "Please check the existing books or add a different book.");
-                return;
-            }
+            FxAsync.runWithProgress("Checking library...", () -> Book.bookExists(bookData.title, bookData.author), exists -> {
+                if (exists) {
+                    AlertMsg.showError("Duplicate Book", 
+                    "This book already exists in the Library!\n\n" +
+                        "📖 Title: " + bookData.title + "\n" +
+                        "✍️ Author: " + bookData.author + "\n\n" +
+                        "Please check the existing books or add a different book.");
+                } else {
+                    addBook(bookData);
+                }
+            });
+        }
+    }
 
-            String currentEmail = SwitchSceneUtil.currentUserEmail != null ?
-                                    SwitchSceneUtil.currentUserEmail : "admin@library.com";
+    /**
+     * Insert a book that passed the duplicate check and report the result
+     */
+    private void addBook(BooksDialog.BookData bookData) {
+        String currentEmail = SwitchSceneUtil.currentUserEmail != null ?
+                                SwitchSceneUtil.currentUserEmail : "admin@library.com";
 
-            boolean success = Book.addBook(
+        FxAsync.runWithProgress("Adding book...", () -> Book.addBook(
             bookData.title, 
             bookData.author, 
             bookData.copies,
             currentEmail, 
-            "admin");
+            "admin"), success -> {
 
             if (success) {
                 AlertMsg.showInformation("Success",
@@ -113,6 +180,16 @@ public class AdminControllers implements Initializable {
                     "• System error\n\n" +
                     "Please try again or contact system administrator.");
             }
+        });
+    }
+
+    @FXML
+    void BTNimportBooks(ActionEvent event) {
+        try {
+            BooksDialog.showImportBooksDialog();
+            refreshStatistics();
+        } catch (Exception e) {
+            AlertMsg.showError("Error", "Failed to open import books dialog: " + e.getMessage());
         }
     }
 
@@ -129,17 +206,8 @@ public class AdminControllers implements Initializable {
     @FXML
     void BTNviewAllMembers(ActionEvent event) {
         try {
-            List<LibraryMember> allMembers = Admin.ViewAllMembers();
-            
-            if (allMembers.isEmpty()) {
-                AlertMsg.showInformation("No Members Found", 
-                    "📋 The library currently has no registered members.\n\n" +
-                    "To add members, they need to register through the Create Account screen.");
-                return;
-            }
-            
-            // UPDATED:
-            MembersDialog.showAllMembersDialog(allMembers);
+            // Members are paged, so the dialog opens at the same speed however many there are
+            MembersDialog.showAllMembersDialog();
             
         } catch (Exception e) {
             AlertMsg.showError("Error", 
@@ -150,6 +218,16 @@ public class AdminControllers implements Initializable {
         }
     }
 
+    @FXML
+    void BTNimportMembers(ActionEvent event) {
+        try {
+            MembersDialog.showImportMembersDialog();
+            refreshStatistics();
+        } catch (Exception e) {
+            AlertMsg.showError("Error", "Failed to open import members dialog: " + e.getMessage());
+        }
+    }
+
     @FXML
     void BTNremoveMembers(ActionEvent event) {
         try {
@@ -161,6 +239,15 @@ public class AdminControllers implements Initializable {
         }
     }
 
+    @FXML
+    void BTNexportData(ActionEvent event) {
+        try {
+            ExportDialog.showExportDialog();
+        } catch (Exception e) {
+            AlertMsg.showError("Error", "Failed to open export dialog: " + e.getMessage());
+        }
+    }
+
     @FXML
     void BTNsearchBooks(ActionEvent event) {
         try {
@@ -208,6 +295,7 @@ public class AdminControllers implements Initializable {
     @FXML
     void BTNlogOut(ActionEvent event) throws IOException {
           try {
+            stopWatchingChanges();
             SwitchSceneUtil.switchScene(event, "LogIn.fxml", "LogIn.css");
         } catch (Exception e) {
             // UPDATE THIS:
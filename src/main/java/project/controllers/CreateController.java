@@ -44,40 +44,23 @@ public class CreateController {
         String Number = NumberField.getText().trim();
         String Password = PasswordField.getText().trim();
 
-        if (Name.isEmpty() || Age.isEmpty() || Email.isEmpty() || Number.isEmpty() || Password.isEmpty()) {
+        if (Age.isEmpty()) {
             AlertMsg.showError("Fill up", "Please fill in all fields");
             return;
         }
 
-        if (Name.length() < 2) {
-            AlertMsg.showWarning("Invalid Name", "Please enter a valid name");
-            return;
-        }
-
         int age;
         try {
             age = Integer.parseInt(Age);
-            if (age <= 0 || age > 100) {
-                AlertMsg.showWarning("Invalid Age", "Please enter a valid age between 1 and 100");
-                return;
-            }
         } catch (NumberFormatException e) {
             AlertMsg.showError("Invalid Age", "Please enter a valid number for age");
             return;
         }
 
-        if (Password.length() < 4) {
-            AlertMsg.showWarning("Weak Password", "Password must be at least 4 characters long");
-            return;
-        }
-
-        if (!Number.matches("\\d{11}")) {
-            AlertMsg.showWarning("Invalid Phone", "Please enter a valid 11-digit phone number");
-            return;
-        }
-
-        if (!Email.contains("@") || !Email.contains(".")) {
-            AlertMsg.showWarning("Invalid Email", "Please enter a valid email address");
+        // Same rules as the member import and the API
+        String validationError = LibraryMember.validateMember(Email, Name, Password, age, Number);
+        if (validationError != null) {
+            AlertMsg.showWarning("Invalid Details", validationError);
             return;
         }
 
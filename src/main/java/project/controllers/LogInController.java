@@ -5,8 +5,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import project.Databases.Admin;
-import project.Databases.LibraryMember;
+import project.Databases.UserDirectory;
 import project.Utilities.AlertMsg;
 import project.Utilities.SwitchSceneUtil;
 
@@ -38,20 +37,18 @@ public class LogInController {
         }
 
         try {
-            // First try to authenticate as Admin
-            Admin admin = Admin.authenticateAdmin(email, password);
-            if (admin != null) {
+            // One lookup finds the account whether it is an admin or a member
+            UserDirectory.User user = UserDirectory.authenticate(email, password);
+            if (user != null && user.isAdmin()) {
                 SwitchSceneUtil.currentUserEmail = email;
-                AlertMsg.showInformation("Success", "Welcome back Admin, " + admin.getName() + "!");
+                AlertMsg.showInformation("Success", "Welcome back Admin, " + user.getName() + "!");
                 SwitchSceneUtil.switchScene(event, "AdminMain.fxml", "AdminMain.css");
                 return;
             }
 
-            // If admin authentication fails, try member authentication
-            LibraryMember member = LibraryMember.AuthenticateMember(email, password);
-            if (member != null) {
+            if (user != null) {
                 SwitchSceneUtil.currentUserEmail = email;
-                AlertMsg.showInformation("Success", "Welcome back, " + member.getName() + "!");
+                AlertMsg.showInformation("Success", "Welcome back, " + user.getName() + "!");
                 SwitchSceneUtil.switchScene(event, "StudentMain.fxml", "StudentMain.css");
                 return;
             }
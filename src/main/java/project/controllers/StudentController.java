@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
 
+import project.Utilities.FxAsync;
 import project.Utilities.SwitchSceneUtil;
 import project.Utilities.memberUtil.BorrowReturn;
 import project.Databases.LibraryMember;
@@ -31,8 +32,7 @@ public class StudentController implements Initializable {
      */
     private void loadUserInfo() {
         String currentEmail = SwitchSceneUtil.currentUserEmail;
-        String welcomeMessage = LibraryMember.loadUserInfo(currentEmail);
-        userLabel.setText(welcomeMessage);
+        FxAsync.run(() -> LibraryMember.loadUserInfo(currentEmail), userLabel::setText);
     }
 
     @FXML